@@ -0,0 +1,287 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.model.Course;
+import com.coursemanagement.model.User;
+import com.coursemanagement.util.DatabaseConnection;
+import com.coursemanagement.util.ImportReport;
+import com.coursemanagement.util.ImportRow;
+import com.coursemanagement.util.ImportRowReader;
+import com.coursemanagement.util.PasswordHasher;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Streaming bulk import of users and courses.
+ *
+ * Rows are pulled one at a time from an ImportRowReader and collected into
+ * chunks of IMPORT_CHUNK_SIZE rows. Each chunk is inserted with JDBC
+ * batching in its own transaction; for users, passwords in the chunk are
+ * hashed in parallel on the shared import hasher first. Invalid or rejected
+ * rows are recorded in the ImportReport and never abort the rest of the file.
+ */
+public class BulkImporter {
+
+    /** Spreadsheet column order for user imports */
+    public static final String[] USER_COLUMNS = {"username", "email", "password", "fullName", "userType"};
+
+    /** Spreadsheet column order for course imports */
+    public static final String[] COURSE_COLUMNS = {"courseCode", "courseName", "description", "credits", "maxStudents", "teacherId"};
+
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final UserDAO userDAO;
+    private final CourseDAO courseDAO;
+    private final int chunkSize;
+
+    public BulkImporter() {
+        this.userDAO = new UserDAO();
+        this.courseDAO = new CourseDAO();
+        this.chunkSize = Math.max(1, DatabaseConnection.getIntSetting("IMPORT_CHUNK_SIZE", DEFAULT_CHUNK_SIZE));
+    }
+
+    /**
+     * Imports users from a reader
+     *
+     * @param reader Source of user rows
+     * @param report Receives progress and row errors
+     * @throws IOException if the file cannot be read
+     */
+    public void importUsers(ImportRowReader reader, ImportReport report) throws IOException {
+        List<Integer> rowNumbers = new ArrayList<>(chunkSize);
+        List<User> users = new ArrayList<>(chunkSize);
+
+        try {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                if (row.isBlank()) {
+                    continue;
+                }
+                report.rowParsed();
+                try {
+                    users.add(toUser(row));
+                    rowNumbers.add(row.getRowNumber());
+                } catch (IllegalArgumentException e) {
+                    report.rowFailed(row.getRowNumber(), e.getMessage());
+                }
+
+                if (users.size() >= chunkSize) {
+                    flushUsers(rowNumbers, users, report);
+                }
+            }
+            flushUsers(rowNumbers, users, report);
+        } finally {
+            report.finish();
+        }
+    }
+
+    /**
+     * Imports courses from a reader
+     *
+     * @param reader Source of course rows
+     * @param report Receives progress and row errors
+     * @throws IOException if the file cannot be read
+     */
+    public void importCourses(ImportRowReader reader, ImportReport report) throws IOException {
+        List<Integer> rowNumbers = new ArrayList<>(chunkSize);
+        List<Course> courses = new ArrayList<>(chunkSize);
+
+        try {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                if (row.isBlank()) {
+                    continue;
+                }
+                report.rowParsed();
+                try {
+                    courses.add(toCourse(row));
+                    rowNumbers.add(row.getRowNumber());
+                } catch (IllegalArgumentException e) {
+                    report.rowFailed(row.getRowNumber(), e.getMessage());
+                }
+
+                if (courses.size() >= chunkSize) {
+                    flushCourses(rowNumbers, courses, report);
+                }
+            }
+            flushCourses(rowNumbers, courses, report);
+        } finally {
+            report.finish();
+        }
+    }
+
+    /**
+     * Hashes the pending users' passwords in parallel, then inserts the chunk.
+     * When the import hasher's queue is full, waits for the oldest hash of
+     * the chunk before queueing more.
+     */
+    private void flushUsers(List<Integer> rowNumbers, List<User> users, ImportReport report) {
+        if (users.isEmpty()) {
+            return;
+        }
+
+        PasswordHasher hasher = PasswordHasher.getImportInstance();
+        List<Future<String>> hashes = new ArrayList<>(users.size());
+        int awaited = 0;
+        for (User user : users) {
+            while (awaited < hashes.size() && hasher.getQueueSize() >= hasher.getQueueDepth()) {
+                awaitQuietly(hashes.get(awaited++));
+            }
+            while (true) {
+                try {
+                    hashes.add(hasher.hashAsync(user.getPassword()));
+                    break;
+                } catch (RejectedExecutionException e) {
+                    // Another import filled the queue in between
+                    if (awaited == hashes.size()) {
+                        throw e;
+                    }
+                    awaitQuietly(hashes.get(awaited++));
+                }
+            }
+        }
+
+        List<Integer> hashedRows = new ArrayList<>(users.size());
+        List<User> hashedUsers = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            try {
+                users.get(i).setPassword(hashes.get(i).get());
+                hashedRows.add(rowNumbers.get(i));
+                hashedUsers.add(users.get(i));
+            } catch (ExecutionException e) {
+                report.rowFailed(rowNumbers.get(i), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                report.rowFailed(rowNumbers.get(i), "Import interrupted");
+            }
+        }
+
+        if (!hashedUsers.isEmpty()) {
+            try {
+                recordBatch(hashedRows, userDAO.createUsers(hashedUsers), report,
+                    "Rejected by the database (duplicate username or email?)");
+            } catch (SQLException e) {
+                System.err.println("Error inserting user batch: " + e.getMessage());
+                failAll(hashedRows, "Database error: " + e.getMessage(), report);
+            }
+        }
+
+        rowNumbers.clear();
+        users.clear();
+    }
+
+    private void flushCourses(List<Integer> rowNumbers, List<Course> courses, ImportReport report) {
+        if (courses.isEmpty()) {
+            return;
+        }
+
+        try {
+            recordBatch(rowNumbers, courseDAO.createCourses(courses), report,
+                "Rejected by the database (duplicate course code or unknown teacher?)");
+        } catch (SQLException e) {
+            System.err.println("Error inserting course batch: " + e.getMessage());
+            failAll(rowNumbers, "Database error: " + e.getMessage(), report);
+        }
+
+        rowNumbers.clear();
+        courses.clear();
+    }
+
+    private void recordBatch(List<Integer> rowNumbers, int[] counts, ImportReport report, String rejectedMessage) {
+        int inserted = 0;
+        for (int i = 0; i < rowNumbers.size(); i++) {
+            // Missing counts mean the driver stopped before reaching the row
+            if (i < counts.length && counts[i] != Statement.EXECUTE_FAILED) {
+                inserted++;
+            } else {
+                report.rowFailed(rowNumbers.get(i), rejectedMessage);
+            }
+        }
+        report.rowsInserted(inserted);
+    }
+
+    private void failAll(List<Integer> rowNumbers, String message, ImportReport report) {
+        for (Integer rowNumber : rowNumbers) {
+            report.rowFailed(rowNumber, message);
+        }
+    }
+
+    /**
+     * Maps a row to a user holding the plain text password
+     *
+     * @throws IllegalArgumentException if a required value is missing or invalid
+     */
+    private User toUser(ImportRow row) {
+        User user = new User();
+        user.setUsername(required(row, "username"));
+        user.setEmail(required(row, "email"));
+        user.setPassword(required(row, "password"));
+        user.setFullName(required(row, "fullName"));
+
+        String userType = required(row, "userType").toUpperCase();
+        try {
+            user.setUserType(User.UserType.valueOf(userType));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid userType '" + userType + "'");
+        }
+        return user;
+    }
+
+    /**
+     * Maps a row to a course
+     *
+     * @throws IllegalArgumentException if a required value is missing or invalid
+     */
+    private Course toCourse(ImportRow row) {
+        Course course = new Course();
+        course.setCourseCode(required(row, "courseCode"));
+        course.setCourseName(required(row, "courseName"));
+        course.setDescription(row.get("description"));
+        course.setCredits(number(row, "credits"));
+        course.setMaxStudents(number(row, "maxStudents"));
+        if (!row.get("teacherId").isEmpty()) {
+            course.setTeacherId(number(row, "teacherId"));
+        }
+        return course;
+    }
+
+    private String required(ImportRow row, String column) {
+        String value = row.get(column);
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+
+    /**
+     * Parses a whole number, accepting Excel's "3.0" form
+     */
+    private int number(ImportRow row, String column) {
+        String value = required(row, column);
+        try {
+            return (int) Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    /**
+     * Waits for a hash to finish; its outcome is read again when the chunk is collected
+     */
+    private void awaitQuietly(Future<String> hash) {
+        try {
+            hash.get();
+        } catch (ExecutionException e) {
+            // Reported for its row afterwards
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Import interrupted");
+        }
+    }
+}
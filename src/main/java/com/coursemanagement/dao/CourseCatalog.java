@@ -0,0 +1,250 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.model.Course;
+import com.coursemanagement.util.DatabaseConnection;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioned in-memory snapshot of the course catalog used by CourseDAO.
+ *
+ * The whole catalog is loaded with one query into immutable maps and served
+ * from memory until a write bumps the data version or the snapshot exceeds
+ * the configured maximum staleness (CATALOG_MAX_STALENESS_SECONDS, 0 turns
+ * caching off). Enrollment counter changes patch the snapshot in place
+ * instead of discarding it, so registration traffic does not thrash it:
+ * the writer takes a version with beginWrite() before its transaction
+ * commits and passes it to adjustEnrolled() afterwards, which patches only
+ * a snapshot loaded before the write began and so cannot contain it.
+ * Reloads run outside the monitor, so they never hold up those writers.
+ *
+ * Callers always receive copies, never the cached Course instances.
+ */
+public class CourseCatalog {
+
+    private static final int DEFAULT_MAX_STALENESS_SECONDS = 30;
+
+    private static final CourseCatalog INSTANCE = new CourseCatalog();
+
+    /**
+     * Loads every course, ordered by course code
+     */
+    interface Loader {
+        List<Course> load() throws SQLException;
+    }
+
+    /**
+     * Immutable view of the catalog at one data version
+     */
+    static final class Snapshot {
+        final long version;
+        final long loadedAt;
+        final List<Course> all;
+        final List<Course> available;
+        final Map<Integer, Course> byId;
+        final Map<String, Course> byCode;
+        final Map<Integer, List<Course>> byTeacher;
+
+        Snapshot(long version, long loadedAt, List<Course> courses) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+
+            List<Course> available = new ArrayList<>();
+            Map<Integer, Course> byId = new HashMap<>();
+            Map<String, Course> byCode = new HashMap<>();
+            Map<Integer, List<Course>> byTeacher = new HashMap<>();
+            for (Course course : courses) {
+                if (course.hasAvailableSlots()) {
+                    available.add(course);
+                }
+                byId.put(course.getCourseId(), course);
+                byCode.put(course.getCourseCode(), course);
+                if (course.getTeacherId() > 0) {
+                    byTeacher.computeIfAbsent(course.getTeacherId(), id -> new ArrayList<>()).add(course);
+                }
+            }
+
+            this.all = Collections.unmodifiableList(new ArrayList<>(courses));
+            this.available = Collections.unmodifiableList(available);
+            this.byId = Collections.unmodifiableMap(byId);
+            this.byCode = Collections.unmodifiableMap(byCode);
+            this.byTeacher = Collections.unmodifiableMap(byTeacher);
+        }
+    }
+
+    private final Object loadLock = new Object();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private volatile long maxStalenessMillis = -1;
+
+    private CourseCatalog() {
+    }
+
+    public static CourseCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a snapshot no older than the staleness limit, loading a new one
+     * if needed. Concurrent misses share a single load.
+     *
+     * @param loader Loads the catalog from the database
+     * @return The current snapshot, or null if caching is off or loading failed
+     */
+    Snapshot current(Loader loader) {
+        if (getMaxStalenessMillis() <= 0) {
+            return null;
+        }
+
+        Snapshot snap = snapshot;
+        if (isFresh(snap)) {
+            hits.incrementAndGet();
+            return snap;
+        }
+
+        synchronized (loadLock) {
+            snap = snapshot;
+            if (isFresh(snap)) {
+                hits.incrementAndGet();
+                return snap;
+            }
+            misses.incrementAndGet();
+
+            long loadVersion = version.get();
+            try {
+                snap = new Snapshot(loadVersion, System.currentTimeMillis(), loader.load());
+                loads.incrementAndGet();
+                synchronized (this) {
+                    // A write that began during the query may or may not be in
+                    // the result, so such a snapshot is served once but not kept
+                    if (version.get() == loadVersion) {
+                        snapshot = snap;
+                    }
+                }
+                return snap;
+            } catch (SQLException e) {
+                System.err.println("Error loading course catalog: " + e.getMessage());
+                e.printStackTrace();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Discards the snapshot after a catalog write
+     */
+    public void invalidate() {
+        synchronized (this) {
+            version.incrementAndGet();
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Marks the start of an enrollment counter change; call before the
+     * transaction commits
+     *
+     * @return The version to pass to adjustEnrolled once the transaction ends
+     */
+    public long beginWrite() {
+        return version.getAndIncrement();
+    }
+
+    /**
+     * Applies an enrollment counter change to the cached course without a
+     * reload. The snapshot is patched only if it is still the one current
+     * when beginWrite() was called; otherwise it is discarded.
+     *
+     * @param courseId The course ID
+     * @param delta Change in enrolled students, 0 if the transaction rolled back
+     * @param writeVersion The version returned by beginWrite()
+     */
+    public void adjustEnrolled(int courseId, int delta, long writeVersion) {
+        synchronized (this) {
+            Snapshot snap = snapshot;
+            long next = version.incrementAndGet();
+            if (snap == null || snap.version != writeVersion) {
+                snapshot = null;
+                return;
+            }
+            if (delta == 0) {
+                snapshot = new Snapshot(next, snap.loadedAt, snap.all);
+                return;
+            }
+            if (!snap.byId.containsKey(courseId)) {
+                snapshot = null;
+                return;
+            }
+
+            List<Course> patched = new ArrayList<>(snap.all.size());
+            for (Course course : snap.all) {
+                if (course.getCourseId() == courseId) {
+                    Course copy = new Course(course);
+                    copy.setEnrolledStudents(Math.max(0, course.getEnrolledStudents() + delta));
+                    patched.add(copy);
+                } else {
+                    patched.add(course);
+                }
+            }
+            snapshot = new Snapshot(next, snap.loadedAt, patched);
+        }
+    }
+
+    /**
+     * Gets the catalog data version, bumped on every write
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Get current cache statistics
+     */
+    public String getCatalogStats() {
+        Snapshot snap = snapshot;
+        return String.format("Course Catalog - Version: %d, Courses: %d, Hits: %d, Misses: %d, Loads: %d",
+                           version.get(), snap != null ? snap.all.size() : 0, hits.get(), misses.get(), loads.get());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private boolean isFresh(Snapshot snap) {
+        return snap != null
+            && snap.version == version.get()
+            && System.currentTimeMillis() - snap.loadedAt < getMaxStalenessMillis();
+    }
+
+    private long getMaxStalenessMillis() {
+        if (maxStalenessMillis < 0) {
+            maxStalenessMillis = DatabaseConnection.getIntSetting(
+                "CATALOG_MAX_STALENESS_SECONDS", DEFAULT_MAX_STALENESS_SECONDS) * 1000L;
+        }
+        return maxStalenessMillis;
+    }
+
+    /**
+     * Copies cached courses so callers can modify them freely
+     */
+    static List<Course> copyOf(List<Course> courses) {
+        List<Course> copies = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            copies.add(new Course(course));
+        }
+        return copies;
+    }
+}
@@ -3,11 +3,13 @@ package com.coursemanagement.dao;
 import com.coursemanagement.model.Course;
 import com.coursemanagement.util.DatabaseConnection;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -21,12 +23,36 @@ import java.util.List;
  */
 public class CourseDAO {
     
+    private final CourseCatalog catalog = CourseCatalog.getInstance();
+    
     /**
      * Gets all courses with their teacher information
      * 
      * @return List of all courses
      */
     public List<Course> getAllCourses() {
+        CourseCatalog.Snapshot snapshot = catalog.current(this::loadAllCourses);
+        if (snapshot != null) {
+            return CourseCatalog.copyOf(snapshot.all);
+        }
+        
+        try {
+            return loadAllCourses();
+        } catch (SQLException e) {
+            System.err.println("Error getting all courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return new ArrayList<>();
+    }
+    
+    /**
+     * Loads all courses with their teacher information from the database
+     * 
+     * @return List of all courses ordered by course code
+     * @throws SQLException if the query fails
+     */
+    private List<Course> loadAllCourses() throws SQLException {
         List<Course> courses = new ArrayList<>();
         String sql = "SELECT c.course_id, c.course_code, c.course_name, c.description, c.credits, " +
                     "c.teacher_id, c.max_students, c.enrolled_students, c.created_at, c.updated_at, " +
@@ -42,10 +68,6 @@ public class CourseDAO {
             while (rs.next()) {
                 courses.add(mapResultSetToCourse(rs));
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error getting all courses: " + e.getMessage());
-            e.printStackTrace();
         }
         
         return courses;
@@ -58,6 +80,11 @@ public class CourseDAO {
      * @return List of courses assigned to the teacher
      */
     public List<Course> getCoursesByTeacher(int teacherId) {
+        CourseCatalog.Snapshot snapshot = catalog.current(this::loadAllCourses);
+        if (snapshot != null) {
+            return CourseCatalog.copyOf(snapshot.byTeacher.getOrDefault(teacherId, Collections.emptyList()));
+        }
+        
         List<Course> courses = new ArrayList<>();
         String sql = "SELECT c.course_id, c.course_code, c.course_name, c.description, c.credits, " +
                     "c.teacher_id, c.max_students, c.enrolled_students, c.created_at, c.updated_at, " +
@@ -92,6 +119,11 @@ public class CourseDAO {
      * @return List of courses that have available slots
      */
     public List<Course> getAvailableCourses() {
+        CourseCatalog.Snapshot snapshot = catalog.current(this::loadAllCourses);
+        if (snapshot != null) {
+            return CourseCatalog.copyOf(snapshot.available);
+        }
+        
         List<Course> courses = new ArrayList<>();
         String sql = "SELECT c.course_id, c.course_code, c.course_name, c.description, c.credits, " +
                     "c.teacher_id, c.max_students, c.enrolled_students, c.created_at, c.updated_at, " +
@@ -117,13 +149,118 @@ public class CourseDAO {
         return courses;
     }
     
+    /**
+     * Gets one page of courses ordered by course code, using the course code
+     * of the last row of the previous page (after) or of the first row of the
+     * next page (before) as the cursor. Only the page is copied out of the
+     * catalog snapshot.
+     *
+     * @param availableOnly Only courses with free seats
+     * @param teacherId Only courses of this teacher, or 0 for all
+     * @param after Course code of the last row of the previous page, or null
+     * @param before Course code of the first row of the next page, or null; ignored when after is given
+     * @param limit Page size
+     * @return The page, empty if the query failed
+     */
+    public KeysetPage<Course> getCoursePage(boolean availableOnly, int teacherId, String after, String before,
+                                            int limit) {
+        List<Course> page = new ArrayList<>();
+        boolean more = false;
+        // Walking backwards reads in descending order and reverses the rows afterwards
+        boolean backward = after == null && before != null;
+
+        CourseCatalog.Snapshot snapshot = catalog.current(this::loadAllCourses);
+        if (snapshot != null) {
+            List<Course> source = teacherId > 0
+                ? snapshot.byTeacher.getOrDefault(teacherId, Collections.emptyList())
+                : availableOnly ? snapshot.available : snapshot.all;
+            for (int i = 0; i < source.size(); i++) {
+                Course course = source.get(backward ? source.size() - 1 - i : i);
+                String code = course.getCourseCode();
+                if ((backward ? code.compareToIgnoreCase(before) >= 0
+                              : after != null && code.compareToIgnoreCase(after) <= 0)
+                        || (availableOnly && !course.hasAvailableSlots())) {
+                    continue;
+                }
+                if (page.size() == limit) {
+                    more = true;
+                    break;
+                }
+                page.add(course);
+            }
+            page = CourseCatalog.copyOf(page);
+        } else {
+            StringBuilder sql = new StringBuilder(
+                "SELECT c.course_id, c.course_code, c.course_name, c.description, c.credits, " +
+                "c.teacher_id, c.max_students, c.enrolled_students, c.created_at, c.updated_at, " +
+                "u.full_name as teacher_name " +
+                "FROM courses c " +
+                "LEFT JOIN users u ON c.teacher_id = u.user_id WHERE 1 = 1");
+            List<Object> params = new ArrayList<>();
+            if (availableOnly) {
+                sql.append(" AND c.enrolled_students < c.max_students");
+            }
+            if (teacherId > 0) {
+                sql.append(" AND c.teacher_id = ?");
+                params.add(teacherId);
+            }
+            if (backward) {
+                sql.append(" AND c.course_code < ?");
+                params.add(before);
+            } else if (after != null) {
+                sql.append(" AND c.course_code > ?");
+                params.add(after);
+            }
+            sql.append(backward ? " ORDER BY c.course_code DESC LIMIT ?" : " ORDER BY c.course_code LIMIT ?");
+            params.add(limit + 1);
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (page.size() == limit) {
+                            more = true;
+                            break;
+                        }
+                        page.add(mapResultSetToCourse(rs));
+                    }
+                }
+
+            } catch (SQLException e) {
+                System.err.println("Error getting course page: " + e.getMessage());
+                e.printStackTrace();
+                return new KeysetPage<>(new ArrayList<>(), null, null, false, false);
+            }
+        }
+
+        if (backward) {
+            Collections.reverse(page);
+        }
+        String first = page.isEmpty() ? null : page.get(0).getCourseCode();
+        String last = page.isEmpty() ? null : page.get(page.size() - 1).getCourseCode();
+        // The extra row only tells whether another page exists in the direction of travel
+        boolean hasPrevious = backward ? more : after != null;
+        boolean hasNext = backward || more;
+        return new KeysetPage<>(page, first, last, hasPrevious, hasNext);
+    }
+
     /**
      * Finds a course by its ID
-     * 
+     *
      * @param courseId The course ID to search for
      * @return Course object if found, null otherwise
      */
     public Course findById(int courseId) {
+        CourseCatalog.Snapshot snapshot = catalog.current(this::loadAllCourses);
+        if (snapshot != null) {
+            Course course = snapshot.byId.get(courseId);
+            return course != null ? new Course(course) : null;
+        }
+        
         String sql = "SELECT c.course_id, c.course_code, c.course_name, c.description, c.credits, " +
                     "c.teacher_id, c.max_students, c.enrolled_students, c.created_at, c.updated_at, " +
                     "u.full_name as teacher_name " +
@@ -157,6 +294,12 @@ public class CourseDAO {
      * @return Course object if found, null otherwise
      */
     public Course findByCourseCode(String courseCode) {
+        CourseCatalog.Snapshot snapshot = catalog.current(this::loadAllCourses);
+        if (snapshot != null) {
+            Course course = snapshot.byCode.get(courseCode);
+            return course != null ? new Course(course) : null;
+        }
+        
         String sql = "SELECT c.course_id, c.course_code, c.course_name, c.description, c.credits, " +
                     "c.teacher_id, c.max_students, c.enrolled_students, c.created_at, c.updated_at, " +
                     "u.full_name as teacher_name " +
@@ -219,6 +362,7 @@ public class CourseDAO {
                 if (generatedKeys.next()) {
                     int courseId = generatedKeys.getInt(1);
                     course.setCourseId(courseId);
+                    catalog.invalidate();
                     return courseId;
                 } else {
                     throw new SQLException("Creating course failed, no ID obtained.");
@@ -233,6 +377,54 @@ public class CourseDAO {
         return -1;
     }
     
+    /**
+     * Inserts courses with JDBC batching in a single transaction.
+     * Rows rejected by the database (for example a duplicate course code or
+     * an unknown teacher) are reported as Statement.EXECUTE_FAILED while the
+     * remaining rows are still committed.
+     * 
+     * @param courses The courses to create
+     * @return Update count per course, in input order
+     * @throws SQLException if the batch as a whole could not be executed
+     */
+    public int[] createCourses(List<Course> courses) throws SQLException {
+        String sql = "INSERT INTO courses (course_code, course_name, description, credits, teacher_id, max_students, enrolled_students) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, 0)";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (Course course : courses) {
+                    stmt.setString(1, course.getCourseCode());
+                    stmt.setString(2, course.getCourseName());
+                    stmt.setString(3, course.getDescription());
+                    stmt.setInt(4, course.getCredits());
+                    if (course.getTeacherId() > 0) {
+                        stmt.setInt(5, course.getTeacherId());
+                    } else {
+                        stmt.setNull(5, java.sql.Types.INTEGER);
+                    }
+                    stmt.setInt(6, course.getMaxStudents());
+                    stmt.addBatch();
+                }
+                
+                int[] counts;
+                try {
+                    counts = stmt.executeBatch();
+                } catch (BatchUpdateException e) {
+                    // The driver continues past failed rows; keep the ones that succeeded
+                    counts = e.getUpdateCounts();
+                }
+                conn.commit();
+                catalog.invalidate();
+                return counts;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+    
     /**
      * Updates an existing course
      * 
@@ -263,6 +455,11 @@ public class CourseDAO {
             stmt.setInt(7, course.getCourseId());
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                catalog.invalidate();
+                SeatLedger.invalidateCourse(course.getCourseId());
+                DataVersion.seatsChanged(course.getCourseId());
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -290,6 +487,9 @@ public class CourseDAO {
             stmt.setInt(2, courseId);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                catalog.invalidate();
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -317,6 +517,11 @@ public class CourseDAO {
             stmt.setInt(2, courseId);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                catalog.invalidate();
+                SeatLedger.invalidateCourse(courseId);
+                DataVersion.seatsChanged(courseId);
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -342,6 +547,10 @@ public class CourseDAO {
             stmt.setInt(1, courseId);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                catalog.invalidate();
+                SeatLedger.invalidateCourse(courseId);
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
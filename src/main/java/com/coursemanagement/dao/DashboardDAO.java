@@ -0,0 +1,116 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.model.Course;
+import com.coursemanagement.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the admin dashboard statistics.
+ *
+ * All counts come from one aggregate query and the short course lists from
+ * one UNION of LIMITed selects, so the work is two round trips and the
+ * result size is independent of the number of users and courses.
+ */
+public class DashboardDAO {
+
+    /** A course at or above this share of its capacity counts as near capacity: 4/5 = 80% */
+    private static final String NEAR_CAPACITY = "enrolled_students * 5 >= max_students * 4";
+
+    private static final String COUNTS_SQL =
+        "SELECT " +
+        "(SELECT COUNT(*) FROM users WHERE user_type = 'STUDENT') AS students, " +
+        "(SELECT COUNT(*) FROM users WHERE user_type = 'TEACHER') AS teachers, " +
+        "COUNT(*) AS courses, " +
+        "COALESCE(SUM(enrolled_students), 0) AS enrolled, " +
+        "COALESCE(SUM(teacher_id IS NOT NULL), 0) AS with_teachers, " +
+        "COALESCE(SUM(enrolled_students >= max_students), 0) AS full_courses, " +
+        "COALESCE(SUM(enrolled_students < max_students AND " + NEAR_CAPACITY + "), 0) AS near_capacity " +
+        "FROM courses";
+
+    private static final String COURSE_COLUMNS =
+        "course_id, course_code, course_name, credits, teacher_id, max_students, enrolled_students";
+
+    private static final String LISTS_SQL =
+        "(SELECT 'UNASSIGNED' AS bucket, " + COURSE_COLUMNS + " FROM courses " +
+        "WHERE teacher_id IS NULL ORDER BY course_code LIMIT ?) " +
+        "UNION ALL " +
+        "(SELECT 'FULL' AS bucket, " + COURSE_COLUMNS + " FROM courses " +
+        "WHERE enrolled_students >= max_students ORDER BY course_code LIMIT ?) " +
+        "UNION ALL " +
+        "(SELECT 'NEAR' AS bucket, " + COURSE_COLUMNS + " FROM courses " +
+        "WHERE enrolled_students < max_students AND " + NEAR_CAPACITY + " " +
+        "ORDER BY enrolled_students / max_students DESC, course_code LIMIT ?)";
+
+    /**
+     * Computes the dashboard statistics
+     *
+     * @param listLimit Maximum courses to return in each list
+     * @return The statistics, or null if a query failed
+     */
+    public DashboardStats loadStats(int listLimit) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int students, teachers, courses, enrolled, withTeachers, fullCourses, nearCapacity;
+            try (PreparedStatement stmt = conn.prepareStatement(COUNTS_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                students = rs.getInt("students");
+                teachers = rs.getInt("teachers");
+                courses = rs.getInt("courses");
+                enrolled = rs.getInt("enrolled");
+                withTeachers = rs.getInt("with_teachers");
+                fullCourses = rs.getInt("full_courses");
+                nearCapacity = rs.getInt("near_capacity");
+            }
+
+            List<Course> unassigned = new ArrayList<>();
+            List<Course> full = new ArrayList<>();
+            List<Course> near = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(LISTS_SQL)) {
+                stmt.setInt(1, listLimit);
+                stmt.setInt(2, listLimit);
+                stmt.setInt(3, listLimit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String bucket = rs.getString("bucket");
+                        Course course = mapResultSetToCourse(rs);
+                        if ("UNASSIGNED".equals(bucket)) {
+                            unassigned.add(course);
+                        } else if ("FULL".equals(bucket)) {
+                            full.add(course);
+                        } else {
+                            near.add(course);
+                        }
+                    }
+                }
+            }
+
+            return new DashboardStats(students, teachers, courses, enrolled, withTeachers, fullCourses,
+                                      nearCapacity, unassigned, full, near);
+
+        } catch (SQLException e) {
+            System.err.println("Error loading dashboard statistics: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private Course mapResultSetToCourse(ResultSet rs) throws SQLException {
+        Course course = new Course();
+        course.setCourseId(rs.getInt("course_id"));
+        course.setCourseCode(rs.getString("course_code"));
+        course.setCourseName(rs.getString("course_name"));
+        course.setCredits(rs.getInt("credits"));
+        course.setTeacherId(rs.getInt("teacher_id"));
+        course.setMaxStudents(rs.getInt("max_students"));
+        course.setEnrolledStudents(rs.getInt("enrolled_students"));
+        return course;
+    }
+}
@@ -0,0 +1,204 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.util.DatabaseConnection;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Materialized admin dashboard statistics, recomputed in the background.
+ *
+ * Requests read the last DashboardStats from memory. A scheduler thread
+ * checks the data version every DASHBOARD_REFRESH_SECONDS and recomputes
+ * when a write has happened since the last snapshot, or when the snapshot
+ * is older than DASHBOARD_MAX_AGE_SECONDS. A request that finds the
+ * snapshot stale is still answered from it while a recomputation is started
+ * (stale-while-revalidate); only the very first request waits. At most one
+ * recomputation runs at a time and concurrent callers share it.
+ *
+ * Writes are detected through DataVersion. Setting DASHBOARD_MAX_AGE_SECONDS
+ * to 0 turns the snapshot off and every call queries the database.
+ */
+public class DashboardSnapshot {
+
+    private static final int DEFAULT_REFRESH_SECONDS = 5;
+    private static final int DEFAULT_MAX_AGE_SECONDS = 60;
+    private static final int LIST_LIMIT = 3;
+
+    private static DashboardSnapshot instance;
+
+    /**
+     * Statistics together with the data version they were computed at
+     */
+    private static final class Entry {
+        final DashboardStats stats;
+        final long version;
+
+        Entry(DashboardStats stats, long version) {
+            this.stats = stats;
+            this.version = version;
+        }
+    }
+
+    private final DashboardDAO dashboardDAO;
+    private final long maxAgeMillis;
+    private final AtomicReference<CompletableFuture<Entry>> inFlight = new AtomicReference<>();
+    private volatile Entry entry;
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Private constructor for singleton pattern
+     */
+    private DashboardSnapshot(DashboardDAO dashboardDAO, int refreshSeconds, int maxAgeSeconds) {
+        this.dashboardDAO = dashboardDAO;
+        this.maxAgeMillis = TimeUnit.SECONDS.toMillis(maxAgeSeconds);
+
+        if (maxAgeMillis > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "dashboard-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::refreshIfStale, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Get singleton instance of the dashboard snapshot
+     */
+    public static synchronized DashboardSnapshot getInstance() {
+        if (instance == null) {
+            int refresh = DatabaseConnection.getIntSetting("DASHBOARD_REFRESH_SECONDS", DEFAULT_REFRESH_SECONDS);
+            int maxAge = DatabaseConnection.getIntSetting("DASHBOARD_MAX_AGE_SECONDS", DEFAULT_MAX_AGE_SECONDS);
+            instance = new DashboardSnapshot(new DashboardDAO(), Math.max(1, refresh), Math.max(0, maxAge));
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the background refresh, if the snapshot was created, and drops the instance
+     */
+    public static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Returns the latest statistics without waiting for a recomputation,
+     * except on the first call when there is nothing to serve yet
+     *
+     * @return The statistics, or null if they have never been computed successfully
+     */
+    public DashboardStats get() {
+        if (maxAgeMillis <= 0) {
+            return dashboardDAO.loadStats(LIST_LIMIT);
+        }
+
+        Entry current = entry;
+        if (current == null) {
+            Entry loaded = refresh().join();
+            return loaded != null ? loaded.stats : null;
+        }
+
+        if (isStale(current)) {
+            staleHits.incrementAndGet();
+            refresh();
+        } else {
+            hits.incrementAndGet();
+        }
+        return current.stats;
+    }
+
+    /**
+     * Starts a recomputation unless one is already running
+     *
+     * @return Completes with the newest entry once the running recomputation ends
+     */
+    private CompletableFuture<Entry> refresh() {
+        while (true) {
+            CompletableFuture<Entry> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+
+            CompletableFuture<Entry> future = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, future)) {
+                continue;
+            }
+            try {
+                scheduler.execute(() -> recompute(future));
+            } catch (RejectedExecutionException e) {
+                // Shut down; compute on the calling thread instead
+                recompute(future);
+            }
+            return future;
+        }
+    }
+
+    private void recompute(CompletableFuture<Entry> future) {
+        Entry result = entry;
+        try {
+            // Read the version before the queries so a write racing them
+            // leaves the new snapshot already stale
+            long version = DataVersion.getCombinedVersion();
+            DashboardStats stats = dashboardDAO.loadStats(LIST_LIMIT);
+            if (stats != null) {
+                result = new Entry(stats, version);
+                entry = result;
+                refreshes.incrementAndGet();
+            } else {
+                failures.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            System.err.println("Error refreshing dashboard snapshot: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            inFlight.set(null);
+            future.complete(result);
+        }
+    }
+
+    private void refreshIfStale() {
+        Entry current = entry;
+        if (current != null && isStale(current)) {
+            refresh();
+        }
+    }
+
+    private boolean isStale(Entry current) {
+        return current.version != DataVersion.getCombinedVersion()
+            || System.currentTimeMillis() - current.stats.getComputedAt() >= maxAgeMillis;
+    }
+
+    /**
+     * Get current snapshot statistics
+     */
+    public String getSnapshotStats() {
+        Entry current = entry;
+        return String.format("Dashboard Snapshot - Age: %s, Hits: %d, Stale hits: %d, Refreshes: %d, Failures: %d",
+                           current != null ? (System.currentTimeMillis() - current.stats.getComputedAt()) + "ms" : "none",
+                           hits.get(), staleHits.get(), refreshes.get(), failures.get());
+    }
+
+    /**
+     * Stops the background refresh
+     */
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.model.Course;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Admin dashboard figures computed by DashboardDAO.
+ *
+ * Counts cover the whole catalog; the course lists hold only the few rows
+ * the dashboard shows, so the object stays small however large the data is.
+ */
+public class DashboardStats {
+
+    private final int totalStudents;
+    private final int totalTeachers;
+    private final int totalCourses;
+    private final int totalEnrollments;
+    private final int coursesWithTeachers;
+    private final int fullCourses;
+    private final int nearCapacityCount;
+    private final List<Course> unassignedCourses;
+    private final List<Course> fullCapacityCourses;
+    private final List<Course> nearCapacityCourses;
+    private final long computedAt;
+
+    public DashboardStats(int totalStudents, int totalTeachers, int totalCourses, int totalEnrollments,
+                          int coursesWithTeachers, int fullCourses, int nearCapacityCount,
+                          List<Course> unassignedCourses, List<Course> fullCapacityCourses,
+                          List<Course> nearCapacityCourses) {
+        this.totalStudents = totalStudents;
+        this.totalTeachers = totalTeachers;
+        this.totalCourses = totalCourses;
+        this.totalEnrollments = totalEnrollments;
+        this.coursesWithTeachers = coursesWithTeachers;
+        this.fullCourses = fullCourses;
+        this.nearCapacityCount = nearCapacityCount;
+        this.unassignedCourses = Collections.unmodifiableList(unassignedCourses);
+        this.fullCapacityCourses = Collections.unmodifiableList(fullCapacityCourses);
+        this.nearCapacityCourses = Collections.unmodifiableList(nearCapacityCourses);
+        this.computedAt = System.currentTimeMillis();
+    }
+
+    public int getTotalStudents() { return totalStudents; }
+    public int getTotalTeachers() { return totalTeachers; }
+    public int getTotalCourses() { return totalCourses; }
+
+    /** Sum of enrolled_students over all courses */
+    public int getTotalEnrollments() { return totalEnrollments; }
+
+    public int getCoursesWithTeachers() { return coursesWithTeachers; }
+    public int getCoursesWithoutTeachers() { return totalCourses - coursesWithTeachers; }
+    public int getFullCourses() { return fullCourses; }
+    public int getAvailableCourses() { return totalCourses - fullCourses; }
+
+    /** Courses at 80% of capacity or more that are not yet full */
+    public int getNearCapacityCount() { return nearCapacityCount; }
+
+    /** First unassigned courses by course code */
+    public List<Course> getUnassignedCourses() { return unassignedCourses; }
+
+    /** First full courses by course code */
+    public List<Course> getFullCapacityCourses() { return fullCapacityCourses; }
+
+    /** Near-capacity courses, fullest first */
+    public List<Course> getNearCapacityCourses() { return nearCapacityCourses; }
+
+    /** When the figures were computed, in epoch milliseconds */
+    public long getComputedAt() { return computedAt; }
+}
@@ -0,0 +1,89 @@
+package com.coursemanagement.dao;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide change counters for the data pages are rendered from.
+ *
+ * Course writes and enrollment counter changes bump the course catalog
+ * version; the DAOs bump the counters here for the remaining enrollment and
+ * user writes. The counters start at zero in every JVM, so anything derived
+ * from them outside the process should also include getEpoch().
+ *
+ * Courses whose seat counts changed are also collected here until the
+ * live seat feed picks them up with drainSeatChanges().
+ */
+public final class DataVersion {
+
+    private static final long EPOCH = System.currentTimeMillis();
+
+    private static final AtomicLong enrollments = new AtomicLong();
+    private static final AtomicLong users = new AtomicLong();
+    private static final Set<Integer> seatChanges = ConcurrentHashMap.newKeySet();
+
+    private DataVersion() {
+    }
+
+    /**
+     * Records a write to the enrollments table
+     */
+    public static void enrollmentsChanged() {
+        enrollments.incrementAndGet();
+    }
+
+    /**
+     * Records a write to the users table
+     */
+    public static void usersChanged() {
+        users.incrementAndGet();
+    }
+
+    /**
+     * Records a committed change to a course's enrolled or maximum students
+     */
+    public static void seatsChanged(int courseId) {
+        seatChanges.add(courseId);
+    }
+
+    /**
+     * Removes and returns the courses whose seats changed since the last call
+     */
+    public static Set<Integer> drainSeatChanges() {
+        Set<Integer> drained = new HashSet<>();
+        for (Iterator<Integer> it = seatChanges.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    public static long getCatalogVersion() {
+        return CourseCatalog.getInstance().getVersion();
+    }
+
+    public static long getEnrollmentVersion() {
+        return enrollments.get();
+    }
+
+    public static long getUserVersion() {
+        return users.get();
+    }
+
+    /**
+     * Sum of all counters; changes whenever any of them does
+     */
+    public static long getCombinedVersion() {
+        return getCatalogVersion() + enrollments.get() + users.get();
+    }
+
+    /**
+     * When the counters were created, in epoch milliseconds
+     */
+    public static long getEpoch() {
+        return EPOCH;
+    }
+}
@@ -7,8 +7,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) for Enrollment entity.
@@ -21,6 +26,16 @@ import java.util.List;
  */
 public class EnrollmentDAO {
     
+    /** MySQL error code for a duplicate key on insert */
+    private static final int DUPLICATE_KEY_ERROR = 1062;
+    
+    /**
+     * Outcome of a seat reservation attempt
+     */
+    public enum EnrollmentOutcome {
+        ENROLLED, FULL, DUPLICATE, NOT_FOUND, ERROR
+    }
+    
     /**
      * Enrolls a student in a course
      * 
@@ -29,67 +44,73 @@ public class EnrollmentDAO {
      * @return The enrollment ID if successful, -1 if failed
      */
     public int enrollStudent(int studentId, int courseId) {
-        // First check if student is already enrolled
-        if (isStudentEnrolled(studentId, courseId)) {
-            System.out.println("Student is already enrolled in this course");
-            return -1;
+        Enrollment enrollment = new Enrollment(studentId, courseId);
+        if (reserveSeat(enrollment) == EnrollmentOutcome.ENROLLED) {
+            return enrollment.getEnrollmentId();
         }
+        return -1;
+    }
+    
+    /**
+     * Reserves a seat for a student in a single transaction on one connection.
+     * The seat is claimed with a conditional UPDATE so concurrent registrations
+     * can never push enrolled_students past max_students; the enrollment row is
+     * inserted afterwards and a duplicate rolls the claimed seat back.
+     * 
+     * @param enrollment The enrollment to create; its ID is set on success
+     * @return The outcome of the reservation
+     */
+    public EnrollmentOutcome reserveSeat(Enrollment enrollment) {
+        String claimSql = "UPDATE courses SET enrolled_students = enrolled_students + 1 " +
+                         "WHERE course_id = ? AND enrolled_students < max_students";
+        String insertSql = "INSERT INTO enrollments (student_id, course_id, status) VALUES (?, ?, 'ENROLLED')";
         
+        CourseCatalog catalog = CourseCatalog.getInstance();
+        long catalogVersion = catalog.beginWrite();
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false); // Start transaction
             
-            // Check if course has available slots
-            String checkSql = "SELECT max_students, enrolled_students FROM courses WHERE course_id = ?";
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
-                checkStmt.setInt(1, courseId);
-                try (ResultSet rs = checkStmt.executeQuery()) {
-                    if (rs.next()) {
-                        int maxStudents = rs.getInt("max_students");
-                        int enrolledStudents = rs.getInt("enrolled_students");
-                        
-                        if (enrolledStudents >= maxStudents) {
-                            System.out.println("Course is full, cannot enroll student");
-                            conn.rollback();
-                            return -1;
-                        }
-                    } else {
-                        System.out.println("Course not found");
-                        conn.rollback();
-                        return -1;
-                    }
-                }
+            // Claim a seat; the row lock is held until commit or rollback
+            int claimed;
+            try (PreparedStatement claimStmt = conn.prepareStatement(claimSql)) {
+                claimStmt.setInt(1, enrollment.getCourseId());
+                claimed = claimStmt.executeUpdate();
+            }
+            
+            if (claimed == 0) {
+                conn.rollback();
+                catalog.adjustEnrolled(enrollment.getCourseId(), 0, catalogVersion);
+                return courseExists(conn, enrollment.getCourseId())
+                    ? EnrollmentOutcome.FULL : EnrollmentOutcome.NOT_FOUND;
             }
             
-            // Insert enrollment record
-            String insertSql = "INSERT INTO enrollments (student_id, course_id, status) VALUES (?, ?, 'ENROLLED')";
-            int enrollmentId = -1;
             try (PreparedStatement insertStmt = conn.prepareStatement(insertSql, PreparedStatement.RETURN_GENERATED_KEYS)) {
-                insertStmt.setInt(1, studentId);
-                insertStmt.setInt(2, courseId);
+                insertStmt.setInt(1, enrollment.getStudentId());
+                insertStmt.setInt(2, enrollment.getCourseId());
+                insertStmt.executeUpdate();
                 
-                int affectedRows = insertStmt.executeUpdate();
-                if (affectedRows > 0) {
-                    try (ResultSet generatedKeys = insertStmt.getGeneratedKeys()) {
-                        if (generatedKeys.next()) {
-                            enrollmentId = generatedKeys.getInt(1);
-                        }
+                try (ResultSet generatedKeys = insertStmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        enrollment.setEnrollmentId(generatedKeys.getInt(1));
                     }
                 }
-            }
-            
-            // Update course enrollment count
-            if (enrollmentId > 0) {
-                String updateSql = "UPDATE courses SET enrolled_students = enrolled_students + 1 WHERE course_id = ?";
-                try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-                    updateStmt.setInt(1, courseId);
-                    updateStmt.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                if (e.getErrorCode() != DUPLICATE_KEY_ERROR) {
+                    throw e;
                 }
+                // unique_enrollment (student_id, course_id) already exists
+                conn.rollback();
+                catalog.adjustEnrolled(enrollment.getCourseId(), 0, catalogVersion);
+                return EnrollmentOutcome.DUPLICATE;
             }
             
             conn.commit(); // Commit transaction
-            return enrollmentId;
+            catalog.adjustEnrolled(enrollment.getCourseId(), 1, catalogVersion);
+            DataVersion.seatsChanged(enrollment.getCourseId());
+            enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
+            return EnrollmentOutcome.ENROLLED;
             
         } catch (SQLException e) {
             System.err.println("Error enrolling student: " + e.getMessage());
@@ -112,7 +133,25 @@ public class EnrollmentDAO {
             }
         }
         
-        return -1;
+        return EnrollmentOutcome.ERROR;
+    }
+    
+    /**
+     * Checks whether a course row exists, reusing the caller's connection
+     * 
+     * @param conn The open connection
+     * @param courseId The course ID
+     * @return true if the course exists, false otherwise
+     * @throws SQLException if the query fails
+     */
+    private boolean courseExists(Connection conn, int courseId) throws SQLException {
+        String sql = "SELECT 1 FROM courses WHERE course_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, courseId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
     }
     
     /**
@@ -123,6 +162,8 @@ public class EnrollmentDAO {
      * @return true if successful, false otherwise
      */
     public boolean dropStudent(int studentId, int courseId) {
+        CourseCatalog catalog = CourseCatalog.getInstance();
+        long catalogVersion = catalog.beginWrite();
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
@@ -148,6 +189,11 @@ public class EnrollmentDAO {
             }
             
             conn.commit(); // Commit transaction
+            catalog.adjustEnrolled(courseId, affectedRows > 0 ? -1 : 0, catalogVersion);
+            if (affectedRows > 0) {
+                SeatLedger.seatReleased(courseId);
+                DataVersion.seatsChanged(courseId);
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -344,6 +390,192 @@ public class EnrollmentDAO {
         return enrollments;
     }
     
+    /**
+     * Gets one page of enrollments for the admin view, newest first.
+     * Paging uses a keyset cursor on (enrollment_date, enrollment_id), so
+     * every page costs the same however deep it is.
+     * 
+     * @param filter Filters to apply
+     * @param after Cursor of the last row of the previous page, or null
+     * @param before Cursor of the first row of the following page, or null; ignored when after is set
+     * @param limit Page size
+     * @return The page, empty if the query failed
+     */
+    public KeysetPage<Enrollment> getEnrollmentPage(EnrollmentFilter filter, String after, String before, int limit) {
+        long[] afterKey = parseCursor(after);
+        long[] beforeKey = afterKey == null ? parseCursor(before) : null;
+        boolean backward = beforeKey != null;
+        
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+            "SELECT e.enrollment_id, e.student_id, e.course_id, e.status, " +
+            "e.enrollment_date, e.last_updated, " +
+            "c.course_code, c.course_name, " +
+            "u.full_name as student_name, u.email as student_email, " +
+            "t.full_name as teacher_name " +
+            "FROM enrollments e " +
+            "JOIN courses c ON e.course_id = c.course_id " +
+            "LEFT JOIN users u ON e.student_id = u.user_id " +
+            "LEFT JOIN users t ON c.teacher_id = t.user_id " +
+            "WHERE 1 = 1");
+        appendFilter(sql, params, filter, true);
+        
+        long[] key = backward ? beforeKey : afterKey;
+        if (key != null) {
+            String op = backward ? ">" : "<";
+            sql.append(" AND (e.enrollment_date ").append(op).append(" ? OR (e.enrollment_date = ? AND e.enrollment_id ")
+               .append(op).append(" ?))");
+            Timestamp keyDate = new Timestamp(key[0]);
+            params.add(keyDate);
+            params.add(keyDate);
+            params.add((int) key[1]);
+        }
+        String direction = backward ? "ASC" : "DESC";
+        sql.append(" ORDER BY e.enrollment_date ").append(direction).append(", e.enrollment_id ").append(direction)
+           .append(" LIMIT ?");
+        params.add(limit + 1);
+        
+        List<Enrollment> enrollments = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    enrollments.add(mapResultSetToEnrollment(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting enrollment page: " + e.getMessage());
+            e.printStackTrace();
+            return new KeysetPage<>(new ArrayList<>(), null, null, false, false);
+        }
+        
+        // The extra row only tells whether another page exists in the direction of travel
+        boolean more = enrollments.size() > limit;
+        if (more) {
+            enrollments.remove(enrollments.size() - 1);
+        }
+        if (backward) {
+            Collections.reverse(enrollments);
+        }
+        
+        String firstCursor = enrollments.isEmpty() ? null : toCursor(enrollments.get(0));
+        String lastCursor = enrollments.isEmpty() ? null : toCursor(enrollments.get(enrollments.size() - 1));
+        boolean hasPrevious = backward ? more : afterKey != null;
+        boolean hasNext = backward || more;
+        return new KeysetPage<>(enrollments, firstCursor, lastCursor, hasPrevious, hasNext);
+    }
+    
+    /**
+     * Counts enrollments per status in one grouped query. The status filter is
+     * ignored so the counts show the breakdown of the other filters.
+     * 
+     * @param filter Filters to apply
+     * @return Count for every status, zero where there are none
+     */
+    public Map<Enrollment.EnrollmentStatus, Long> getStatusCounts(EnrollmentFilter filter) {
+        Map<Enrollment.EnrollmentStatus, Long> counts = new EnumMap<>(Enrollment.EnrollmentStatus.class);
+        for (Enrollment.EnrollmentStatus status : Enrollment.EnrollmentStatus.values()) {
+            counts.put(status, 0L);
+        }
+        
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT e.status, COUNT(*) FROM enrollments e WHERE 1 = 1");
+        appendFilter(sql, params, filter, false);
+        sql.append(" GROUP BY e.status");
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String status = rs.getString(1);
+                    if (status != null) {
+                        counts.put(Enrollment.EnrollmentStatus.valueOf(status), rs.getLong(2));
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error counting enrollments by status: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return counts;
+    }
+    
+    private void appendFilter(StringBuilder sql, List<Object> params, EnrollmentFilter filter, boolean includeStatus) {
+        if (filter == null) {
+            return;
+        }
+        if (includeStatus && filter.getStatus() != null) {
+            sql.append(" AND e.status = ?");
+            params.add(filter.getStatus().name());
+        }
+        if (filter.getCourseId() > 0) {
+            sql.append(" AND e.course_id = ?");
+            params.add(filter.getCourseId());
+        }
+        if (filter.getStudentId() > 0) {
+            sql.append(" AND e.student_id = ?");
+            params.add(filter.getStudentId());
+        }
+        if (filter.getSearch() != null) {
+            // Each prefix LIKE can use the full_name, email or course_code index. The
+            // matches are collected in a derived UNION so MySQL materializes them once;
+            // an OR of two IN subqueries would scan every enrollment instead
+            String pattern = filter.getSearch().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            sql.append(" AND e.enrollment_id IN (SELECT m.enrollment_id FROM (")
+               .append("SELECT se.enrollment_id FROM enrollments se JOIN users su ON su.user_id = se.student_id")
+               .append(" WHERE su.full_name LIKE ? OR su.email LIKE ?")
+               .append(" UNION SELECT se.enrollment_id FROM enrollments se JOIN courses sc ON sc.course_id = se.course_id")
+               .append(" WHERE sc.course_code LIKE ?) m)");
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND e.enrollment_date >= ?");
+            params.add(Timestamp.valueOf(filter.getFrom().atStartOfDay()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND e.enrollment_date < ?");
+            params.add(Timestamp.valueOf(filter.getTo().plusDays(1).atStartOfDay()));
+        }
+    }
+    
+    private static String toCursor(Enrollment enrollment) {
+        long date = enrollment.getEnrollmentDate() != null ? enrollment.getEnrollmentDate().getTime() : 0;
+        return date + "_" + enrollment.getEnrollmentId();
+    }
+    
+    /**
+     * Parses a cursor produced by toCursor
+     * 
+     * @return {enrollment date millis, enrollment ID}, or null if absent or malformed
+     */
+    private static long[] parseCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        int separator = cursor.indexOf('_');
+        try {
+            return separator < 0 ? null : new long[] {
+                Long.parseLong(cursor.substring(0, separator)),
+                Integer.parseInt(cursor.substring(separator + 1))
+            };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
     /**
      * Updates enrollment status
      * 
@@ -361,6 +593,9 @@ public class EnrollmentDAO {
             stmt.setInt(2, enrollmentId);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                DataVersion.enrollmentsChanged();
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -386,6 +621,9 @@ public class EnrollmentDAO {
             stmt.setInt(1, enrollmentId);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                DataVersion.enrollmentsChanged();
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -423,6 +661,9 @@ public class EnrollmentDAO {
             stmt.setInt(2, enrollmentId);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                DataVersion.enrollmentsChanged();
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
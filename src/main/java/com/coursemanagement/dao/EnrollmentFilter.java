@@ -0,0 +1,40 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.model.Enrollment;
+
+import java.time.LocalDate;
+
+/**
+ * Server-side filters for the admin enrollment listing.
+ * Unset fields (null or 0) do not restrict the result.
+ */
+public class EnrollmentFilter {
+
+    private Enrollment.EnrollmentStatus status;
+    private int courseId;
+    private int studentId;
+    private String search;
+    private LocalDate from;
+    private LocalDate to;
+
+    public Enrollment.EnrollmentStatus getStatus() { return status; }
+    public void setStatus(Enrollment.EnrollmentStatus status) { this.status = status; }
+
+    public int getCourseId() { return courseId; }
+    public void setCourseId(int courseId) { this.courseId = courseId; }
+
+    public int getStudentId() { return studentId; }
+    public void setStudentId(int studentId) { this.studentId = studentId; }
+
+    /** Prefix of the student's name or email, or of the course code */
+    public String getSearch() { return search; }
+    public void setSearch(String search) { this.search = search != null && !search.trim().isEmpty() ? search.trim() : null; }
+
+    /** First enrollment day to include */
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    /** Last enrollment day to include */
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+}
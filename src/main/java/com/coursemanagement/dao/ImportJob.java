@@ -0,0 +1,107 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.util.ImportReport;
+import com.coursemanagement.util.ImportRowReader;
+
+/**
+ * A bulk import running in the background.
+ * State is published through volatile fields so progress can be polled
+ * from request threads while the import thread updates it.
+ */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String type;
+    private final String fileName;
+    private final int submittedBy;
+    private final long submittedAt = System.currentTimeMillis();
+
+    private volatile ImportReport report = new ImportReport();
+    private volatile Status status = Status.QUEUED;
+    private volatile String error;
+    private volatile ImportRowReader reader;
+    private volatile long finishedAt;
+
+    ImportJob(String id, String type, String fileName, int submittedBy) {
+        this.id = id;
+        this.type = type;
+        this.fileName = fileName;
+        this.submittedBy = submittedBy;
+    }
+
+    void started(ImportRowReader reader) {
+        this.reader = reader;
+        this.report = new ImportReport(); // elapsed time excludes time spent queued
+        this.status = Status.RUNNING;
+    }
+
+    void completed() {
+        this.finishedAt = System.currentTimeMillis();
+        this.status = Status.COMPLETED;
+        this.reader = null;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = Status.FAILED;
+        this.reader = null;
+    }
+
+    public String getId() { return id; }
+    public String getType() { return type; }
+    public String getFileName() { return fileName; }
+    public int getSubmittedBy() { return submittedBy; }
+    public long getSubmittedAt() { return submittedAt; }
+    public long getFinishedAt() { return finishedAt; }
+    public ImportReport getReport() { return report; }
+    public Status getStatus() { return status; }
+    public String getError() { return error; }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    /**
+     * Fraction of the file consumed so far
+     *
+     * @return Value between 0 and 1, or -1 if the reader cannot tell
+     */
+    public double getProgress() {
+        if (isFinished()) {
+            return 1.0;
+        }
+        ImportRowReader current = reader;
+        return current != null ? current.getProgress() : (status == Status.QUEUED ? 0.0 : -1);
+    }
+
+    /**
+     * Rows processed (inserted or failed) per second since the job started
+     */
+    public double getRowsPerSecond() {
+        long elapsed = status == Status.QUEUED ? 0 : report.getElapsedMillis();
+        long processed = report.getRowsInserted() + report.getRowsFailed();
+        return elapsed > 0 ? processed * 1000.0 / elapsed : 0.0;
+    }
+
+    /**
+     * Estimated seconds until the job finishes, extrapolated from progress so far
+     *
+     * @return Estimate in seconds, or -1 if unknown
+     */
+    public long getEtaSeconds() {
+        if (isFinished()) {
+            return 0;
+        }
+        double progress = getProgress();
+        if (status != Status.RUNNING || progress <= 0) {
+            return -1;
+        }
+        double elapsedSeconds = report.getElapsedMillis() / 1000.0;
+        return Math.round(elapsedSeconds * (1 - progress) / progress);
+    }
+}
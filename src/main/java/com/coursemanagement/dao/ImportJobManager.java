@@ -0,0 +1,173 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.util.DatabaseConnection;
+import com.coursemanagement.util.ImportRowReader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk imports as background jobs.
+ *
+ * Jobs execute on a small bounded executor (IMPORT_JOB_THREADS workers,
+ * IMPORT_JOB_QUEUE waiting) so a large file never pins a container thread.
+ * Finished jobs stay available for progress polling and report download for
+ * IMPORT_JOB_RETENTION_MINUTES, then are dropped on the next submission.
+ */
+public class ImportJobManager {
+
+    private static final int DEFAULT_THREADS = 2;
+    private static final int DEFAULT_QUEUE = 10;
+    private static final int DEFAULT_RETENTION_MINUTES = 60;
+
+    private static ImportJobManager instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final long retentionMillis;
+
+    /**
+     * Private constructor for singleton pattern
+     */
+    private ImportJobManager(int threads, int queueDepth, int retentionMinutes) {
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueDepth), r -> {
+                Thread t = new Thread(r, "import-job-" + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.NORM_PRIORITY - 1);
+                return t;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Get singleton instance of the import job manager
+     */
+    public static synchronized ImportJobManager getInstance() {
+        if (instance == null) {
+            int threads = DatabaseConnection.getIntSetting("IMPORT_JOB_THREADS", DEFAULT_THREADS);
+            int queue = DatabaseConnection.getIntSetting("IMPORT_JOB_QUEUE", DEFAULT_QUEUE);
+            int retention = DatabaseConnection.getIntSetting("IMPORT_JOB_RETENTION_MINUTES", DEFAULT_RETENTION_MINUTES);
+            instance = new ImportJobManager(Math.max(1, threads), Math.max(1, queue), Math.max(1, retention));
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the import threads, if they were started, and drops the instance together with its job list
+     */
+    public static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Queues an import of a spooled upload. The job takes ownership of the
+     * file and deletes it when finished.
+     *
+     * @param type "users" or "courses"
+     * @param file Spooled copy of the upload
+     * @param fileName Original file name, used to pick the format
+     * @param submittedBy User ID of the admin who submitted the import
+     * @return The queued job
+     * @throws IllegalArgumentException if the import type is unknown
+     * @throws RejectedExecutionException if too many imports are already queued
+     */
+    public ImportJob submit(String type, File file, String fileName, int submittedBy) {
+        String[] columns;
+        if ("users".equals(type)) {
+            columns = BulkImporter.USER_COLUMNS;
+        } else if ("courses".equals(type)) {
+            columns = BulkImporter.COURSE_COLUMNS;
+        } else {
+            throw new IllegalArgumentException("Invalid import type.");
+        }
+
+        evictExpired();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), type, fileName, submittedBy);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, file, columns));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(ImportJob job, File file, String[] columns) {
+        try (ImportRowReader reader = ImportRowReader.open(file, job.getFileName(), columns)) {
+            job.started(reader);
+            BulkImporter importer = new BulkImporter();
+            if (columns == BulkImporter.USER_COLUMNS) {
+                importer.importUsers(reader, job.getReport());
+            } else {
+                importer.importCourses(reader, job.getReport());
+            }
+            job.completed();
+            System.out.println("Bulk import of " + job.getFileName() + ": " + job.getReport().getRowsInserted() +
+                               " inserted, " + job.getReport().getRowsFailed() + " failed in " +
+                               job.getReport().getElapsedMillis() + " ms");
+        } catch (Exception e) {
+            System.err.println("Bulk import of " + job.getFileName() + " failed: " + e.getMessage());
+            e.printStackTrace();
+            job.failed(e.getMessage());
+        } finally {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Gets a job by ID
+     *
+     * @return The job, or null if unknown or expired
+     */
+    public ImportJob getJob(String jobId) {
+        return jobId != null ? jobs.get(jobId) : null;
+    }
+
+    /**
+     * Gets the retained jobs, newest first
+     */
+    public List<ImportJob> getJobs() {
+        List<ImportJob> result = new ArrayList<>(jobs.values());
+        result.sort(Comparator.comparingLong(ImportJob::getSubmittedAt).reversed());
+        return result;
+    }
+
+    private void evictExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() < cutoff);
+    }
+
+    /**
+     * Get current import job statistics
+     */
+    public String getJobStats() {
+        return String.format("Import Jobs - Threads: %d, Running: %d, Queued: %d, Retained: %d, Completed: %d",
+                           executor.getCorePoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                           jobs.size(), executor.getCompletedTaskCount());
+    }
+
+    /**
+     * Stops the import threads
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
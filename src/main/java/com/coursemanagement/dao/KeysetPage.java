@@ -0,0 +1,41 @@
+package com.coursemanagement.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * Cursors are opaque strings naming the first and last row of the page;
+ * pass one back as "after" or "before" to fetch the neighbouring page.
+ * Unlike OFFSET paging the cost of a page does not grow with its depth.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String firstCursor;
+    private final String lastCursor;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public KeysetPage(List<T> items, String firstCursor, String lastCursor, boolean hasPrevious, boolean hasNext) {
+        this.items = Collections.unmodifiableList(items);
+        this.firstCursor = firstCursor;
+        this.lastCursor = lastCursor;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getItems() { return items; }
+    public boolean isEmpty() { return items.isEmpty(); }
+    public int getSize() { return items.size(); }
+
+    /** Cursor to pass as "before" for the previous page, or null if there is none */
+    public String getPreviousCursor() { return hasPrevious ? firstCursor : null; }
+
+    /** Cursor to pass as "after" for the next page, or null if there is none */
+    public String getNextCursor() { return hasNext ? lastCursor : null; }
+
+    public boolean hasPrevious() { return hasPrevious; }
+    public boolean hasNext() { return hasNext; }
+}
@@ -0,0 +1,309 @@
+package com.coursemanagement.dao;
+
+import com.coursemanagement.model.Enrollment;
+import com.coursemanagement.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory seat ledger placed in front of EnrollmentDAO.
+ *
+ * Keeps a remaining-seat counter per course so that registrations for a full
+ * course are rejected without borrowing a database connection. Accepted
+ * reservations are written through to the database, which stays the final
+ * authority; counters are re-synced from courses.enrolled_students on startup
+ * and on a timer. Counter updates are guarded by locks striped by course ID.
+ * Drops committed by EnrollmentDAO hand their seat back through seatReleased.
+ *
+ * The ledger is disabled unless SEAT_LEDGER_ENABLED is set, in which case
+ * every call passes straight through to EnrollmentDAO.
+ */
+public class SeatLedger {
+
+    private static final int LOCK_STRIPES = 64; // power of two
+    private static final int DEFAULT_RESYNC_SECONDS = 30;
+
+    private static SeatLedger instance;
+
+    private final EnrollmentDAO enrollmentDAO;
+    private final boolean enabled;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Map<Integer, Seats> seats = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong fastRejections = new AtomicLong();
+    private final AtomicLong writeThroughs = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    /**
+     * Seat counters for one course, guarded by the course's stripe lock
+     */
+    private static final class Seats {
+        int capacity;
+        int enrolled;
+        int pending; // reservations currently being written to the database
+        long changes; // reservations started or finished and seats released
+
+        int remaining() {
+            return capacity - enrolled - pending;
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern
+     */
+    private SeatLedger(EnrollmentDAO enrollmentDAO, boolean enabled) {
+        this.enrollmentDAO = enrollmentDAO;
+        this.enabled = enabled;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+
+        if (enabled) {
+            resync();
+            int interval = DatabaseConnection.getIntSetting("SEAT_LEDGER_RESYNC_SECONDS", DEFAULT_RESYNC_SECONDS);
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "seat-ledger-resync");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::resync, interval, interval, TimeUnit.SECONDS);
+            System.out.println("Seat ledger enabled with " + seats.size() + " courses, resync every " + interval + "s");
+        }
+    }
+
+    /**
+     * Get singleton instance of the seat ledger
+     */
+    public static synchronized SeatLedger getInstance() {
+        if (instance == null) {
+            instance = new SeatLedger(new EnrollmentDAO(),
+                DatabaseConnection.getBooleanSetting("SEAT_LEDGER_ENABLED", false));
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the resync timer of the ledger, if one was created, and drops the instance
+     */
+    public static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Drops the cached counters for a course so the next reservation falls
+     * through to the database until the next resync. Safe to call when the
+     * ledger has not been created.
+     *
+     * @param courseId The course ID
+     */
+    public static void invalidateCourse(int courseId) {
+        SeatLedger ledger = enabledInstance();
+        if (ledger != null) {
+            synchronized (ledger.lockFor(courseId)) {
+                ledger.seats.remove(courseId);
+            }
+        }
+    }
+
+    /**
+     * Returns a seat to the counters after a drop has been committed. Safe to
+     * call when the ledger has not been created.
+     *
+     * @param courseId The course ID
+     */
+    public static void seatReleased(int courseId) {
+        SeatLedger ledger = enabledInstance();
+        if (ledger != null) {
+            synchronized (ledger.lockFor(courseId)) {
+                Seats courseSeats = ledger.seats.get(courseId);
+                if (courseSeats != null) {
+                    courseSeats.changes++;
+                    if (courseSeats.enrolled > 0) {
+                        courseSeats.enrolled--;
+                    }
+                }
+            }
+        }
+    }
+
+    private static synchronized SeatLedger enabledInstance() {
+        return instance != null && instance.enabled ? instance : null;
+    }
+
+    /**
+     * Reserves a seat, rejecting immediately when the ledger shows the course
+     * as full and writing accepted reservations through to the database.
+     *
+     * @param enrollment The enrollment to create; its ID is set on success
+     * @return The outcome of the reservation
+     */
+    public EnrollmentDAO.EnrollmentOutcome reserveSeat(Enrollment enrollment) {
+        if (!enabled) {
+            return enrollmentDAO.reserveSeat(enrollment);
+        }
+
+        int courseId = enrollment.getCourseId();
+        Object lock = lockFor(courseId);
+        Seats courseSeats;
+        synchronized (lock) {
+            courseSeats = seats.get(courseId);
+            if (courseSeats != null) {
+                if (courseSeats.remaining() <= 0) {
+                    fastRejections.incrementAndGet();
+                    return EnrollmentDAO.EnrollmentOutcome.FULL;
+                }
+                courseSeats.pending++;
+                courseSeats.changes++;
+            }
+        }
+
+        // Course not tracked yet (created since the last resync): let the database decide
+        if (courseSeats == null) {
+            return enrollmentDAO.reserveSeat(enrollment);
+        }
+
+        EnrollmentDAO.EnrollmentOutcome outcome = EnrollmentDAO.EnrollmentOutcome.ERROR;
+        try {
+            outcome = enrollmentDAO.reserveSeat(enrollment);
+            writeThroughs.incrementAndGet();
+        } finally {
+            synchronized (lock) {
+                courseSeats.pending--;
+                courseSeats.changes++;
+                switch (outcome) {
+                    case ENROLLED:
+                        courseSeats.enrolled++;
+                        break;
+                    case FULL:
+                        // Another node or an admin filled the course; trust the database
+                        courseSeats.enrolled = Math.max(courseSeats.enrolled, courseSeats.capacity - courseSeats.pending);
+                        break;
+                    case NOT_FOUND:
+                        seats.remove(courseId, courseSeats);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Reloads capacity and enrolled counts for every course from the database.
+     *
+     * The query may or may not see a reservation that is being written while
+     * it runs, so the enrolled count of a course is only replaced when no
+     * reservation or drop touched the course between taking the snapshot
+     * below and applying the row; otherwise the ledger keeps its own count
+     * until the next resync.
+     */
+    public void resync() {
+        String sql = "SELECT course_id, max_students, enrolled_students FROM courses";
+        Set<Integer> seen = new HashSet<>();
+        Map<Integer, Long> changesBefore = new HashMap<>();
+        for (Map.Entry<Integer, Seats> entry : seats.entrySet()) {
+            synchronized (lockFor(entry.getKey())) {
+                Seats courseSeats = entry.getValue();
+                if (courseSeats.pending == 0) {
+                    changesBefore.put(entry.getKey(), courseSeats.changes);
+                }
+            }
+        }
+        int skipped = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                int courseId = rs.getInt("course_id");
+                seen.add(courseId);
+                synchronized (lockFor(courseId)) {
+                    Seats courseSeats = seats.get(courseId);
+                    if (courseSeats == null) {
+                        courseSeats = new Seats();
+                        courseSeats.enrolled = rs.getInt("enrolled_students");
+                        seats.put(courseId, courseSeats);
+                    } else if (courseSeats.pending == 0
+                            && Long.valueOf(courseSeats.changes).equals(changesBefore.get(courseId))) {
+                        courseSeats.enrolled = rs.getInt("enrolled_students");
+                    } else {
+                        skipped++;
+                    }
+                    courseSeats.capacity = rs.getInt("max_students");
+                }
+            }
+
+            for (Integer courseId : seats.keySet()) {
+                if (!seen.contains(courseId)) {
+                    synchronized (lockFor(courseId)) {
+                        seats.remove(courseId);
+                    }
+                }
+            }
+            resyncs.incrementAndGet();
+            if (skipped > 0) {
+                System.out.println("Seat ledger resync kept the counts of " + skipped + " courses with reservations in flight");
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error re-syncing seat ledger: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Gets the remaining seats the ledger currently admits for a course
+     *
+     * @param courseId The course ID
+     * @return Remaining seats, or -1 if the course is not tracked
+     */
+    public int getRemainingSeats(int courseId) {
+        synchronized (lockFor(courseId)) {
+            Seats courseSeats = seats.get(courseId);
+            return courseSeats == null ? -1 : Math.max(0, courseSeats.remaining());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get current ledger statistics
+     */
+    public String getLedgerStats() {
+        return String.format("Seat Ledger - Enabled: %b, Courses: %d, Fast rejections: %d, Write-throughs: %d, Resyncs: %d",
+                           enabled, seats.size(), fastRejections.get(), writeThroughs.get(), resyncs.get());
+    }
+
+    /**
+     * Stops the resync timer
+     */
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private Object lockFor(int courseId) {
+        return locks[courseId & (LOCK_STRIPES - 1)];
+    }
+}
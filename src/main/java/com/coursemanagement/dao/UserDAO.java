@@ -2,13 +2,21 @@ package com.coursemanagement.dao;
 
 import com.coursemanagement.model.User;
 import com.coursemanagement.util.DatabaseConnection;
+import com.coursemanagement.util.PasswordHasher;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for User operations.
@@ -16,17 +24,38 @@ import java.util.List;
  */
 public class UserDAO {
     
+    /** Columns for listings; the password hash is never read */
+    private static final String SUMMARY_COLUMNS = "user_id, username, full_name, email, user_type, created_at, updated_at";
+    
+    /**
+     * Sort orders for the paged user listing. Ties are broken by user ID so
+     * every order is total and can be resumed from a cursor.
+     */
+    public enum SortField {
+        ID("user_id"), USERNAME("username"), NAME("full_name"), EMAIL("email"), CREATED("created_at");
+        
+        private final String column;
+        
+        SortField(String column) {
+            this.column = column;
+        }
+    }
+    
     /**
      * Authenticates user with username and password.
-     * Uses BCrypt to verify hashed password.
+     * Uses BCrypt to verify hashed password. The credential row is read and the
+     * connection returned to the pool before the hash is checked on the
+     * dedicated hashing executor.
      * 
      * @param username The username
      * @param password The plain text password
      * @return User object if successful, null otherwise
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing queue is full
      */
     public User authenticateUser(String username, String password) {
         String sql = "SELECT user_id, username, password, full_name, email, user_type, created_at, updated_at " +
                     "FROM users WHERE username = ?";
+        User user = null;
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -35,17 +64,19 @@ public class UserDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    String hashedPassword = rs.getString("password");
-                    
-                    if (com.coursemanagement.util.PasswordUtil.verifyPassword(password, hashedPassword)) {
-                        return mapResultSetToUser(rs);
-                    }
+                    user = mapResultSetToUser(rs);
                 }
             }
             
         } catch (SQLException e) {
             System.err.println("Error authenticating user: " + e.getMessage());
             e.printStackTrace();
+            return null;
+        }
+        
+        // Connection is back in the pool; BCrypt runs on the hashing executor
+        if (user != null && PasswordHasher.getInstance().verify(password, user.getPassword())) {
+            return user;
         }
         
         return null;
@@ -186,6 +217,7 @@ public class UserDAO {
                 if (generatedKeys.next()) {
                     int userId = generatedKeys.getInt(1);
                     user.setUserId(userId);
+                    DataVersion.usersChanged();
                     return userId;
                 } else {
                     throw new SQLException("Creating user failed, no ID obtained.");
@@ -200,6 +232,49 @@ public class UserDAO {
         return -1;
     }
     
+    /**
+     * Inserts users with JDBC batching in a single transaction.
+     * Passwords must already be hashed. Rows rejected by the database (for
+     * example a duplicate username or email) are reported as
+     * Statement.EXECUTE_FAILED while the remaining rows are still committed.
+     * 
+     * @param users The users to create
+     * @return Update count per user, in input order
+     * @throws SQLException if the batch as a whole could not be executed
+     */
+    public int[] createUsers(List<User> users) throws SQLException {
+        String sql = "INSERT INTO users (username, password, full_name, email, user_type) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (User user : users) {
+                    stmt.setString(1, user.getUsername());
+                    stmt.setString(2, user.getPassword());
+                    stmt.setString(3, user.getFullName());
+                    stmt.setString(4, user.getEmail());
+                    stmt.setString(5, user.getUserType().name());
+                    stmt.addBatch();
+                }
+                
+                int[] counts;
+                try {
+                    counts = stmt.executeBatch();
+                } catch (BatchUpdateException e) {
+                    // The driver continues past failed rows; keep the ones that succeeded
+                    counts = e.getUpdateCounts();
+                }
+                conn.commit();
+                DataVersion.usersChanged();
+                return counts;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+    
     /**
      * Updates an existing user
      * 
@@ -220,6 +295,11 @@ public class UserDAO {
             stmt.setInt(5, user.getUserId());
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                // Course listings show the teacher's name
+                CourseCatalog.getInstance().invalidate();
+                DataVersion.usersChanged();
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -272,6 +352,11 @@ public class UserDAO {
             stmt.setInt(1, userId);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                // Course listings show the teacher's name
+                CourseCatalog.getInstance().invalidate();
+                DataVersion.usersChanged();
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -372,11 +457,10 @@ public class UserDAO {
      * Changes a user's password
      * 
      * @param userId The user ID
-     * @param newPassword The new plain text password
+     * @param hashedPassword The new password, already hashed with PasswordHasher
      * @return true if password was changed successfully, false otherwise
      */
-    public boolean changePassword(int userId, String newPassword) {
-        String hashedPassword = com.coursemanagement.util.PasswordUtil.hashPassword(newPassword);
+    public boolean changePassword(int userId, String hashedPassword) {
         String sql = "UPDATE users SET password = ?, updated_at = CURRENT_TIMESTAMP WHERE user_id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -418,6 +502,9 @@ public class UserDAO {
             stmt.setInt(2, userId);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                DataVersion.usersChanged();
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -445,6 +532,11 @@ public class UserDAO {
             stmt.setInt(3, user.getUserId());
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                // Course listings show the teacher's name
+                CourseCatalog.getInstance().invalidate();
+                DataVersion.usersChanged();
+            }
             return affectedRows > 0;
             
         } catch (SQLException e) {
@@ -456,20 +548,199 @@ public class UserDAO {
     }
     
     /**
-     * Gets all users from the database
+     * Gets one page of users without password hashes, using a keyset cursor
+     * on (sort column, user_id)
+     * 
+     * @param role Only users of this type, or null for all
+     * @param search Prefix matched against username, full name and email, or null
+     * @param sort Sort column
+     * @param descending Whether to sort in descending order
+     * @param after Cursor of the last row of the previous page, or null
+     * @param before Cursor of the first row of the following page, or null; ignored when after is set
+     * @param limit Page size
+     * @return The page, empty if the query failed
+     */
+    public KeysetPage<User> getUserPage(User.UserType role, String search, SortField sort, boolean descending,
+                                        String after, String before, int limit) {
+        String[] afterKey = parseCursor(after, sort);
+        String[] beforeKey = afterKey == null ? parseCursor(before, sort) : null;
+        boolean backward = beforeKey != null;
+        // Walking backwards reads the opposite order and reverses the rows afterwards
+        boolean reverse = descending != backward;
+        
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + SUMMARY_COLUMNS + " FROM users WHERE 1 = 1");
+        appendFilter(sql, params, role, search);
+        
+        String[] key = backward ? beforeKey : afterKey;
+        if (key != null) {
+            String op = reverse ? "<" : ">";
+            if (sort == SortField.ID) {
+                sql.append(" AND user_id ").append(op).append(" ?");
+            } else {
+                Object value = toSortValue(sort, key[0]);
+                sql.append(" AND (").append(sort.column).append(' ').append(op).append(" ? OR (")
+                   .append(sort.column).append(" = ? AND user_id ").append(op).append(" ?))");
+                params.add(value);
+                params.add(value);
+            }
+            params.add(Integer.parseInt(key[1]));
+        }
+        String direction = reverse ? "DESC" : "ASC";
+        if (sort != SortField.ID) {
+            sql.append(" ORDER BY ").append(sort.column).append(' ').append(direction).append(", user_id ").append(direction);
+        } else {
+            sql.append(" ORDER BY user_id ").append(direction);
+        }
+        sql.append(" LIMIT ?");
+        params.add(limit + 1);
+        
+        List<User> users = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(mapResultSetToUserSummary(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting user page: " + e.getMessage());
+            e.printStackTrace();
+            return new KeysetPage<>(new ArrayList<>(), null, null, false, false);
+        }
+        
+        // The extra row only tells whether another page exists in the direction of travel
+        boolean more = users.size() > limit;
+        if (more) {
+            users.remove(users.size() - 1);
+        }
+        if (backward) {
+            Collections.reverse(users);
+        }
+        
+        String firstCursor = users.isEmpty() ? null : toCursor(users.get(0), sort);
+        String lastCursor = users.isEmpty() ? null : toCursor(users.get(users.size() - 1), sort);
+        boolean hasPrevious = backward ? more : afterKey != null;
+        boolean hasNext = backward || more;
+        return new KeysetPage<>(users, firstCursor, lastCursor, hasPrevious, hasNext);
+    }
+    
+    /**
+     * Counts users per type in one grouped query
+     * 
+     * @param search Prefix matched against username, full name and email, or null
+     * @return Count for every user type, zero where there are none
+     */
+    public Map<User.UserType, Long> getUserTypeCounts(String search) {
+        Map<User.UserType, Long> counts = new EnumMap<>(User.UserType.class);
+        for (User.UserType type : User.UserType.values()) {
+            counts.put(type, 0L);
+        }
+        
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT user_type, COUNT(*) FROM users WHERE 1 = 1");
+        appendFilter(sql, params, null, search);
+        sql.append(" GROUP BY user_type");
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(User.UserType.valueOf(rs.getString(1)), rs.getLong(2));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error counting users by type: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return counts;
+    }
+    
+    private void appendFilter(StringBuilder sql, List<Object> params, User.UserType role, String search) {
+        if (role != null) {
+            sql.append(" AND user_type = ?");
+            params.add(role.name());
+        }
+        if (search != null && !search.trim().isEmpty()) {
+            // Prefix LIKE can use the username, email and full_name indexes
+            String pattern = search.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            sql.append(" AND (username LIKE ? OR full_name LIKE ? OR email LIKE ?)");
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+        }
+    }
+    
+    private static Object toSortValue(SortField sort, String value) {
+        return sort == SortField.CREATED ? new Timestamp(Long.parseLong(value)) : value;
+    }
+    
+    private static String toCursor(User user, SortField sort) {
+        String value;
+        switch (sort) {
+            case USERNAME: value = user.getUsername(); break;
+            case NAME: value = user.getFullName(); break;
+            case EMAIL: value = user.getEmail(); break;
+            case CREATED: value = String.valueOf(user.getCreatedAt() != null ? user.getCreatedAt().getTime() : 0); break;
+            default: value = "";
+        }
+        String raw = value + "\n" + user.getUserId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Parses a cursor produced by toCursor
+     * 
+     * @return {sort value, user ID}, or null if absent or not valid for the sort
+     */
+    private static String[] parseCursor(String cursor, SortField sort) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('\n');
+            if (separator < 0) {
+                return null;
+            }
+            String value = raw.substring(0, separator);
+            String id = raw.substring(separator + 1);
+            Integer.parseInt(id);
+            if (sort == SortField.CREATED) {
+                Long.parseLong(value);
+            }
+            return new String[] {value, id};
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Gets all users from the database, without password hashes
      * 
      * @return List of all users
      */
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY user_type, full_name";
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM users ORDER BY user_type, full_name";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                users.add(mapResultSetToUserSummary(rs));
             }
             
         } catch (SQLException e) {
@@ -488,10 +759,18 @@ public class UserDAO {
      * @throws SQLException if there's an error reading from the ResultSet
      */
     private User mapResultSetToUser(ResultSet rs) throws SQLException {
+        User user = mapResultSetToUserSummary(rs);
+        user.setPassword(rs.getString("password"));
+        return user;
+    }
+    
+    /**
+     * Maps a ResultSet row selected with SUMMARY_COLUMNS; the password stays null
+     */
+    private User mapResultSetToUserSummary(ResultSet rs) throws SQLException {
         User user = new User();
         user.setUserId(rs.getInt("user_id"));
         user.setUsername(rs.getString("username"));
-        user.setPassword(rs.getString("password"));
         user.setFullName(rs.getString("full_name"));
         user.setEmail(rs.getString("email"));
         user.setUserType(User.UserType.valueOf(rs.getString("user_type")));
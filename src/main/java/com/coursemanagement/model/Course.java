@@ -45,6 +45,21 @@ public class Course {
         this.enrolledStudents = 0;
     }
     
+    /** Copy constructor */
+    public Course(Course other) {
+        this.courseId = other.courseId;
+        this.courseCode = other.courseCode;
+        this.courseName = other.courseName;
+        this.description = other.description;
+        this.credits = other.credits;
+        this.teacherId = other.teacherId;
+        this.teacherName = other.teacherName;
+        this.maxStudents = other.maxStudents;
+        this.enrolledStudents = other.enrolledStudents;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+    
     // Getters and Setters
     
     public int getCourseId() { return courseId; }
@@ -1,8 +1,9 @@
 package com.coursemanagement.servlet;
 
 import com.coursemanagement.dao.CourseDAO;
-import com.coursemanagement.dao.EnrollmentDAO;
-import com.coursemanagement.dao.UserDAO;
+import com.coursemanagement.dao.DashboardSnapshot;
+import com.coursemanagement.dao.DashboardStats;
+import com.coursemanagement.dao.KeysetPage;
 import com.coursemanagement.model.Course;
 import com.coursemanagement.model.User;
 
@@ -12,8 +13,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Admin Dashboard Servlet to handle admin dashboard functionality.
@@ -26,16 +25,17 @@ import java.util.List;
  */
 public class AdminDashboardServlet extends HttpServlet {
     
-    private UserDAO userDAO;
+    /** Rows of the course table; the full list is on the courses page */
+    private static final int COURSE_TABLE_ROWS = 10;
+    
     private CourseDAO courseDAO;
-    private EnrollmentDAO enrollmentDAO;
+    private DashboardSnapshot dashboardSnapshot;
     
     @Override
     public void init() throws ServletException {
         super.init();
-        userDAO = new UserDAO();
         courseDAO = new CourseDAO();
-        enrollmentDAO = new EnrollmentDAO();
+        dashboardSnapshot = DashboardSnapshot.getInstance();
     }
     
     /**
@@ -55,74 +55,38 @@ public class AdminDashboardServlet extends HttpServlet {
         }
         
         try {
-            // Get system statistics
-            List<User> allStudents = userDAO.getUsersByType(User.UserType.STUDENT);
-            List<User> allTeachers = userDAO.getUsersByType(User.UserType.TEACHER);
-            List<Course> allCourses = courseDAO.getAllCourses();
-            
-            // Calculate total enrollments
-            int totalEnrollments = 0;
-            for (Course course : allCourses) {
-                totalEnrollments += course.getEnrolledStudents();
-            }
-            
-            // Get recent courses (last 5)
-            List<Course> recentCourses = allCourses.size() > 5 ? 
-                allCourses.subList(0, 5) : allCourses;
-            
-            // Set attributes for JSP
-            request.setAttribute("totalStudents", allStudents.size());
-            request.setAttribute("totalTeachers", allTeachers.size());
-            request.setAttribute("totalCourses", allCourses.size());
-            request.setAttribute("totalEnrollments", totalEnrollments);
-            
-            request.setAttribute("students", allStudents);
-            request.setAttribute("teachers", allTeachers);
-            request.setAttribute("courses", allCourses);
-            request.setAttribute("recentCourses", recentCourses);
-            
-            // Calculate detailed statistics with actionable data
-            int coursesWithTeachers = 0;
-            int fullCourses = 0;
-            List<Course> unassignedCourses = new ArrayList<>();
-            List<Course> fullCapacityCourses = new ArrayList<>();
-            List<Course> lowCapacityCourses = new ArrayList<>();
-            
-            for (Course course : allCourses) {
-                // Check teacher assignment
-                if (course.getTeacherId() > 0) {
-                    coursesWithTeachers++;
-                } else {
-                    unassignedCourses.add(course);
-                }
-                
-                // Check capacity issues
-                int enrolled = course.getEnrolledStudents();
-                int maxStudents = course.getMaxStudents();
-                double capacityRatio = (double) enrolled / maxStudents;
-                
-                if (enrolled >= maxStudents) {
-                    fullCourses++;
-                    fullCapacityCourses.add(course);
-                } else if (capacityRatio >= 0.8) { // 80% or more capacity
-                    lowCapacityCourses.add(course);
-                }
+            // Served from the background snapshot; may be a few seconds old
+            DashboardStats stats = dashboardSnapshot.get();
+            if (stats == null) {
+                throw new IllegalStateException("Dashboard statistics are unavailable");
             }
+            request.setAttribute("statsAgeSeconds",
+                (System.currentTimeMillis() - stats.getComputedAt()) / 1000);
             
             // Set basic statistics
-            request.setAttribute("coursesWithTeachers", coursesWithTeachers);
-            request.setAttribute("coursesWithoutTeachers", allCourses.size() - coursesWithTeachers);
-            request.setAttribute("fullCourses", fullCourses);
-            request.setAttribute("availableCourses", allCourses.size() - fullCourses);
+            request.setAttribute("totalStudents", stats.getTotalStudents());
+            request.setAttribute("totalTeachers", stats.getTotalTeachers());
+            request.setAttribute("totalCourses", stats.getTotalCourses());
+            request.setAttribute("totalEnrollments", stats.getTotalEnrollments());
+            request.setAttribute("coursesWithTeachers", stats.getCoursesWithTeachers());
+            request.setAttribute("coursesWithoutTeachers", stats.getCoursesWithoutTeachers());
+            request.setAttribute("fullCourses", stats.getFullCourses());
+            request.setAttribute("availableCourses", stats.getAvailableCourses());
+            request.setAttribute("nearCapacityCount", stats.getNearCapacityCount());
             
-            // Set actionable data lists
-            request.setAttribute("unassignedCourses", unassignedCourses);
-            request.setAttribute("fullCapacityCourses", fullCapacityCourses);
-            request.setAttribute("lowCapacityCourses", lowCapacityCourses);
+            // Set actionable data lists; only the first few rows are shown
+            request.setAttribute("unassignedCourses", stats.getUnassignedCourses());
+            request.setAttribute("fullCapacityCourses", stats.getFullCapacityCourses());
+            request.setAttribute("lowCapacityCourses", stats.getNearCapacityCourses());
             
             // Calculate urgency indicators
-            request.setAttribute("hasUnassignedCourses", !unassignedCourses.isEmpty());
-            request.setAttribute("hasCapacityIssues", !fullCapacityCourses.isEmpty() || !lowCapacityCourses.isEmpty());
+            request.setAttribute("hasUnassignedCourses", stats.getCoursesWithoutTeachers() > 0);
+            request.setAttribute("hasCapacityIssues", stats.getFullCourses() > 0 || stats.getNearCapacityCount() > 0);
+            
+            // First rows of the course table, served from the course catalog snapshot
+            KeysetPage<Course> courses = courseDAO.getCoursePage(false, 0, null, null, COURSE_TABLE_ROWS);
+            request.setAttribute("courses", courses.getItems());
+            request.setAttribute("moreCourses", courses.hasNext());
             
             // Forward to admin dashboard JSP
             request.getRequestDispatcher("/admin/dashboard.jsp").forward(request, response);
@@ -0,0 +1,319 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.dao.CourseDAO;
+import com.coursemanagement.dao.EnrollmentDAO;
+import com.coursemanagement.dao.EnrollmentFilter;
+import com.coursemanagement.dao.KeysetPage;
+import com.coursemanagement.dao.UserDAO;
+import com.coursemanagement.model.Course;
+import com.coursemanagement.model.Enrollment;
+import com.coursemanagement.model.User;
+import com.coursemanagement.util.JsonProjection;
+import com.google.gson.stream.JsonWriter;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+
+/**
+ * API Servlet providing a read-only JSON API under /api/v1.
+ *
+ * Resources:
+ *   GET /api/v1/me                         the signed-in user
+ *   GET /api/v1/courses                    courses by code (available, teacherId)
+ *   GET /api/v1/courses/{id}               one course
+ *   GET /api/v1/courses/{id}/enrollments   roster of a course
+ *   GET /api/v1/enrollments                enrollments, newest first (status, courseId, studentId, q, from, to)
+ *   GET /api/v1/users                      users (role, q, sort, dir)
+ *
+ * Lists are keyset-paged: "size" sets the page size (max 100), the "next"
+ * value of a page is passed back as "after" and the "previous" value as
+ * "before". "fields" selects a comma-separated subset of the fields.
+ * Objects are written one at a time to the response with a Gson JsonWriter.
+ *
+ * Access follows the page rules of AuthenticationFilter: admins may read
+ * everything, teachers the courses and the rosters of their own courses,
+ * students the courses and their own enrollments. Responses carry the
+ * same ETag as the dashboards, so an unchanged resource costs a 304.
+ *
+ * @author Course Management System
+ * @version 1.0
+ */
+public class ApiServlet extends HttpServlet {
+
+    private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final JsonProjection<Course> COURSE_FIELDS = new JsonProjection<Course>()
+        .number("courseId", Course::getCourseId)
+        .string("courseCode", Course::getCourseCode)
+        .string("courseName", Course::getCourseName)
+        .string("description", Course::getDescription)
+        .number("credits", Course::getCredits)
+        .number("teacherId", c -> c.getTeacherId() > 0 ? c.getTeacherId() : null)
+        .string("teacherName", Course::getTeacherName)
+        .number("maxStudents", Course::getMaxStudents)
+        .number("enrolledStudents", Course::getEnrolledStudents)
+        .number("availableSeats", c -> Math.max(0, c.getAvailableSlots()));
+
+    private static final JsonProjection<Enrollment> ENROLLMENT_FIELDS = new JsonProjection<Enrollment>()
+        .number("enrollmentId", Enrollment::getEnrollmentId)
+        .number("studentId", Enrollment::getStudentId)
+        .string("studentName", Enrollment::getStudentName)
+        .string("studentEmail", Enrollment::getStudentEmail)
+        .number("courseId", Enrollment::getCourseId)
+        .string("courseCode", Enrollment::getCourseCode)
+        .string("courseName", Enrollment::getCourseName)
+        .string("teacherName", Enrollment::getTeacherName)
+        .string("status", e -> e.getStatus() != null ? e.getStatus().name() : null)
+        .timestamp("enrollmentDate", Enrollment::getEnrollmentDate)
+        .timestamp("lastUpdated", Enrollment::getLastUpdated);
+
+    private static final JsonProjection<User> USER_FIELDS = new JsonProjection<User>()
+        .number("userId", User::getUserId)
+        .string("username", User::getUsername)
+        .string("fullName", User::getFullName)
+        .string("email", User::getEmail)
+        .string("userType", u -> u.getUserType().name())
+        .timestamp("createdAt", User::getCreatedAt);
+
+    /**
+     * Rejects a request with an HTTP status and a JSON error message
+     */
+    private static final class ApiException extends Exception {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Writes a response body once the request has been authorized
+     */
+    private interface ApiResponse {
+        void write(JsonWriter out) throws IOException;
+    }
+
+    private CourseDAO courseDAO;
+    private EnrollmentDAO enrollmentDAO;
+    private UserDAO userDAO;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        courseDAO = new CourseDAO();
+        enrollmentDAO = new EnrollmentDAO();
+        userDAO = new UserDAO();
+    }
+
+    /**
+     * Handles GET requests - routes to the resource
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        response.setContentType("application/json;charset=UTF-8");
+
+        HttpSession session = request.getSession(false);
+        User currentUser = session != null ? (User) session.getAttribute("currentUser") : null;
+
+        try {
+            if (currentUser == null) {
+                throw new ApiException(HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+            }
+
+            ApiResponse body = route(request, currentUser);
+
+            // Everything is validated and authorized; a current client copy
+            // now costs no query at all
+            if (ConditionalGet.isNotModified(request, response, currentUser.getUserId())) {
+                return;
+            }
+
+            try (JsonWriter out = new JsonWriter(response.getWriter())) {
+                body.write(out);
+            }
+
+        } catch (ApiException e) {
+            sendError(response, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the path, checks access and returns the writer for the resource
+     */
+    private ApiResponse route(HttpServletRequest request, User user) throws ApiException {
+        String path = request.getPathInfo();
+        String[] parts = path == null ? new String[0] : path.replaceAll("^/+|/+$", "").split("/");
+        String resource = parts.length > 0 ? parts[0] : "";
+
+        if ("me".equals(resource) && parts.length == 1) {
+            Set<String> fields = USER_FIELDS.select(request.getParameter("fields"));
+            return out -> USER_FIELDS.write(out, user, fields);
+        }
+
+        if ("courses".equals(resource) && parts.length == 1) {
+            Set<String> courseFields = COURSE_FIELDS.select(request.getParameter("fields"));
+            boolean available = Boolean.parseBoolean(request.getParameter("available"));
+            int teacherId = parseId(request.getParameter("teacherId"));
+            String after = request.getParameter("after");
+            String before = request.getParameter("before");
+            int size = parsePageSize(request.getParameter("size"));
+            return out -> writePage(out, courseDAO.getCoursePage(available, teacherId, after, before, size),
+                                    COURSE_FIELDS, courseFields);
+        }
+
+        if ("courses".equals(resource) && (parts.length == 2 || parts.length == 3)) {
+            int courseId = parseId(parts[1]);
+            Course course = courseId > 0 ? courseDAO.findById(courseId) : null;
+            if (course == null) {
+                throw new ApiException(HttpServletResponse.SC_NOT_FOUND, "Course not found");
+            }
+
+            if (parts.length == 2) {
+                Set<String> courseFields = COURSE_FIELDS.select(request.getParameter("fields"));
+                return out -> COURSE_FIELDS.write(out, course, courseFields);
+            }
+            if ("enrollments".equals(parts[2])) {
+                if (!user.isAdmin() && !(user.isTeacher() && course.getTeacherId() == user.getUserId())) {
+                    throw new ApiException(HttpServletResponse.SC_FORBIDDEN, "Access denied");
+                }
+                EnrollmentFilter filter = parseFilter(request);
+                filter.setCourseId(courseId);
+                return enrollmentPage(request, filter);
+            }
+        }
+
+        if ("enrollments".equals(resource) && parts.length == 1) {
+            EnrollmentFilter filter = parseFilter(request);
+            if (user.isStudent()) {
+                filter.setStudentId(user.getUserId());
+            } else if (!user.isAdmin()) {
+                // Teachers read rosters through /courses/{id}/enrollments
+                throw new ApiException(HttpServletResponse.SC_FORBIDDEN, "Access denied");
+            }
+            return enrollmentPage(request, filter);
+        }
+
+        if ("users".equals(resource) && parts.length == 1) {
+            if (!user.isAdmin()) {
+                throw new ApiException(HttpServletResponse.SC_FORBIDDEN, "Access denied");
+            }
+            Set<String> fields = USER_FIELDS.select(request.getParameter("fields"));
+            User.UserType role = parseEnum(User.UserType.class, request.getParameter("role"));
+            UserDAO.SortField sort = parseEnum(UserDAO.SortField.class, request.getParameter("sort"));
+            boolean descending = "desc".equalsIgnoreCase(request.getParameter("dir"));
+            String search = request.getParameter("q");
+            String after = request.getParameter("after");
+            String before = request.getParameter("before");
+            int size = parsePageSize(request.getParameter("size"));
+            return out -> writePage(out, userDAO.getUserPage(role, search, sort != null ? sort : UserDAO.SortField.ID,
+                                                             descending, after, before, size),
+                                    USER_FIELDS, fields);
+        }
+
+        throw new ApiException(HttpServletResponse.SC_NOT_FOUND, "Unknown resource");
+    }
+
+    private ApiResponse enrollmentPage(HttpServletRequest request, EnrollmentFilter filter) {
+        Set<String> fields = ENROLLMENT_FIELDS.select(request.getParameter("fields"));
+        String after = request.getParameter("after");
+        String before = request.getParameter("before");
+        int size = parsePageSize(request.getParameter("size"));
+        return out -> writePage(out, enrollmentDAO.getEnrollmentPage(filter, after, before, size),
+                                ENROLLMENT_FIELDS, fields);
+    }
+
+    /**
+     * Writes {"items": [...], "previous": cursor, "next": cursor}
+     */
+    private static <T> void writePage(JsonWriter out, KeysetPage<T> page, JsonProjection<T> projection,
+                                      Set<String> fields) throws IOException {
+        out.beginObject();
+        out.name("items").beginArray();
+        for (T item : page.getItems()) {
+            projection.write(out, item, fields);
+        }
+        out.endArray();
+        out.name("previous").value(page.getPreviousCursor());
+        out.name("next").value(page.getNextCursor());
+        out.endObject();
+    }
+
+    private static void sendError(HttpServletResponse response, int status, String message) throws IOException {
+        ConditionalGet.noStore(response);
+        response.setStatus(status);
+        try (JsonWriter out = new JsonWriter(response.getWriter())) {
+            out.beginObject().name("error").value(message).endObject();
+        }
+    }
+
+    private static EnrollmentFilter parseFilter(HttpServletRequest request) {
+        EnrollmentFilter filter = new EnrollmentFilter();
+        filter.setStatus(parseEnum(Enrollment.EnrollmentStatus.class, request.getParameter("status")));
+        filter.setCourseId(parseId(request.getParameter("courseId")));
+        filter.setStudentId(parseId(request.getParameter("studentId")));
+        filter.setSearch(request.getParameter("q"));
+        filter.setFrom(parseDate(request.getParameter("from")));
+        filter.setTo(parseDate(request.getParameter("to")));
+        return filter;
+    }
+
+    private static int parsePageSize(String value) {
+        try {
+            int size = Integer.parseInt(value);
+            return size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+
+    private static int parseId(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ID: " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value: " + value);
+        }
+    }
+
+    @Override
+    public String getServletInfo() {
+        return "JSON read API for Course Management System";
+    }
+}
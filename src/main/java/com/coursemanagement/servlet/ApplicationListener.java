@@ -0,0 +1,53 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.dao.DashboardSnapshot;
+import com.coursemanagement.dao.ImportJobManager;
+import com.coursemanagement.dao.SeatLedger;
+import com.coursemanagement.util.ConnectionPool;
+import com.coursemanagement.util.DatabaseConnection;
+import com.coursemanagement.util.DbExecutor;
+import com.coursemanagement.util.PasswordHasher;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+/**
+ * Application lifecycle listener.
+ *
+ * Loads the database configuration and brings the schema up to date when
+ * the application starts. The container runs this before initializing any
+ * filter or servlet, so settings read during their init() already see the
+ * context parameters from web.xml.
+ *
+ * When the application stops, after every filter and servlet has been
+ * destroyed, it stops the background threads and closes the connection
+ * pool, so that a redeployment does not leave them running.
+ *
+ * @author Course Management System
+ * @version 1.0
+ */
+public class ApplicationListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        // Initialize database connection with servlet context
+        DatabaseConnection.initialize(event.getServletContext());
+
+        // Initialize database tables and default data
+        DatabaseConnection.initializeDatabase();
+
+        System.out.println("Application initialized");
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        DbExecutor.resetInstance();
+        ImportJobManager.resetInstance();
+        DashboardSnapshot.resetInstance();
+        SeatLedger.resetInstance();
+        PasswordHasher.resetInstance();
+        ConnectionPool.resetInstance();
+
+        System.out.println("Application stopped");
+    }
+}
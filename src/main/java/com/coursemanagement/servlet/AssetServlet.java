@@ -0,0 +1,186 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.util.AssetMinifier;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asset Servlet serving the application's own CSS and JavaScript under
+ * content-hashed names.
+ *
+ * On startup each asset is read from the web application, minified and
+ * fingerprinted with a hash of the minified bytes, e.g. /css/style.css is
+ * served as /assets/css/style.1a2b3c4d5e.css. Since the name changes with
+ * the content, responses are cached for a year as immutable. JSPs look up
+ * the current names in the "assets" application attribute:
+ * ${applicationScope.assets['css/style.css']}.
+ *
+ * Each asset is also gzipped once at maximum compression, and that copy is
+ * sent to clients that accept gzip, so CompressionFilter never has to
+ * compress these files per request. A request for an outdated hash, from a
+ * page rendered before a redeploy, gets the current content without the
+ * long cache lifetime.
+ *
+ * @author Course Management System
+ * @version 1.0
+ */
+public class AssetServlet extends HttpServlet {
+
+    /** Assets to fingerprint, relative to the web application root */
+    private static final String[] ASSETS = {"css/style.css", "css/premium-nav.css", "js/theme-system.js"};
+
+    private static final int HASH_LENGTH = 10;
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * One minified asset held in memory
+     */
+    private static final class Asset {
+        final String contentType;
+        final byte[] content;
+        final byte[] gzipped;
+        final String etag;
+        final String gzipEtag;
+
+        Asset(String contentType, byte[] content, byte[] gzipped, String hash) {
+            this.contentType = contentType;
+            this.content = content;
+            this.gzipped = gzipped;
+            this.etag = "\"" + hash + "\"";
+            this.gzipEtag = "\"" + hash + "-gz\"";
+        }
+    }
+
+    /** Keyed by fingerprinted path, e.g. /css/style.1a2b3c4d5e.css */
+    private final Map<String, Asset> byFingerprint = new HashMap<>();
+
+    /** Keyed by original path, e.g. /css/style.css */
+    private final Map<String, Asset> byPath = new HashMap<>();
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        Map<String, String> urls = new HashMap<>();
+
+        for (String path : ASSETS) {
+            String source;
+            try (InputStream in = getServletContext().getResourceAsStream("/" + path)) {
+                if (in == null) {
+                    System.err.println("Static asset not found: " + path);
+                    urls.put(path, "/" + path);
+                    continue;
+                }
+                source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("Error reading static asset " + path + ": " + e.getMessage());
+                urls.put(path, "/" + path);
+                continue;
+            }
+
+            boolean css = path.endsWith(".css");
+            byte[] minified = (css ? AssetMinifier.minifyCss(source) : AssetMinifier.minifyJs(source))
+                .getBytes(StandardCharsets.UTF_8);
+            String hash = hash(minified);
+            Asset asset = new Asset(css ? "text/css;charset=UTF-8" : "application/javascript;charset=UTF-8",
+                                    minified, gzip(minified), hash);
+
+            int dot = path.lastIndexOf('.');
+            String fingerprinted = "/" + path.substring(0, dot) + "." + hash + path.substring(dot);
+            byFingerprint.put(fingerprinted, asset);
+            byPath.put("/" + path, asset);
+            urls.put(path, "/assets" + fingerprinted);
+
+            System.out.println("Static asset " + path + ": " + source.length() + " -> "
+                             + minified.length + " bytes (" + asset.gzipped.length + " gzipped) as " + fingerprinted);
+        }
+
+        getServletContext().setAttribute("assets", Collections.unmodifiableMap(urls));
+    }
+
+    /**
+     * Handles GET requests - serves a fingerprinted asset
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        String path = request.getPathInfo();
+        Asset asset = path != null ? byFingerprint.get(path) : null;
+        String cacheControl = IMMUTABLE;
+
+        if (asset == null && path != null) {
+            // Outdated hash: serve the current content, but let it be revalidated
+            asset = byPath.get(path.replaceFirst("\\.[0-9a-f]{" + HASH_LENGTH + "}(\\.[a-z]+)$", "$1"));
+            cacheControl = "public, no-cache";
+        }
+        if (asset == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        boolean gzip = CompressionFilter.acceptsGzip(request);
+        String etag = gzip ? asset.gzipEtag : asset.etag;
+        byte[] body = gzip ? asset.gzipped : asset.content;
+
+        response.setHeader("Cache-Control", cacheControl);
+        response.setHeader("Vary", "Accept-Encoding");
+        response.setHeader("ETag", etag);
+        if (etag.equals(request.getHeader("If-None-Match"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(asset.contentType);
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new IllegalStateException("Compressing in memory failed", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; hex.length() < HASH_LENGTH; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String getServletInfo() {
+        return "Fingerprinted static asset servlet for Course Management System";
+    }
+}
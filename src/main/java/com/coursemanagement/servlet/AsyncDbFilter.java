@@ -0,0 +1,207 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.util.DatabaseConnection;
+import com.coursemanagement.util.DbExecutor;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter running database-heavy servlets asynchronously on the DbExecutor.
+ *
+ * The container thread starts async processing and returns to the pool at
+ * once; a database worker thread then forwards the request to its servlet,
+ * so the servlet and its JSP run there. The container recycles the filter
+ * chain when the container thread returns, so the worker dispatches anew
+ * instead of continuing the chain. When the database slows down, requests
+ * wait in the executor's queue instead of occupying every container
+ * thread, so the login page, static assets and other pages keep responding.
+ *
+ * Each path gets a priority from the HIGH_PRIORITY_PATHS and
+ * LOW_PRIORITY_PATHS init parameters (comma-separated; a trailing "/*"
+ * matches a prefix); everything else is NORMAL. When a priority's share of
+ * the queue is full, or a request has waited longer than
+ * DB_QUEUE_TIMEOUT_MILLIS for a worker, it is answered with 503 and a
+ * Retry-After header instead of being run. So are the requests still
+ * queued when the application shuts down.
+ *
+ * Map this filter after the other filters so that they run on the
+ * container thread, and mark the target servlets async-supported. The
+ * worker closes the response output before completing the request, which
+ * finishes a body compressed by CompressionFilter.
+ *
+ * @author Course Management System
+ * @version 1.0
+ */
+public class AsyncDbFilter implements Filter {
+
+    private static final int DEFAULT_QUEUE_TIMEOUT_MILLIS = 5000;
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private DbExecutor executor;
+    private long queueTimeoutNanos;
+    private List<String> highPriority;
+    private List<String> lowPriority;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        executor = DbExecutor.getInstance();
+        queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1,
+            DatabaseConnection.getIntSetting("DB_QUEUE_TIMEOUT_MILLIS", DEFAULT_QUEUE_TIMEOUT_MILLIS)));
+        highPriority = paths(filterConfig.getInitParameter("HIGH_PRIORITY_PATHS"));
+        lowPriority = paths(filterConfig.getInitParameter("LOW_PRIORITY_PATHS"));
+        System.out.println("AsyncDbFilter initialized: " + executor.getExecutorStats());
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !request.isAsyncSupported()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        DbExecutor.Priority priority = priorityOf(path);
+        String target = httpRequest.getServletPath()
+            + (httpRequest.getPathInfo() != null ? httpRequest.getPathInfo() : "");
+
+        AsyncContext context = request.startAsync(request, response);
+        // Completion is up to the worker, or to the executor's shutdown for a
+        // request still queued; the queue timeout bounds the wait for a worker
+        context.setTimeout(0);
+        long queuedAt = System.nanoTime();
+
+        try {
+            executor.execute(priority, () -> run(context, target, queuedAt), () -> reject(context));
+        } catch (RejectedExecutionException e) {
+            System.err.println("Shedding " + priority + " request for " + path + ": " + e.getMessage());
+            reject(context);
+        }
+    }
+
+    /**
+     * Runs the target servlet on a database worker thread
+     */
+    private void run(AsyncContext context, String target, long queuedAt) {
+        if (System.nanoTime() - queuedAt > queueTimeoutNanos) {
+            reject(context);
+            return;
+        }
+
+        ServletRequest request = context.getRequest();
+        HttpServletResponse response = (HttpServletResponse) context.getResponse();
+        try {
+            request.getRequestDispatcher(target).forward(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            System.err.println("Error processing request asynchronously: " + e.getMessage());
+            e.printStackTrace();
+            if (!response.isCommitted()) {
+                try {
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                } catch (IOException ex) {
+                    System.err.println("Error sending error response: " + ex.getMessage());
+                }
+            }
+        } finally {
+            closeOutput(response);
+            complete(context);
+        }
+    }
+
+    /**
+     * Closes whichever of the writer or stream the servlet used, so that a
+     * compressed body is complete before the async request is
+     */
+    private static void closeOutput(ServletResponse response) {
+        try {
+            try {
+                response.getOutputStream().close();
+            } catch (IllegalStateException e) {
+                // The body was written through the writer
+                response.getWriter().close();
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Error closing response: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Answers a shed request with 503 without touching the database
+     */
+    private void reject(AsyncContext context) {
+        try {
+            HttpServletResponse response = (HttpServletResponse) context.getResponse();
+            ConditionalGet.noStore(response);
+            response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                               "The server is busy. Please try again in a few seconds.");
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Error sending busy response: " + e.getMessage());
+        } finally {
+            complete(context);
+        }
+    }
+
+    private static void complete(AsyncContext context) {
+        try {
+            context.complete();
+        } catch (IllegalStateException e) {
+            // Already ended by the container, e.g. while the application stops
+        }
+    }
+
+    private DbExecutor.Priority priorityOf(String path) {
+        if (matches(highPriority, path)) {
+            return DbExecutor.Priority.HIGH;
+        }
+        if (matches(lowPriority, path)) {
+            return DbExecutor.Priority.LOW;
+        }
+        return DbExecutor.Priority.NORMAL;
+    }
+
+    private static boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pattern.endsWith("/*")
+                    ? path.startsWith(pattern.substring(0, pattern.length() - 1))
+                    : path.equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> paths(String value) {
+        List<String> paths = new ArrayList<>();
+        if (value != null) {
+            for (String path : value.split(",")) {
+                if (!path.trim().isEmpty()) {
+                    paths.add(path.trim());
+                }
+            }
+        }
+        return paths;
+    }
+
+    @Override
+    public void destroy() {
+        System.out.println(executor.getExecutorStats());
+        executor.shutdown();
+    }
+}
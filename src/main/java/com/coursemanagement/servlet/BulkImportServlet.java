@@ -1,18 +1,10 @@
 package com.coursemanagement.servlet;
 
-import com.coursemanagement.dao.CourseDAO;
-import com.coursemanagement.dao.UserDAO;
-import com.coursemanagement.model.Course;
+import com.coursemanagement.dao.ImportJob;
+import com.coursemanagement.dao.ImportJobManager;
 import com.coursemanagement.model.User;
-import com.coursemanagement.util.PasswordUtil;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.coursemanagement.util.ImportReport;
+import com.google.gson.Gson;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.MultipartConfig;
@@ -21,174 +13,186 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Accepts bulk import uploads and reports on the background jobs running them.
+ *
+ * POST spools the upload to disk, queues an ImportJob and returns at once.
+ * GET ?job=ID returns the job's progress as JSON, GET ?job=ID&amp;download=report
+ * returns its row errors as CSV, and GET without a job lists recent jobs.
+ */
 @WebServlet("/admin/bulk-import")
 @MultipartConfig
 public class BulkImportServlet extends HttpServlet {
 
+    private final Gson gson = new Gson();
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        ImportJobManager manager = ImportJobManager.getInstance();
+        String jobId = request.getParameter("job");
+
+        if (jobId == null) {
+            List<Map<String, Object>> jobs = new ArrayList<>();
+            for (ImportJob job : manager.getJobs()) {
+                jobs.add(toJson(request, job));
+            }
+            writeJson(response, jobs);
+            return;
+        }
+
+        ImportJob job = manager.getJob(jobId);
+        if (job == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown or expired import job");
+            return;
+        }
+
+        if ("report".equals(request.getParameter("download"))) {
+            writeReport(response, job);
+        } else {
+            writeJson(response, toJson(request, job));
+        }
+    }
+
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         String type = request.getParameter("type");
         Part filePart = request.getPart("file");
+        boolean ajax = wantsJson(request);
+        String redirectUrl = request.getContextPath() + ("courses".equals(type) ? "/admin/courses" : "/admin/users");
 
         if (filePart == null || filePart.getSize() == 0) {
-            request.getSession().setAttribute("errorMessage", "Please select a file to upload.");
-            response.sendRedirect(request.getHeader("Referer"));
+            fail(request, response, ajax, redirectUrl, HttpServletResponse.SC_BAD_REQUEST, "Please select a file to upload.");
             return;
         }
-        
-        String fileName = filePart.getSubmittedFileName();
-        InputStream fileContent = filePart.getInputStream();
 
-        String redirectUrl = "";
-        String successMessage = "";
-        String errorMessage = "";
+        String fileName = filePart.getSubmittedFileName();
+        User currentUser = (User) request.getSession().getAttribute("currentUser");
+        File spooled = null;
 
         try {
-            if ("users".equals(type)) {
-                redirectUrl = request.getContextPath() + "/admin/users";
-                List<User> users = parseUsers(fileContent, fileName);
-                UserDAO userDAO = new UserDAO();
-                for (User user : users) {
-                    userDAO.createUser(user);
-                }
-                successMessage = users.size() + " users imported successfully.";
-            } else if ("courses".equals(type)) {
-                redirectUrl = request.getContextPath() + "/admin/courses";
-                List<Course> courses = parseCourses(fileContent, fileName);
-                CourseDAO courseDAO = new CourseDAO();
-                for (Course course : courses) {
-                    courseDAO.createCourse(course);
-                }
-                successMessage = courses.size() + " courses imported successfully.";
+            spooled = spool(filePart, fileName);
+            ImportJob job = ImportJobManager.getInstance().submit(type, spooled, fileName,
+                currentUser != null ? currentUser.getUserId() : 0);
+            spooled = null; // owned by the job now
+
+            if (ajax) {
+                response.setStatus(HttpServletResponse.SC_ACCEPTED);
+                writeJson(response, toJson(request, job));
             } else {
-                throw new ServletException("Invalid import type.");
+                request.getSession().setAttribute("successMessage",
+                    "Import of " + fileName + " started. Progress is shown below.");
+                request.getSession().setAttribute("importJobId", job.getId());
+                response.sendRedirect(redirectUrl);
             }
-            request.getSession().setAttribute("successMessage", successMessage);
-        } catch (Exception e) {
+        } catch (IllegalArgumentException e) {
+            fail(request, response, ajax, redirectUrl, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            response.setHeader("Retry-After", "60");
+            fail(request, response, ajax, redirectUrl, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "Too many imports are already queued. Please try again in a few minutes.");
+        } catch (IOException e) {
             e.printStackTrace();
-            errorMessage = "Error importing file: " + e.getMessage();
-            request.getSession().setAttribute("errorMessage", errorMessage);
+            fail(request, response, ajax, redirectUrl, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                "Error importing file: " + e.getMessage());
+        } finally {
+            if (spooled != null && !spooled.delete()) {
+                spooled.deleteOnExit();
+            }
         }
-        
-        response.sendRedirect(redirectUrl);
     }
 
-    private List<User> parseUsers(InputStream inputStream, String fileName) throws IOException {
-        List<User> users = new ArrayList<>();
-        if (fileName.endsWith(".xlsx")) {
-            // Excel parsing
-            Workbook workbook = new XSSFWorkbook(inputStream);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> iterator = sheet.iterator();
-
-            // Skip header row
-            if (iterator.hasNext()) {
-                iterator.next();
-            }
+    /**
+     * Copies the upload to a temporary file that outlives the request
+     */
+    private File spool(Part filePart, String fileName) throws IOException {
+        String suffix = fileName != null && fileName.contains(".") ? fileName.substring(fileName.lastIndexOf('.')) : ".tmp";
+        File file = File.createTempFile("import-", suffix);
+        try (InputStream in = filePart.getInputStream()) {
+            Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+        return file;
+    }
 
-            while (iterator.hasNext()) {
-                Row currentRow = iterator.next();
-                User user = new User();
-                user.setUsername(getCellValue(currentRow.getCell(0)));
-                user.setEmail(getCellValue(currentRow.getCell(1)));
-                String hashedPassword = PasswordUtil.hashPassword(getCellValue(currentRow.getCell(2)));
-                user.setPassword(hashedPassword);
-                user.setFullName(getCellValue(currentRow.getCell(3)));
-                user.setUserType(User.UserType.valueOf(getCellValue(currentRow.getCell(4)).toUpperCase()));
-                users.add(user);
-            }
-            workbook.close();
-        } else if (fileName.endsWith(".csv")) {
-            // CSV parsing
-            try (Reader reader = new InputStreamReader(inputStream);
-                 CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withTrim())) {
-
-                for (CSVRecord csvRecord : csvParser) {
-                    User user = new User();
-                    user.setUsername(csvRecord.get("username"));
-                    user.setEmail(csvRecord.get("email"));
-                    String hashedPassword = PasswordUtil.hashPassword(csvRecord.get("password"));
-                    user.setPassword(hashedPassword);
-                    user.setFullName(csvRecord.get("fullName"));
-                    user.setUserType(User.UserType.valueOf(csvRecord.get("userType").toUpperCase()));
-                    users.add(user);
-                }
-            }
+    private void fail(HttpServletRequest request, HttpServletResponse response, boolean ajax, String redirectUrl,
+                      int status, String message) throws IOException {
+        if (ajax) {
+            response.setStatus(status);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("error", message);
+            writeJson(response, body);
+        } else {
+            request.getSession().setAttribute("errorMessage", message);
+            response.sendRedirect(redirectUrl);
         }
-        return users;
     }
 
-    private List<Course> parseCourses(InputStream inputStream, String fileName) throws IOException {
-        List<Course> courses = new ArrayList<>();
-        if (fileName.endsWith(".xlsx")) {
-            // Excel parsing
-            Workbook workbook = new XSSFWorkbook(inputStream);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> iterator = sheet.iterator();
-            
-            // Skip header row
-            if (iterator.hasNext()) {
-                iterator.next();
-            }
+    private boolean wantsJson(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return "XMLHttpRequest".equals(request.getHeader("X-Requested-With"))
+            || (accept != null && accept.contains("application/json"));
+    }
 
-            while (iterator.hasNext()) {
-                Row currentRow = iterator.next();
-                Course course = new Course();
-                course.setCourseCode(getCellValue(currentRow.getCell(0)));
-                course.setCourseName(getCellValue(currentRow.getCell(1)));
-                course.setDescription(getCellValue(currentRow.getCell(2)));
-                course.setCredits((int) Double.parseDouble(getCellValue(currentRow.getCell(3))));
-                course.setMaxStudents((int) Double.parseDouble(getCellValue(currentRow.getCell(4))));
-                String teacherIdStr = getCellValue(currentRow.getCell(5));
-                if (teacherIdStr != null && !teacherIdStr.isEmpty()) {
-                    course.setTeacherId(Integer.parseInt(teacherIdStr));
-                }
-                courses.add(course);
-            }
-            workbook.close();
-        } else if (fileName.endsWith(".csv")) {
-            // CSV parsing
-            try (Reader reader = new InputStreamReader(inputStream);
-                 CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withTrim())) {
-                
-                for (CSVRecord csvRecord : csvParser) {
-                    Course course = new Course();
-                    course.setCourseCode(csvRecord.get("courseCode"));
-                    course.setCourseName(csvRecord.get("courseName"));
-                    course.setDescription(csvRecord.get("description"));
-                    course.setCredits(Integer.parseInt(csvRecord.get("credits")));
-                    course.setMaxStudents(Integer.parseInt(csvRecord.get("maxStudents")));
-                    String teacherIdStr = csvRecord.get("teacherId");
-                    if (teacherIdStr != null && !teacherIdStr.isEmpty()) {
-                        course.setTeacherId(Integer.parseInt(teacherIdStr));
-                    }
-                    courses.add(course);
-                }
-            }
+    private Map<String, Object> toJson(HttpServletRequest request, ImportJob job) {
+        ImportReport report = job.getReport();
+        String statusUrl = request.getContextPath() + "/admin/bulk-import?job=" + job.getId();
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("jobId", job.getId());
+        json.put("type", job.getType());
+        json.put("fileName", job.getFileName());
+        json.put("status", job.getStatus().name());
+        json.put("rowsParsed", report.getRowsParsed());
+        json.put("rowsInserted", report.getRowsInserted());
+        json.put("rowsFailed", report.getRowsFailed());
+        json.put("elapsedMillis", job.getStatus() == ImportJob.Status.QUEUED ? 0 : report.getElapsedMillis());
+        json.put("rowsPerSecond", Math.round(job.getRowsPerSecond() * 10) / 10.0);
+        json.put("progress", job.getProgress());
+        json.put("etaSeconds", job.getEtaSeconds());
+        json.put("error", job.getError());
+        json.put("statusUrl", statusUrl);
+        if (job.isFinished() && report.getRowsFailed() > 0) {
+            json.put("reportUrl", statusUrl + "&download=report");
         }
-        return courses;
+        return json;
     }
-    
-    private String getCellValue(Cell cell) {
-        if (cell == null) {
-            return "";
+
+    private void writeJson(HttpServletResponse response, Object body) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        gson.toJson(body, response.getWriter());
+    }
+
+    /**
+     * Writes the job's row errors as a CSV attachment
+     */
+    private void writeReport(HttpServletResponse response, ImportJob job) throws IOException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"import-" + job.getId() + "-errors.csv\"");
+
+        PrintWriter out = response.getWriter();
+        out.println("row,error");
+        for (ImportReport.RowError error : job.getReport().getErrors()) {
+            String message = error.getMessage() != null ? error.getMessage() : "";
+            out.println(error.getRowNumber() + ",\"" + message.replace("\"", "\"\"") + "\"");
         }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            default:
-                return "";
+        long unrecorded = job.getReport().getRowsFailed() - job.getReport().getErrors().size();
+        if (unrecorded > 0) {
+            out.println(",\"" + unrecorded + " further failed rows were not recorded\"");
         }
     }
 }
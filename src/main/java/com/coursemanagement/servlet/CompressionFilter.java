@@ -0,0 +1,506 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.util.DatabaseConnection;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compression Filter to gzip text responses for clients that accept it.
+ *
+ * Output is held back until COMPRESSION_MIN_BYTES have been written (or the
+ * response is flushed or completed); only then is it decided whether to
+ * compress, so small responses go out unchanged with their Content-Length.
+ * HTML, JSON, CSS, JavaScript and other text types are compressed; event
+ * streams and responses that already carry a Content-Encoding, such as the
+ * precompressed assets from AssetServlet, pass through untouched. Requests
+ * for an event stream are not wrapped at all, so SeatEventServlet can use
+ * non-blocking output.
+ *
+ * The body is completed when the filter chain returns. A request that goes
+ * async instead, like those run by AsyncDbFilter, is completed by closing
+ * the response output before the async request is completed.
+ *
+ * Deflaters and their output buffers are pooled, so a compressed response
+ * does not allocate a new native zlib stream. Brotli is not offered: there
+ * is no pure Java encoder for it.
+ *
+ * @author Course Management System
+ * @version 1.0
+ */
+public class CompressionFilter implements Filter {
+
+    private static final int DEFAULT_MIN_BYTES = 1024;
+    private static final int DEFAULT_LEVEL = 6;
+    private static final int DEFAULT_POOL_SIZE = 32;
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private int minBytes;
+    private int level;
+    private BlockingQueue<Compressor> pool;
+
+    /**
+     * A raw deflater with its output buffer and checksum, reused across responses
+     */
+    private static final class Compressor {
+        final Deflater deflater;
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final CRC32 crc = new CRC32();
+
+        Compressor(int level) {
+            deflater = new Deflater(level, true);
+        }
+
+        void reset() {
+            deflater.reset();
+            crc.reset();
+        }
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        minBytes = Math.max(0, DatabaseConnection.getIntSetting("COMPRESSION_MIN_BYTES", DEFAULT_MIN_BYTES));
+        level = Math.max(1, Math.min(9, DatabaseConnection.getIntSetting("COMPRESSION_LEVEL", DEFAULT_LEVEL)));
+        pool = new ArrayBlockingQueue<>(Math.max(1,
+            DatabaseConnection.getIntSetting("COMPRESSION_POOL_SIZE", DEFAULT_POOL_SIZE)));
+        System.out.println("CompressionFilter initialized: gzip level " + level + " above " + minBytes + " bytes");
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        if ("HEAD".equals(httpRequest.getMethod()) || !acceptsGzip(httpRequest) || acceptsEventStream(httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CompressingResponse wrapper = new CompressingResponse(httpResponse);
+        boolean completed = false;
+        try {
+            chain.doFilter(request, wrapper);
+            completed = true;
+        } finally {
+            if (!completed) {
+                // Let the container render its error page on the real response
+                wrapper.abandon();
+            } else if (!request.isAsyncStarted()) {
+                wrapper.finish();
+            }
+            // Otherwise whoever completes the async request closes the output,
+            // which finishes the body; AsyncDbFilter does so on its worker
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Compressor compressor;
+        while ((compressor = pool.poll()) != null) {
+            compressor.deflater.end();
+        }
+    }
+
+    /**
+     * Checks whether the request comes from an EventSource
+     */
+    private static boolean acceptsEventStream(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.toLowerCase().contains("text/event-stream");
+    }
+
+    /**
+     * Checks whether the client accepts a gzip response, honouring q=0
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader("Accept-Encoding");
+        if (header == null) {
+            return false;
+        }
+        for (String part : header.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase();
+            if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("*")) {
+                continue;
+            }
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (q > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        if (type.startsWith("text/event-stream")) {
+            return false;
+        }
+        return type.startsWith("text/")
+            || type.startsWith("application/json")
+            || type.startsWith("application/javascript")
+            || type.startsWith("application/xml")
+            || type.startsWith("image/svg+xml");
+    }
+
+    private Compressor acquire() {
+        Compressor compressor = pool.poll();
+        return compressor != null ? compressor : new Compressor(level);
+    }
+
+    private void release(Compressor compressor) {
+        compressor.reset();
+        if (!pool.offer(compressor)) {
+            compressor.deflater.end();
+        }
+    }
+
+    /**
+     * Response wrapper that routes the body through a CompressingStream and
+     * keeps Content-Length back until the encoding is known
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private CompressingStream stream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+        private boolean passThrough;
+
+        CompressingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (stream == null) {
+                stream = new CompressingStream(this);
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (stream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                stream = new CompressingStream(this);
+                writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                contentLength = value != null ? Long.parseLong(value) : -1;
+                return;
+            }
+            if ("Content-Encoding".equalsIgnoreCase(name)) {
+                passThrough = true;
+            }
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                setHeader(name, value);
+                return;
+            }
+            if ("Content-Encoding".equalsIgnoreCase(name)) {
+                passThrough = true;
+            }
+            super.addHeader(name, value);
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                contentLength = value;
+                return;
+            }
+            super.setIntHeader(name, value);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            passThrough = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            passThrough = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            passThrough = true;
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (stream != null) {
+                stream.flush();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (stream != null && stream.discard()) {
+                return;
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            contentLength = -1;
+            passThrough = false;
+            if (stream != null) {
+                stream.discard();
+            }
+        }
+
+        /**
+         * Completes the body once the request has been handled
+         */
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.close();
+            } else if (contentLength >= 0 && !isCommitted()) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+
+        /**
+         * Returns pooled resources without completing the body
+         */
+        void abandon() {
+            if (stream != null) {
+                stream.releaseCompressor();
+            }
+        }
+    }
+
+    /**
+     * Output stream that buffers up to minBytes, then either deflates into a
+     * gzip member or writes through unchanged
+     */
+    private final class CompressingStream extends ServletOutputStream {
+
+        private final CompressingResponse response;
+        private byte[] pending = new byte[Math.max(minBytes, 1)];
+        private int pendingLength;
+        private ServletOutputStream target;
+        private Compressor compressor;
+        private long uncompressedSize;
+        private boolean closed;
+
+        CompressingStream(CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (target == null) {
+                if (pendingLength + len < pending.length) {
+                    System.arraycopy(b, off, pending, pendingLength, len);
+                    pendingLength += len;
+                    return;
+                }
+                start(true);
+            }
+            if (compressor != null) {
+                deflate(b, off, len);
+            } else {
+                target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (closed) {
+                return;
+            }
+            if (target == null) {
+                start(pendingLength >= minBytes);
+            }
+            if (compressor != null) {
+                Deflater deflater = compressor.deflater;
+                int n;
+                do {
+                    n = deflater.deflate(compressor.buffer, 0, BUFFER_SIZE, Deflater.SYNC_FLUSH);
+                    target.write(compressor.buffer, 0, n);
+                } while (n == BUFFER_SIZE);
+            }
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            if (target == null) {
+                start(pendingLength >= minBytes);
+            }
+            closed = true;
+            if (compressor != null) {
+                try {
+                    Deflater deflater = compressor.deflater;
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(compressor.buffer, 0, BUFFER_SIZE);
+                        target.write(compressor.buffer, 0, n);
+                    }
+                    writeIntLE(compressor.crc.getValue());
+                    writeIntLE(uncompressedSize);
+                } finally {
+                    releaseCompressor();
+                }
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new IllegalStateException("Non-blocking output is not supported by CompressionFilter");
+        }
+
+        /**
+         * Drops held-back output; false if output has already been sent
+         */
+        boolean discard() {
+            if (target != null) {
+                return false;
+            }
+            pendingLength = 0;
+            return true;
+        }
+
+        void releaseCompressor() {
+            if (compressor != null) {
+                Compressor released = compressor;
+                compressor = null;
+                release(released);
+            }
+        }
+
+        /**
+         * Chooses the encoding and sends the held-back output
+         */
+        private void start(boolean largeEnough) throws IOException {
+            HttpServletResponse real = (HttpServletResponse) response.getResponse();
+            boolean compress = largeEnough && !response.passThrough && !real.isCommitted()
+                && isCompressible(response.getContentType());
+
+            if (compress) {
+                real.setHeader("Content-Encoding", "gzip");
+                real.addHeader("Vary", "Accept-Encoding");
+                target = real.getOutputStream();
+                compressor = acquire();
+                target.write(GZIP_HEADER);
+                deflate(pending, 0, pendingLength);
+            } else {
+                if (response.contentLength >= 0 && !real.isCommitted()) {
+                    real.setContentLengthLong(response.contentLength);
+                }
+                if (isCompressible(response.getContentType())) {
+                    real.addHeader("Vary", "Accept-Encoding");
+                }
+                target = real.getOutputStream();
+                target.write(pending, 0, pendingLength);
+            }
+            pending = null;
+            pendingLength = 0;
+        }
+
+        private void deflate(byte[] b, int off, int len) throws IOException {
+            compressor.crc.update(b, off, len);
+            uncompressedSize += len;
+            Deflater deflater = compressor.deflater;
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                int n = deflater.deflate(compressor.buffer, 0, BUFFER_SIZE);
+                target.write(compressor.buffer, 0, n);
+            }
+        }
+
+        private void writeIntLE(long value) throws IOException {
+            target.write((int) (value & 0xff));
+            target.write((int) ((value >> 8) & 0xff));
+            target.write((int) ((value >> 16) & 0xff));
+            target.write((int) ((value >> 24) & 0xff));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.dao.DataVersion;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Conditional GET support for per-user pages.
+ *
+ * Pages that opt in are sent with a weak ETag built from the data versions
+ * they are rendered from and the user ID, and with "Cache-Control: private,
+ * no-cache" in place of the "no-store" SecurityHeadersFilter sets: the
+ * browser may keep its own copy but must revalidate it on every use, and
+ * shared caches must not store it. A matching If-None-Match is answered with
+ * 304 before any DAO query runs or any JSP renders.
+ *
+ * @author Course Management System
+ * @version 1.0
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Sets the validator headers and answers 304 if the client's copy is
+     * still current. Only GET and HEAD requests are considered, so pages
+     * rendered after a POST are never validated.
+     *
+     * @param request The request
+     * @param response The response
+     * @param userId The user the page is rendered for
+     * @return true if a 304 was sent and the caller must not render the page
+     */
+    public static boolean isNotModified(HttpServletRequest request, HttpServletResponse response, int userId) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+
+        // Read the versions before the caller queries anything, so a write
+        // racing the render leaves the page with an already outdated tag
+        String etag = "W/\"" + Long.toString(DataVersion.getEpoch(), 36)
+            + "-" + userId
+            + "-" + DataVersion.getCatalogVersion()
+            + "-" + DataVersion.getEnrollmentVersion()
+            + "-" + DataVersion.getUserVersion() + "\"";
+
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "private, no-cache");
+
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Withdraws the validator for a response that is not the page, such as
+     * an error page, so the browser does not keep it and revalidate it
+     *
+     * @param response The response
+     */
+    public static void noStore(HttpServletResponse response) {
+        response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+    }
+
+    /**
+     * Weak comparison of an If-None-Match list against the current tag
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
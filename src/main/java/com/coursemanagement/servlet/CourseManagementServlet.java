@@ -121,6 +121,17 @@ public class CourseManagementServlet extends HttpServlet {
     private void showCourseList(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
+        // Show messages a redirect left in the session (e.g. from bulk import)
+        for (String key : new String[] {"successMessage", "errorMessage", "importJobId"}) {
+            Object message = request.getSession().getAttribute(key);
+            if (message != null) {
+                request.getSession().removeAttribute(key);
+                if (request.getAttribute(key) == null) {
+                    request.setAttribute(key, message);
+                }
+            }
+        }
+        
         try {
             // Get all courses and teachers
             List<Course> courses = courseDAO.getAllCourses();
@@ -2,6 +2,7 @@ package com.coursemanagement.servlet;
 
 import com.coursemanagement.dao.CourseDAO;
 import com.coursemanagement.dao.EnrollmentDAO;
+import com.coursemanagement.dao.SeatLedger;
 import com.coursemanagement.model.Course;
 import com.coursemanagement.model.Enrollment;
 import com.coursemanagement.model.User;
@@ -27,12 +28,14 @@ public class CourseRegistrationServlet extends HttpServlet {
     
     private CourseDAO courseDAO;
     private EnrollmentDAO enrollmentDAO;
+    private SeatLedger seatLedger;
     
     @Override
     public void init() throws ServletException {
         super.init();
         courseDAO = new CourseDAO();
         enrollmentDAO = new EnrollmentDAO();
+        seatLedger = SeatLedger.getInstance();
         System.out.println("CourseRegistrationServlet initialized successfully");
     }
     
@@ -55,6 +58,11 @@ public class CourseRegistrationServlet extends HttpServlet {
             return;
         }
         
+        // Answer revalidations from the data versions before running any query
+        if (ConditionalGet.isNotModified(request, response, currentUser.getUserId())) {
+            return;
+        }
+        
         try {
             // Get all available courses
             List<Course> availableCourses = courseDAO.getAvailableCourses();
@@ -73,6 +81,7 @@ public class CourseRegistrationServlet extends HttpServlet {
         } catch (Exception e) {
             System.err.println("Error in CourseRegistrationServlet: " + e.getMessage());
             e.printStackTrace();
+            ConditionalGet.noStore(response);
             request.setAttribute("errorMessage", "An error occurred while loading courses. Please try again.");
             request.getRequestDispatcher("/error.jsp").forward(request, response);
         }
@@ -100,25 +109,23 @@ public class CourseRegistrationServlet extends HttpServlet {
         try {
             int courseId = Integer.parseInt(request.getParameter("courseId"));
             
-            // Check if student is already enrolled
-            List<Enrollment> existingEnrollments = enrollmentDAO.getEnrollmentsByStudent(currentUser.getUserId());
-            boolean alreadyEnrolled = existingEnrollments.stream()
-                .anyMatch(enrollment -> enrollment.getCourseId() == courseId);
-            
-            if (alreadyEnrolled) {
-                request.setAttribute("errorMessage", "You are already enrolled in this course.");
-            } else {
-                // Register for the course
-                Enrollment enrollment = new Enrollment();
-                enrollment.setStudentId(currentUser.getUserId());
-                enrollment.setCourseId(courseId);
-                
-                boolean success = enrollmentDAO.createEnrollment(enrollment);
-                if (success) {
+            // Claim a seat (full courses are rejected by the ledger without a DB round trip)
+            Enrollment enrollment = new Enrollment(currentUser.getUserId(), courseId);
+            switch (seatLedger.reserveSeat(enrollment)) {
+                case ENROLLED:
                     request.setAttribute("successMessage", "Successfully enrolled in the course!");
-                } else {
+                    break;
+                case DUPLICATE:
+                    request.setAttribute("errorMessage", "You are already enrolled in this course.");
+                    break;
+                case FULL:
+                    request.setAttribute("errorMessage", "This course is full.");
+                    break;
+                case NOT_FOUND:
+                    request.setAttribute("errorMessage", "Course not found.");
+                    break;
+                default:
                     request.setAttribute("errorMessage", "Failed to enroll in the course. Please try again.");
-                }
             }
             
         } catch (NumberFormatException e) {
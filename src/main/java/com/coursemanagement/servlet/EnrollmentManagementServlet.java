@@ -1,7 +1,9 @@
 package com.coursemanagement.servlet;
 
 import com.coursemanagement.dao.EnrollmentDAO;
+import com.coursemanagement.dao.EnrollmentFilter;
 import com.coursemanagement.dao.CourseDAO;
+import com.coursemanagement.dao.KeysetPage;
 import com.coursemanagement.dao.UserDAO;
 import com.coursemanagement.model.Enrollment;
 import com.coursemanagement.model.Course;
@@ -13,19 +15,28 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Enrollment Management Servlet for admin operations.
  * 
  * This servlet handles enrollment management operations including viewing all enrollments,
- * managing enrollment status, and enrollment statistics.
+ * managing enrollment status, and enrollment statistics. The listing is filtered and
+ * keyset-paginated in the database (status, courseId, studentId, from, to, size,
+ * after/before cursors).
  * 
  * @author CSE-446 Web Engineering Lab Group
  * @version 1.0
  */
 public class EnrollmentManagementServlet extends HttpServlet {
     
+    private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 100;
+    
     private EnrollmentDAO enrollmentDAO;
     private CourseDAO courseDAO;
     private UserDAO userDAO;
@@ -59,33 +70,37 @@ public class EnrollmentManagementServlet extends HttpServlet {
         }
         
         try {
-            // Get all enrollments
-            List<Enrollment> allEnrollments = enrollmentDAO.getAllEnrollments();
+            EnrollmentFilter filter = parseFilter(request);
+            int pageSize = parsePageSize(request.getParameter("size"));
             
-            // Get enrollment statistics
-            long totalEnrollments = allEnrollments.size();
-            long activeEnrollments = allEnrollments.stream()
-                .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.ENROLLED)
-                .count();
-            long completedEnrollments = allEnrollments.stream()
-                .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.COMPLETED)
-                .count();
-            long droppedEnrollments = allEnrollments.stream()
-                .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.DROPPED)
-                .count();
+            // One page of enrollments and one grouped count instead of the whole table
+            KeysetPage<Enrollment> enrollmentPage = enrollmentDAO.getEnrollmentPage(
+                filter, request.getParameter("after"), request.getParameter("before"), pageSize);
+            Map<Enrollment.EnrollmentStatus, Long> statusCounts = enrollmentDAO.getStatusCounts(filter);
+            long totalEnrollments = 0;
+            for (long count : statusCounts.values()) {
+                totalEnrollments += count;
+            }
             
-            // Get all courses and students for dropdowns
+            // Courses for the filter dropdown come from the catalog snapshot
             List<Course> allCourses = courseDAO.getAllCourses();
-            List<User> allStudents = userDAO.findByUserType(User.UserType.STUDENT);
+            User filterStudent = filter.getStudentId() > 0 ? userDAO.findById(filter.getStudentId()) : null;
             
             // Set attributes for JSP
-            request.setAttribute("allEnrollments", allEnrollments);
+            request.setAttribute("enrollmentPage", enrollmentPage);
+            request.setAttribute("allEnrollments", enrollmentPage.getItems());
             request.setAttribute("allCourses", allCourses);
-            request.setAttribute("allStudents", allStudents);
+            request.setAttribute("filter", filter);
+            request.setAttribute("filterStudent", filterStudent);
+            request.setAttribute("filterQuery", buildFilterQuery(filter, pageSize));
+            request.setAttribute("pageSize", pageSize);
             request.setAttribute("totalEnrollments", totalEnrollments);
-            request.setAttribute("activeEnrollments", activeEnrollments);
-            request.setAttribute("completedEnrollments", completedEnrollments);
-            request.setAttribute("droppedEnrollments", droppedEnrollments);
+            request.setAttribute("matchingEnrollments",
+                filter.getStatus() != null ? statusCounts.get(filter.getStatus()) : totalEnrollments);
+            request.setAttribute("activeEnrollments", statusCounts.get(Enrollment.EnrollmentStatus.ENROLLED));
+            request.setAttribute("completedEnrollments", statusCounts.get(Enrollment.EnrollmentStatus.COMPLETED));
+            request.setAttribute("droppedEnrollments", statusCounts.get(Enrollment.EnrollmentStatus.DROPPED));
+            request.setAttribute("pendingEnrollments", statusCounts.get(Enrollment.EnrollmentStatus.PENDING));
             
             // Forward to enrollment management JSP
             request.getRequestDispatcher("/admin/enrollments.jsp").forward(request, response);
@@ -199,6 +214,78 @@ public class EnrollmentManagementServlet extends HttpServlet {
         doGet(request, response);
     }
     
+    /**
+     * Reads the listing filters from request parameters, ignoring malformed values
+     */
+    private EnrollmentFilter parseFilter(HttpServletRequest request) {
+        EnrollmentFilter filter = new EnrollmentFilter();
+        String status = request.getParameter("status");
+        if (status != null && !status.isEmpty()) {
+            try {
+                filter.setStatus(Enrollment.EnrollmentStatus.valueOf(status));
+            } catch (IllegalArgumentException e) {
+                // Unknown status: list everything
+            }
+        }
+        filter.setCourseId(parseId(request.getParameter("courseId")));
+        filter.setStudentId(parseId(request.getParameter("studentId")));
+        filter.setSearch(request.getParameter("q"));
+        filter.setFrom(parseDate(request.getParameter("from")));
+        filter.setTo(parseDate(request.getParameter("to")));
+        return filter;
+    }
+    
+    private int parsePageSize(String value) {
+        try {
+            int size = Integer.parseInt(value);
+            return size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+    
+    private int parseId(String value) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    private LocalDate parseDate(String value) {
+        try {
+            return value != null && !value.isEmpty() ? LocalDate.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Builds the query string that keeps the current filters on paging links
+     */
+    private String buildFilterQuery(EnrollmentFilter filter, int pageSize) throws IOException {
+        StringBuilder query = new StringBuilder("size=").append(pageSize);
+        if (filter.getStatus() != null) {
+            query.append("&status=").append(filter.getStatus().name());
+        }
+        if (filter.getCourseId() > 0) {
+            query.append("&courseId=").append(filter.getCourseId());
+        }
+        if (filter.getStudentId() > 0) {
+            query.append("&studentId=").append(filter.getStudentId());
+        }
+        if (filter.getSearch() != null) {
+            query.append("&q=").append(URLEncoder.encode(filter.getSearch(), "UTF-8"));
+        }
+        if (filter.getFrom() != null) {
+            query.append("&from=").append(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            query.append("&to=").append(filter.getTo());
+        }
+        return query.toString();
+    }
+    
     @Override
     public String getServletInfo() {
         return "Enrollment Management Servlet for Course Management System";
@@ -2,7 +2,6 @@ package com.coursemanagement.servlet;
 
 import com.coursemanagement.dao.UserDAO;
 import com.coursemanagement.model.User;
-import com.coursemanagement.util.DatabaseConnection;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -10,12 +9,13 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Login servlet to handle user authentication.
  * 
  * This servlet processes login requests, authenticates users, and creates
- * user sessions. It also handles initialization of the database connection.
+ * user sessions. The database connection is initialized by ApplicationListener.
  * 
  * @author CSE-446 Web Engineering Lab Group
  * @version 1.0
@@ -28,12 +28,6 @@ public class LoginServlet extends HttpServlet {
     public void init() throws ServletException {
         super.init();
         
-        // Initialize database connection with servlet context
-        DatabaseConnection.initialize(getServletContext());
-        
-        // Initialize database tables and default data
-        DatabaseConnection.initializeDatabase();
-        
         // Initialize DAO
         userDAO = new UserDAO();
         
@@ -116,6 +110,14 @@ public class LoginServlet extends HttpServlet {
                 request.getRequestDispatcher("/login.jsp").forward(request, response);
             }
             
+        } catch (RejectedExecutionException e) {
+            // Hashing queue is full - shed the login instead of queueing it
+            System.err.println("Login rejected, password hashing queue is full");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "5");
+            request.setAttribute("errorMessage", "The server is busy. Please try again in a few seconds.");
+            request.setAttribute("username", username); // Preserve username
+            request.getRequestDispatcher("/login.jsp").forward(request, response);
         } catch (Exception e) {
             System.err.println("Error during authentication: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,204 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.util.ConnectionPool;
+import com.coursemanagement.util.DatabaseConnection;
+import com.coursemanagement.util.LatencyHistogram;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Metrics Servlet exposing connection pool instrumentation.
+ *
+ * /admin/metrics returns JSON for signed-in admins (add ?format=prometheus
+ * for the text exposition format). /metrics serves the Prometheus format to
+ * scrapers presenting "Authorization: Bearer &lt;METRICS_TOKEN&gt;" and is
+ * disabled when no token is configured.
+ */
+public class MetricsServlet extends HttpServlet {
+
+    private static final String PREFIX = "coursemgmt_pool_";
+    private static final int MAX_LISTED_LEASES = 20;
+
+    private final Gson gson = new Gson();
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        boolean scrape = "/metrics".equals(request.getServletPath());
+        if (scrape && !hasScrapeToken(request)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader("Cache-Control", "no-store");
+        ConnectionPool pool = ConnectionPool.getExistingInstance();
+
+        if (scrape || "prometheus".equals(request.getParameter("format"))) {
+            response.setContentType("text/plain; version=0.0.4");
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write(pool != null ? toPrometheus(pool) : "");
+        } else {
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("pool", pool != null ? toJson(pool) : null);
+            gson.toJson(body, response.getWriter());
+        }
+    }
+
+    /**
+     * Checks the bearer token against METRICS_TOKEN in constant time
+     */
+    private boolean hasScrapeToken(HttpServletRequest request) {
+        String expected = DatabaseConnection.getSetting("METRICS_TOKEN", "");
+        String header = request.getHeader("Authorization");
+        if (expected.isEmpty() || header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                                     header.substring(7).trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<String, Object> toJson(ConnectionPool pool) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("minSize", pool.getMinSize());
+        json.put("maxSize", pool.getMaxSize());
+        json.put("targetSize", pool.getTargetSize());
+        json.put("adaptive", pool.isAdaptive());
+        json.put("maxConnections", pool.getMaxConnections());
+        json.put("open", pool.getOpenCount());
+        json.put("active", pool.getActiveCount());
+        json.put("idle", pool.getIdleCount());
+        json.put("waiting", pool.getWaitingCount());
+        json.put("borrows", pool.getBorrowCount());
+        json.put("borrowTimeouts", pool.getBorrowTimeoutCount());
+        json.put("connectionsCreated", pool.getCreatedCount());
+        json.put("connectionsClosed", pool.getClosedCount());
+        json.put("overflowCreated", pool.getOverflowCreatedCount());
+        json.put("replacementsCreated", pool.getReplacementCount());
+        json.put("validationFailures", pool.getValidationFailureCount());
+        json.put("connectionsRetired", pool.getRetiredCount());
+        json.put("leaksDetected", pool.getLeakCount());
+        json.put("leaksReclaimed", pool.getReclaimedCount());
+        long statementHits = pool.getStatementCacheHits();
+        long statementLookups = statementHits + pool.getStatementCacheMisses();
+        Map<String, Object> statementCache = new LinkedHashMap<>();
+        statementCache.put("hits", statementHits);
+        statementCache.put("misses", pool.getStatementCacheMisses());
+        statementCache.put("evictions", pool.getStatementCacheEvictions());
+        statementCache.put("hitRate", statementLookups == 0 ? 0.0 : round((double) statementHits / statementLookups));
+        json.put("statementCache", statementCache);
+        json.put("borrowWait", toJson(pool.getBorrowWaitHistogram()));
+        json.put("leaseDuration", toJson(pool.getLeaseDurationHistogram()));
+
+        List<Map<String, Object>> leases = new ArrayList<>();
+        for (ConnectionPool.Lease lease : pool.getLeases()) {
+            if (leases.size() >= MAX_LISTED_LEASES) {
+                break;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("caller", lease.getCaller());
+            entry.put("thread", lease.getThreadName());
+            entry.put("heldMillis", lease.getHeldMillis());
+            entry.put("overflow", lease.isOverflow());
+            leases.add(entry);
+        }
+        json.put("oldestLeases", leases);
+        return json;
+    }
+
+    private Map<String, Object> toJson(LatencyHistogram histogram) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("count", histogram.getCount());
+        json.put("meanMillis", round(histogram.getMeanMillis()));
+        json.put("p50Millis", round(histogram.getPercentile(50)));
+        json.put("p95Millis", round(histogram.getPercentile(95)));
+        json.put("p99Millis", round(histogram.getPercentile(99)));
+        json.put("maxMillis", round(histogram.getMaxMillis()));
+
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        double[] bounds = LatencyHistogram.getBucketBounds();
+        long[] counts = histogram.getBucketCounts();
+        for (int i = 0; i < counts.length; i++) {
+            buckets.put(i < bounds.length ? "le" + formatBound(bounds[i]) + "ms" : "over", counts[i]);
+        }
+        json.put("buckets", buckets);
+        return json;
+    }
+
+    private String toPrometheus(ConnectionPool pool) {
+        StringBuilder out = new StringBuilder();
+        gauge(out, "open_connections", "Physical connections currently open", pool.getOpenCount());
+        gauge(out, "active_connections", "Connections currently leased", pool.getActiveCount());
+        gauge(out, "idle_connections", "Connections idle in the pool", pool.getIdleCount());
+        gauge(out, "waiting_threads", "Threads waiting for a connection", pool.getWaitingCount());
+        gauge(out, "target_size", "Connections the pool grows to without waiting", pool.getTargetSize());
+        gauge(out, "max_connections", "Maximum pool size plus overflow cap", pool.getMaxConnections());
+        counter(out, "borrows_total", "Connections handed out", pool.getBorrowCount());
+        counter(out, "borrow_timeouts_total", "Borrows that failed for lack of a connection", pool.getBorrowTimeoutCount());
+        counter(out, "connections_created_total", "Physical connections opened", pool.getCreatedCount());
+        counter(out, "connections_closed_total", "Physical connections closed", pool.getClosedCount());
+        counter(out, "overflow_created_total", "Connections opened beyond the pool size", pool.getOverflowCreatedCount());
+        counter(out, "replacements_created_total", "Connections opened in place of retired or broken ones", pool.getReplacementCount());
+        counter(out, "validation_failures_total", "Connections that failed validation", pool.getValidationFailureCount());
+        counter(out, "connections_retired_total", "Connections closed for reaching max lifetime", pool.getRetiredCount());
+        counter(out, "leaks_detected_total", "Leases held past the leak threshold", pool.getLeakCount());
+        counter(out, "leaks_reclaimed_total", "Leaked connections taken back", pool.getReclaimedCount());
+        counter(out, "statement_cache_hits_total", "Prepared statements reused from the cache", pool.getStatementCacheHits());
+        counter(out, "statement_cache_misses_total", "Prepared statements created on a cache miss", pool.getStatementCacheMisses());
+        counter(out, "statement_cache_evictions_total", "Cached statements closed to make room", pool.getStatementCacheEvictions());
+        histogram(out, "borrow_wait_seconds", "Time to obtain a connection", pool.getBorrowWaitHistogram());
+        histogram(out, "lease_duration_seconds", "Time a connection is held", pool.getLeaseDurationHistogram());
+        return out.toString();
+    }
+
+    private void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "gauge");
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "counter");
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private void histogram(StringBuilder out, String name, String help, LatencyHistogram histogram) {
+        header(out, name, help, "histogram");
+        double[] bounds = LatencyHistogram.getBucketBounds();
+        long[] counts = histogram.getBucketCounts();
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            String le = i < bounds.length ? formatBound(bounds[i] / 1000) : "+Inf";
+            out.append(PREFIX).append(name).append("_bucket{le=\"").append(le).append("\"} ")
+               .append(cumulative).append('\n');
+        }
+        out.append(PREFIX).append(name).append("_sum ")
+           .append(String.format(Locale.ROOT, "%.6f", histogram.getSumMillis() / 1000)).append('\n');
+        out.append(PREFIX).append(name).append("_count ").append(cumulative).append('\n');
+    }
+
+    private void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String formatBound(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
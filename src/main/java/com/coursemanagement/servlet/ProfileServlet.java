@@ -2,6 +2,7 @@ package com.coursemanagement.servlet;
 
 import com.coursemanagement.dao.UserDAO;
 import com.coursemanagement.model.User;
+import com.coursemanagement.util.PasswordHasher;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -9,6 +10,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Profile Servlet for user profile management.
@@ -89,6 +91,13 @@ public class ProfileServlet extends HttpServlet {
                 doGet(request, response);
             }
             
+        } catch (RejectedExecutionException e) {
+            // Password hashing queue is full - shed the request instead of queueing it
+            System.err.println("Profile update rejected, password hashing queue is full");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "5");
+            request.setAttribute("errorMessage", "The server is busy. Please try again in a few seconds.");
+            doGet(request, response);
         } catch (Exception e) {
             System.err.println("Error in ProfileServlet POST: " + e.getMessage());
             e.printStackTrace();
@@ -129,16 +138,18 @@ public class ProfileServlet extends HttpServlet {
         }
         
         // Verify current password
-        if (!com.coursemanagement.util.PasswordUtil.verifyPassword(currentPassword, currentUser.getPassword())) {
+        PasswordHasher hasher = PasswordHasher.getInstance();
+        if (!hasher.verify(currentPassword, currentUser.getPassword())) {
             request.setAttribute("errorMessage", "Current password is incorrect.");
             doGet(request, response);
             return;
         }
         
         // Change password
-        if (userDAO.changePassword(currentUser.getUserId(), newPassword)) {
+        String hashedPassword = hasher.hash(newPassword);
+        if (hashedPassword != null && userDAO.changePassword(currentUser.getUserId(), hashedPassword)) {
             // Update the user object in session
-            currentUser.setPassword(com.coursemanagement.util.PasswordUtil.hashPassword(newPassword));
+            currentUser.setPassword(hashedPassword);
             request.setAttribute("successMessage", "Password changed successfully!");
         } else {
             request.setAttribute("errorMessage", "Failed to change password. Please try again.");
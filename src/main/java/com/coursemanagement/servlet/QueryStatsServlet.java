@@ -0,0 +1,90 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.util.LatencyHistogram;
+import com.coursemanagement.util.QueryProfiler;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query Stats Servlet listing the most expensive SQL statements.
+ *
+ * GET /admin/query-stats returns the top statements as JSON, ordered by
+ * total time unless ?order=mean|p95|count|errors is given; ?limit= sets how
+ * many (default 20). POST with action=reset clears the collected profile.
+ */
+public class QueryStatsServlet extends HttpServlet {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 200;
+
+    private final Gson gson = new Gson();
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        QueryProfiler profiler = QueryProfiler.getInstance();
+        int limit = parseLimit(request.getParameter("limit"));
+        String order = request.getParameter("order") != null ? request.getParameter("order") : "total";
+
+        List<Map<String, Object>> statements = new ArrayList<>();
+        for (QueryProfiler.StatementStats stats : profiler.getTopStatements(limit, order)) {
+            LatencyHistogram latency = stats.getLatency();
+            long executions = stats.getExecutions();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("sql", stats.getSql());
+            entry.put("executions", executions);
+            entry.put("totalMillis", round(latency.getSumMillis()));
+            entry.put("meanMillis", round(latency.getMeanMillis()));
+            entry.put("p50Millis", round(latency.getPercentile(50)));
+            entry.put("p95Millis", round(latency.getPercentile(95)));
+            entry.put("p99Millis", round(latency.getPercentile(99)));
+            entry.put("maxMillis", round(latency.getMaxMillis()));
+            entry.put("rows", stats.getRows());
+            entry.put("rowsPerExecution", executions == 0 ? 0.0 : round((double) stats.getRows() / executions));
+            entry.put("errors", stats.getErrors());
+            entry.put("slow", stats.getSlowCount());
+            statements.add(entry);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", profiler.isEnabled());
+        body.put("slowQueries", profiler.getSlowQueryCount());
+        body.put("order", order);
+        body.put("statements", statements);
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        gson.toJson(body, response.getWriter());
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if (!"reset".equals(request.getParameter("action"))) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid action specified.");
+            return;
+        }
+        QueryProfiler.getInstance().reset();
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    private int parseLimit(String value) {
+        try {
+            return value != null ? Math.max(1, Math.min(MAX_LIMIT, Integer.parseInt(value))) : DEFAULT_LIMIT;
+        } catch (NumberFormatException e) {
+            return DEFAULT_LIMIT;
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
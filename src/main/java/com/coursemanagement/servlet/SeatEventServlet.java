@@ -0,0 +1,320 @@
+package com.coursemanagement.servlet;
+
+import com.coursemanagement.dao.CourseDAO;
+import com.coursemanagement.dao.DataVersion;
+import com.coursemanagement.model.Course;
+import com.coursemanagement.util.DatabaseConnection;
+import com.coursemanagement.util.JsonProjection;
+import com.google.gson.stream.JsonWriter;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seat Event Servlet pushing seat availability to the registration page
+ * as Server-Sent Events.
+ *
+ * Each subscriber is an async request holding no thread while idle. Seat
+ * changes committed through EnrollmentDAO and CourseDAO are collected in
+ * DataVersion; a scheduler thread drains them every SEAT_EVENTS_TICK_MILLIS,
+ * so any number of changes to a course within one tick become one update.
+ * The update is serialized once and the same bytes are queued to every
+ * subscriber. Writes are non-blocking: a slow client only grows its own
+ * queue, and one that falls too far behind is disconnected and lets the
+ * browser reconnect.
+ *
+ * New subscribers first receive the seats of all courses; they are joined
+ * on the scheduler thread so that no update can be missed or arrive out of
+ * order. Idle connections get a comment every SEAT_EVENTS_HEARTBEAT_SECONDS
+ * to keep proxies from closing them.
+ *
+ * @author Course Management System
+ * @version 1.0
+ */
+public class SeatEventServlet extends HttpServlet {
+
+    private static final int DEFAULT_TICK_MILLIS = 1000;
+    private static final int DEFAULT_HEARTBEAT_SECONDS = 20;
+    private static final int DEFAULT_TIMEOUT_SECONDS = 1800;
+    private static final int DEFAULT_MAX_SUBSCRIBERS = 5000;
+
+    /** Undelivered events after which a subscriber is dropped */
+    private static final int MAX_QUEUED = 32;
+
+    /** Client reconnect delay, sent once per connection */
+    private static final byte[] RETRY = "retry: 5000\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEARTBEAT = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final JsonProjection<Course> SEAT_FIELDS = new JsonProjection<Course>()
+        .number("courseId", Course::getCourseId)
+        .number("enrolledStudents", Course::getEnrolledStudents)
+        .number("maxStudents", Course::getMaxStudents)
+        .number("availableSeats", c -> Math.max(0, c.getAvailableSlots()));
+
+    private CourseDAO courseDAO;
+    private ScheduledExecutorService scheduler;
+    private long heartbeatMillis;
+    private long timeoutMillis;
+    private int maxSubscribers;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Queue<Subscriber> joining = new ConcurrentLinkedQueue<>();
+    private long lastSent = System.currentTimeMillis();
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * One open event stream and the events not yet written to it
+     */
+    private final class Subscriber implements WriteListener, AsyncListener {
+        private final AsyncContext context;
+        private final ServletOutputStream out;
+        private final ArrayDeque<byte[]> queue = new ArrayDeque<>();
+        private boolean closed;
+
+        Subscriber(AsyncContext context, ServletOutputStream out) {
+            this.context = context;
+            this.out = out;
+        }
+
+        /**
+         * Queues an event and writes as much as the connection accepts
+         */
+        synchronized void send(byte[] event) {
+            if (closed) {
+                return;
+            }
+            if (queue.size() >= MAX_QUEUED) {
+                dropped.incrementAndGet();
+                close();
+                return;
+            }
+            queue.add(event);
+            drain();
+        }
+
+        @Override
+        public synchronized void onWritePossible() {
+            drain();
+        }
+
+        private void drain() {
+            try {
+                while (!closed && out.isReady()) {
+                    byte[] next = queue.poll();
+                    if (next == null) {
+                        out.flush();
+                        return;
+                    }
+                    out.write(next);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            close();
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            subscribers.remove(this);
+            try {
+                context.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            synchronized (this) {
+                closed = true;
+            }
+            subscribers.remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        courseDAO = new CourseDAO();
+
+        int tickMillis = DatabaseConnection.getIntSetting("SEAT_EVENTS_TICK_MILLIS", DEFAULT_TICK_MILLIS);
+        heartbeatMillis = TimeUnit.SECONDS.toMillis(
+            DatabaseConnection.getIntSetting("SEAT_EVENTS_HEARTBEAT_SECONDS", DEFAULT_HEARTBEAT_SECONDS));
+        timeoutMillis = TimeUnit.SECONDS.toMillis(
+            DatabaseConnection.getIntSetting("SEAT_EVENTS_TIMEOUT_SECONDS", DEFAULT_TIMEOUT_SECONDS));
+        maxSubscribers = DatabaseConnection.getIntSetting("SEAT_EVENTS_MAX_SUBSCRIBERS", DEFAULT_MAX_SUBSCRIBERS);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-events");
+            t.setDaemon(true);
+            return t;
+        });
+        long tick = Math.max(100, tickMillis);
+        scheduler.scheduleWithFixedDelay(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Handles GET requests - opens an event stream
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        if (subscribers.size() + joining.size() >= maxSubscribers) {
+            response.setHeader("Retry-After", "30");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many live connections");
+            return;
+        }
+
+        response.setContentType("text/event-stream;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-cache, no-store");
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext context = request.startAsync();
+        context.setTimeout(timeoutMillis);
+
+        Subscriber subscriber = new Subscriber(context, response.getOutputStream());
+        context.addListener(subscriber);
+        subscriber.out.setWriteListener(subscriber);
+        joining.add(subscriber);
+    }
+
+    /**
+     * Runs on the scheduler thread: joins new subscribers, then broadcasts
+     * the seats changed since the previous tick
+     */
+    private void tick() {
+        try {
+            Set<Integer> changed = DataVersion.drainSeatChanges();
+
+            if (!joining.isEmpty()) {
+                byte[] all = seatsEvent(courseDAO.getAllCourses());
+                Subscriber subscriber;
+                while ((subscriber = joining.poll()) != null) {
+                    subscribers.add(subscriber);
+                    subscriber.send(RETRY);
+                    subscriber.send(all);
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            if (!changed.isEmpty()) {
+                List<Course> courses = new ArrayList<>(changed.size());
+                for (int courseId : changed) {
+                    Course course = courseDAO.findById(courseId);
+                    if (course != null) {
+                        courses.add(course);
+                    }
+                }
+                if (!courses.isEmpty()) {
+                    broadcast(seatsEvent(courses));
+                    updates.incrementAndGet();
+                    lastSent = now;
+                }
+            } else if (now - lastSent >= heartbeatMillis) {
+                broadcast(HEARTBEAT);
+                lastSent = now;
+            }
+        } catch (RuntimeException e) {
+            // Keep the scheduled task alive
+            System.err.println("Error publishing seat updates: " + e.getMessage());
+        }
+    }
+
+    private void broadcast(byte[] event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.send(event);
+        }
+    }
+
+    /**
+     * Serializes one "seats" event carrying the counters of the given courses
+     */
+    private static byte[] seatsEvent(Collection<Course> courses) {
+        StringWriter json = new StringWriter();
+        try (JsonWriter out = new JsonWriter(json)) {
+            Set<String> fields = SEAT_FIELDS.select(null);
+            out.beginArray();
+            for (Course course : courses) {
+                SEAT_FIELDS.write(out, course, fields);
+            }
+            out.endArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a StringWriter failed", e);
+        }
+        return ("event: seats\ndata: " + json + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets live connection statistics
+     */
+    public String getEventStats() {
+        return String.format("SeatEvents[subscribers=%d, updates=%d, dropped=%d]",
+                           subscribers.size(), updates.get(), dropped.get());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        Subscriber subscriber;
+        while ((subscriber = joining.poll()) != null) {
+            subscriber.close();
+        }
+        System.out.println(getEventStats());
+        super.destroy();
+    }
+
+    @Override
+    public String getServletInfo() {
+        return "Live seat availability events for Course Management System";
+    }
+}
@@ -50,7 +50,8 @@ public class SecurityHeadersFilter implements Filter {
         // Strict-Transport-Security - Enforces HTTPS (only add if using HTTPS)
         // httpResponse.setHeader("Strict-Transport-Security", "max-age=31536000; includeSubDomains");
         
-        // Cache control for sensitive pages
+        // Cache control for sensitive pages; servlets using ConditionalGet
+        // relax this to "private, no-cache" with an ETag
         String requestURI = ((javax.servlet.http.HttpServletRequest) request).getRequestURI();
         if (requestURI.contains("/admin/") || requestURI.contains("/student/") || requestURI.contains("/teacher/")) {
             httpResponse.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
@@ -51,6 +51,11 @@ public class TeacherDashboardServlet extends HttpServlet {
             return;
         }
         
+        // Answer revalidations from the data versions before running any query
+        if (ConditionalGet.isNotModified(request, response, currentUser.getUserId())) {
+            return;
+        }
+        
         try {
             // Get teacher's assigned courses
             List<Course> assignedCourses = courseDAO.getCoursesByTeacher(currentUser.getUserId());
@@ -65,6 +70,7 @@ public class TeacherDashboardServlet extends HttpServlet {
         } catch (Exception e) {
             System.err.println("Error in TeacherDashboardServlet: " + e.getMessage());
             e.printStackTrace();
+            ConditionalGet.noStore(response);
             request.setAttribute("errorMessage", "An error occurred while loading the dashboard. Please try again.");
             request.getRequestDispatcher("/error.jsp").forward(request, response);
         }
@@ -1,7 +1,9 @@
 package com.coursemanagement.servlet;
 
+import com.coursemanagement.dao.KeysetPage;
 import com.coursemanagement.dao.UserDAO;
 import com.coursemanagement.model.User;
+import com.coursemanagement.util.PasswordHasher;
 import com.coursemanagement.util.PasswordUtil;
 
 import javax.servlet.ServletException;
@@ -10,19 +12,26 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.net.URLEncoder;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * User Management Servlet for admin operations.
  * 
  * This servlet handles user management operations including viewing all users,
- * creating new users, and managing user accounts.
+ * creating new users, and managing user accounts. The listing is searched, sorted
+ * and keyset-paginated in the database (role, q, sort, dir, size, after/before).
  * 
  * @author CSE-446 Web Engineering Lab Group
  * @version 1.0
  */
 public class UserManagementServlet extends HttpServlet {
     
+    private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 100;
+    
     private UserDAO userDAO;
     
     @Override
@@ -51,24 +60,47 @@ public class UserManagementServlet extends HttpServlet {
             return;
         }
         
+        // Show messages a redirect left in the session (e.g. from bulk import)
+        for (String key : new String[] {"successMessage", "errorMessage", "importJobId"}) {
+            Object message = request.getSession().getAttribute(key);
+            if (message != null) {
+                request.getSession().removeAttribute(key);
+                if (request.getAttribute(key) == null) {
+                    request.setAttribute(key, message);
+                }
+            }
+        }
+        
         try {
-            // Get all users
-            List<User> allUsers = userDAO.getAllUsers();
+            User.UserType role = parseRole(request.getParameter("role"));
+            String search = request.getParameter("q") != null ? request.getParameter("q").trim() : "";
+            UserDAO.SortField sort = parseSort(request.getParameter("sort"));
+            boolean descending = "desc".equals(request.getParameter("dir"));
+            int pageSize = parsePageSize(request.getParameter("size"));
             
-            // Separate users by type
-            List<User> students = userDAO.findByUserType(User.UserType.STUDENT);
-            List<User> teachers = userDAO.findByUserType(User.UserType.TEACHER);
-            List<User> admins = userDAO.findByUserType(User.UserType.ADMIN);
+            // Only the visible slice is read, without password hashes
+            KeysetPage<User> userPage = userDAO.getUserPage(role, search, sort, descending,
+                request.getParameter("after"), request.getParameter("before"), pageSize);
+            Map<User.UserType, Long> typeCounts = userDAO.getUserTypeCounts(search);
+            long totalUsers = 0;
+            for (long count : typeCounts.values()) {
+                totalUsers += count;
+            }
             
             // Set attributes for JSP
-            request.setAttribute("allUsers", allUsers);
-            request.setAttribute("students", students);
-            request.setAttribute("teachers", teachers);
-            request.setAttribute("admins", admins);
-            request.setAttribute("totalUsers", allUsers.size());
-            request.setAttribute("totalStudents", students.size());
-            request.setAttribute("totalTeachers", teachers.size());
-            request.setAttribute("totalAdmins", admins.size());
+            request.setAttribute("userPage", userPage);
+            request.setAttribute("allUsers", userPage.getItems());
+            request.setAttribute("role", role);
+            request.setAttribute("search", search);
+            request.setAttribute("sort", sort);
+            request.setAttribute("descending", descending);
+            request.setAttribute("pageSize", pageSize);
+            request.setAttribute("filterQuery", buildFilterQuery(role, search, pageSize));
+            request.setAttribute("totalUsers", totalUsers);
+            request.setAttribute("matchingUsers", role != null ? typeCounts.get(role) : totalUsers);
+            request.setAttribute("totalStudents", typeCounts.get(User.UserType.STUDENT));
+            request.setAttribute("totalTeachers", typeCounts.get(User.UserType.TEACHER));
+            request.setAttribute("totalAdmins", typeCounts.get(User.UserType.ADMIN));
             
             // Forward to user management JSP
             request.getRequestDispatcher("/admin/users.jsp").forward(request, response);
@@ -116,6 +148,13 @@ public class UserManagementServlet extends HttpServlet {
                 doGet(request, response);
             }
             
+        } catch (RejectedExecutionException e) {
+            // Password hashing queue is full - shed the request instead of queueing it
+            System.err.println("User management request rejected, password hashing queue is full");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "5");
+            request.setAttribute("errorMessage", "The server is busy. Please try again in a few seconds.");
+            doGet(request, response);
         } catch (Exception e) {
             System.err.println("Error in UserManagementServlet POST: " + e.getMessage());
             e.printStackTrace();
@@ -166,7 +205,13 @@ public class UserManagementServlet extends HttpServlet {
             return;
         }
 
-        newUser.setPassword(PasswordUtil.hashPassword(trimmedPassword));
+        String hashedPassword = PasswordHasher.getInstance().hash(trimmedPassword);
+        if (hashedPassword == null) {
+            request.setAttribute("errorMessage", "Failed to create user. Please try again.");
+            doGet(request, response);
+            return;
+        }
+        newUser.setPassword(hashedPassword);
         newUser.setFullName(fullName.trim());
         newUser.setEmail(email.trim());
         newUser.setUserType(User.UserType.valueOf(userType.toUpperCase()));
@@ -371,6 +416,46 @@ public class UserManagementServlet extends HttpServlet {
         doGet(request, response);
     }
     
+    private User.UserType parseRole(String value) {
+        try {
+            return value != null && !value.isEmpty() ? User.UserType.valueOf(value) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private UserDAO.SortField parseSort(String value) {
+        try {
+            return value != null && !value.isEmpty() ? UserDAO.SortField.valueOf(value.toUpperCase()) : UserDAO.SortField.NAME;
+        } catch (IllegalArgumentException e) {
+            return UserDAO.SortField.NAME;
+        }
+    }
+    
+    private int parsePageSize(String value) {
+        try {
+            int size = Integer.parseInt(value);
+            return size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+    
+    /**
+     * Builds the query string that keeps the role, search and page size on
+     * sorting and paging links
+     */
+    private String buildFilterQuery(User.UserType role, String search, int pageSize) throws IOException {
+        StringBuilder query = new StringBuilder("size=").append(pageSize);
+        if (role != null) {
+            query.append("&role=").append(role.name());
+        }
+        if (!search.isEmpty()) {
+            query.append("&q=").append(URLEncoder.encode(search, "UTF-8"));
+        }
+        return query.toString();
+    }
+    
     @Override
     public String getServletInfo() {
         return "User Management Servlet for Course Management System";
@@ -0,0 +1,152 @@
+package com.coursemanagement.util;
+
+/**
+ * Conservative minifier for the application's own CSS and JavaScript.
+ *
+ * CSS loses its comments, whitespace runs collapse to one space, and the
+ * space around braces, semicolons and commas and after colons is dropped;
+ * quoted strings are copied untouched. JavaScript is only trimmed line by line: indentation,
+ * blank lines, whole-line // comments and comment blocks starting a line are
+ * removed, while line breaks are kept so automatic semicolon insertion still
+ * sees the same program. Neither pass renames or reorders anything.
+ */
+public final class AssetMinifier {
+
+    private AssetMinifier() {
+    }
+
+    /**
+     * Minifies a style sheet
+     *
+     * @param css The style sheet source
+     * @return The minified style sheet
+     */
+    public static String minifyCss(String css) {
+        StringBuilder out = new StringBuilder(css.length());
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < css.length()) {
+            char c = css.charAt(i);
+
+            if (c == '/' && i + 1 < css.length() && css.charAt(i + 1) == '*') {
+                int end = css.indexOf("*/", i + 2);
+                i = end < 0 ? css.length() : end + 2;
+                pendingSpace = true; // a comment still separates tokens
+                continue;
+            }
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+
+            if (c == '{' || c == '}' || c == ';' || c == ',') {
+                // A semicolon before a closing brace is redundant
+                if (c == '}' && out.length() > 0 && out.charAt(out.length() - 1) == ';') {
+                    out.setLength(out.length() - 1);
+                }
+                out.append(c);
+                pendingSpace = false;
+                i++;
+                continue;
+            }
+
+            // Space after a colon is never significant; space before one is
+            // (".a :hover" differs from ".a:hover") and is kept
+            char last = out.length() > 0 ? out.charAt(out.length() - 1) : '{';
+            if (pendingSpace && !isCssSeparator(last) && last != ':') {
+                out.append(' ');
+            }
+            pendingSpace = false;
+
+            if (c == '"' || c == '\'') {
+                int end = skipString(css, i);
+                out.append(css, i, end);
+                i = end;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Minifies a script without changing its line structure
+     *
+     * @param js The script source
+     * @return The minified script
+     */
+    public static String minifyJs(String js) {
+        StringBuilder out = new StringBuilder(js.length());
+        boolean inComment = false;
+        boolean inTemplate = false;
+        for (String line : js.split("\r?\n", -1)) {
+            if (inTemplate) {
+                // Inside a multi-line template literal every character counts
+                out.append(line).append('\n');
+                inTemplate = countBackticks(line) % 2 == 0;
+                continue;
+            }
+
+            String trimmed = line.trim();
+            if (inComment) {
+                int end = trimmed.indexOf("*/");
+                if (end < 0) {
+                    continue;
+                }
+                inComment = false;
+                trimmed = trimmed.substring(end + 2).trim();
+            }
+            if (trimmed.startsWith("/*")) {
+                int end = trimmed.indexOf("*/", 2);
+                if (end < 0) {
+                    inComment = true;
+                    continue;
+                }
+                trimmed = trimmed.substring(end + 2).trim();
+            }
+            if (trimmed.isEmpty() || trimmed.startsWith("//")) {
+                continue;
+            }
+
+            out.append(trimmed).append('\n');
+            inTemplate = countBackticks(trimmed) % 2 == 1;
+        }
+        return out.toString();
+    }
+
+    private static boolean isCssSeparator(char c) {
+        return c == '{' || c == '}' || c == ';' || c == ',';
+    }
+
+    /**
+     * Returns the index just past the string literal starting at start
+     */
+    private static int skipString(String s, int start) {
+        char quote = s.charAt(start);
+        int i = start + 1;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return s.length();
+    }
+
+    private static int countBackticks(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '`') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -3,36 +3,199 @@ package com.coursemanagement.util;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Simple database connection pool.
+ *
+ * Every connection handed out is tracked as a lease (borrow time, thread,
+ * calling class and optionally the full stack) until it is closed. A reaper
+ * logs leases held longer than POOL_LEAK_THRESHOLD_SECONDS and, when
+ * POOL_LEAK_RECLAIM is set, takes the connection back. At most
+ * POOL_MAX_OVERFLOW connections are opened beyond the pool size.
+ *
+ * Validation runs in the background: a housekeeping task pings idle
+ * connections every POOL_VALIDATION_INTERVAL_SECONDS, retires connections
+ * older than POOL_MAX_LIFETIME_MINUTES and tops the pool back up to
+ * POOL_MIN_IDLE. Borrowing only pings a connection that has not been used
+ * or validated within POOL_VALIDATION_WINDOW_SECONDS, and returning a
+ * connection never pings it.
+ *
+ * The pool opens POOL_MIN_SIZE connections up front and grows on demand to
+ * POOL_MAX_SIZE; idle connections unused for POOL_IDLE_TIMEOUT_SECONDS are
+ * closed again down to the minimum. With POOL_ADAPTIVE the growth limit
+ * itself moves: it is raised while the borrow wait p95 over the last
+ * housekeeping interval exceeds POOL_ADAPTIVE_WAIT_P95_MILLIS and lowered
+ * one connection at a time when waits stay well below it.
+ *
+ * Each physical connection keeps an LRU of up to STATEMENT_CACHE_SIZE
+ * prepared statements (0 disables) that survives across leases.
  */
 public class ConnectionPool {
     
-    private static final int DEFAULT_POOL_SIZE = 20;
+    private static final int DEFAULT_MIN_SIZE = 5;
+    private static final int DEFAULT_MAX_SIZE = 20;
+    private static final int DEFAULT_IDLE_TIMEOUT = 600; // seconds
+    private static final int DEFAULT_ADAPTIVE_WAIT_P95 = 50; // milliseconds
+    private static final int DEFAULT_MAX_OVERFLOW = 10;
+    private static final int DEFAULT_LEAK_THRESHOLD = 60; // seconds
     private static final int CONNECTION_TIMEOUT = 10; // seconds
     private static final int VALIDATION_TIMEOUT = 2; // seconds for isValid() check
+    private static final int DEFAULT_VALIDATION_INTERVAL = 30; // seconds
+    private static final int DEFAULT_VALIDATION_WINDOW = 30; // seconds
+    private static final int DEFAULT_MAX_LIFETIME = 30; // minutes
+    private static final int DEFAULT_MIN_IDLE = 5;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    
+    /**
+     * Bookkeeping for a connection that has been borrowed and not yet returned
+     */
+    public static class Lease {
+        private final long borrowedAt = System.currentTimeMillis();
+        private final long borrowedNanos = System.nanoTime();
+        private final String threadName = Thread.currentThread().getName();
+        private final String caller;
+        private final Throwable stack;
+        private final boolean overflow;
+        private volatile boolean reported = false;
+        
+        Lease(String caller, Throwable stack, boolean overflow) {
+            this.caller = caller;
+            this.stack = stack;
+            this.overflow = overflow;
+        }
+        
+        public long getBorrowedAt() { return borrowedAt; }
+        public String getThreadName() { return threadName; }
+        public String getCaller() { return caller; }
+        public boolean isOverflow() { return overflow; }
+        
+        public long getHeldMillis() {
+            return System.currentTimeMillis() - borrowedAt;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("held %d ms by thread %s at %s%s", getHeldMillis(), threadName, caller,
+                               overflow ? " (overflow)" : "");
+        }
+    }
+    
+    /**
+     * Age and last known good use of a physical connection
+     */
+    private static class ConnectionState {
+        private final long createdAt = System.currentTimeMillis();
+        private final long expiresAt;
+        private volatile long lastAliveAt = createdAt;
+        private volatile long lastUsedAt = createdAt;
+        private final StatementCache statements;
+        
+        ConnectionState(long maxLifetimeMillis, int statementCacheSize) {
+            this.statements = statementCacheSize > 0 ? new StatementCache(statementCacheSize) : null;
+            // Up to 10% jitter so connections opened together are not all retired together
+            long jitter = maxLifetimeMillis / 10 > 0 ? ThreadLocalRandom.current().nextLong(maxLifetimeMillis / 10) : 0;
+            this.expiresAt = maxLifetimeMillis > 0 ? createdAt + maxLifetimeMillis - jitter : Long.MAX_VALUE;
+        }
+    }
     
     private final BlockingQueue<Connection> pool;
     private final String dbUrl;
     private final String dbUsername;
     private final String dbPassword;
+    private final int minSize;
+    private final int maxSize;
+    private final int maxOverflow;
+    private final long idleTimeoutMillis;
+    private final boolean adaptive;
+    private final double adaptiveWaitP95;
+    private volatile int targetSize;
+    private long[] lastWaitBuckets;
+    private final long leakThresholdMillis;
+    private final boolean reclaimLeaks;
+    private final boolean captureStacks;
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final Map<PooledConnectionWrapper, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<Connection, ConnectionState> states = new ConcurrentHashMap<>();
+    private final long validationWindowMillis;
+    private final long maxLifetimeMillis;
+    private final int minIdle;
+    private final int statementCacheSize;
+    private final ScheduledExecutorService housekeeper;
+    
+    // Metrics
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LatencyHistogram leaseDuration = new LatencyHistogram();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsClosed = new AtomicLong();
+    private final AtomicLong overflowCreated = new AtomicLong();
+    private final AtomicLong replacementsCreated = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong connectionsRetired = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong leaksReclaimed = new AtomicLong();
     private static ConnectionPool instance;
     
     /**
      * Private constructor for singleton pattern
      */
-    private ConnectionPool(String dbUrl, String dbUsername, String dbPassword, int poolSize) {
+    private ConnectionPool(String dbUrl, String dbUsername, String dbPassword, int minSize, int maxSize) {
         this.dbUrl = dbUrl;
         this.dbUsername = dbUsername;
         this.dbPassword = dbPassword;
-        this.pool = new ArrayBlockingQueue<>(poolSize);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.pool = new ArrayBlockingQueue<>(maxSize);
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(0,
+            DatabaseConnection.getIntSetting("POOL_IDLE_TIMEOUT_SECONDS", DEFAULT_IDLE_TIMEOUT)));
+        this.adaptive = DatabaseConnection.getBooleanSetting("POOL_ADAPTIVE", false);
+        this.adaptiveWaitP95 = Math.max(1, DatabaseConnection.getIntSetting("POOL_ADAPTIVE_WAIT_P95_MILLIS", DEFAULT_ADAPTIVE_WAIT_P95));
+        this.targetSize = adaptive ? minSize : maxSize;
+        this.lastWaitBuckets = borrowWait.getBucketCounts();
+        this.maxOverflow = Math.max(0, DatabaseConnection.getIntSetting("POOL_MAX_OVERFLOW", DEFAULT_MAX_OVERFLOW));
+        int leakThreshold = DatabaseConnection.getIntSetting("POOL_LEAK_THRESHOLD_SECONDS", DEFAULT_LEAK_THRESHOLD);
+        this.leakThresholdMillis = TimeUnit.SECONDS.toMillis(Math.max(0, leakThreshold));
+        this.reclaimLeaks = DatabaseConnection.getBooleanSetting("POOL_LEAK_RECLAIM", false);
+        this.captureStacks = DatabaseConnection.getBooleanSetting("POOL_LEAK_CAPTURE_STACK", false);
+        this.validationWindowMillis = TimeUnit.SECONDS.toMillis(Math.max(0,
+            DatabaseConnection.getIntSetting("POOL_VALIDATION_WINDOW_SECONDS", DEFAULT_VALIDATION_WINDOW)));
+        this.maxLifetimeMillis = TimeUnit.MINUTES.toMillis(Math.max(0,
+            DatabaseConnection.getIntSetting("POOL_MAX_LIFETIME_MINUTES", DEFAULT_MAX_LIFETIME)));
+        this.statementCacheSize = Math.max(0, DatabaseConnection.getIntSetting("STATEMENT_CACHE_SIZE", DEFAULT_STATEMENT_CACHE_SIZE));
+        this.minIdle = Math.min(maxSize, Math.max(0, DatabaseConnection.getIntSetting("POOL_MIN_IDLE", DEFAULT_MIN_IDLE)));
         
         // Initialize pool with connections
-        initializePool(poolSize);
+        initializePool(minSize);
+        
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        int validationInterval = Math.max(1,
+            DatabaseConnection.getIntSetting("POOL_VALIDATION_INTERVAL_SECONDS", DEFAULT_VALIDATION_INTERVAL));
+        housekeeper.scheduleWithFixedDelay(this::maintainIdleConnections, validationInterval, validationInterval, TimeUnit.SECONDS);
+        if (leakThreshold > 0) {
+            long interval = Math.max(1, Math.min(leakThreshold / 2, 30));
+            housekeeper.scheduleWithFixedDelay(this::reapLeases, interval, interval, TimeUnit.SECONDS);
+        }
     }
     
     /**
@@ -40,7 +203,9 @@ public class ConnectionPool {
      */
     public static synchronized ConnectionPool getInstance(String dbUrl, String dbUsername, String dbPassword) {
         if (instance == null) {
-            instance = new ConnectionPool(dbUrl, dbUsername, dbPassword, DEFAULT_POOL_SIZE);
+            int maxSize = Math.max(1, DatabaseConnection.getIntSetting("POOL_MAX_SIZE", DEFAULT_MAX_SIZE));
+            int minSize = Math.max(0, Math.min(maxSize, DatabaseConnection.getIntSetting("POOL_MIN_SIZE", DEFAULT_MIN_SIZE)));
+            instance = new ConnectionPool(dbUrl, dbUsername, dbPassword, minSize, maxSize);
         }
         return instance;
     }
@@ -54,7 +219,7 @@ public class ConnectionPool {
             Class.forName("com.mysql.cj.jdbc.Driver");
             
             // Create initial connections
-            for (int i = 0; i < poolSize; i++) {
+            for (int i = 0; i < poolSize && reserveSlot(maxSize); i++) {
                 Connection conn = createNewConnection();
                 if (conn != null) {
                     pool.offer(conn);
@@ -70,12 +235,34 @@ public class ConnectionPool {
     }
     
     /**
-     * Create a new database connection
+     * Reserves a slot for a new connection if fewer than limit are open.
+     * Reserving before connecting keeps concurrent callers from overshooting
+     * the limit.
+     */
+    private boolean reserveSlot(int limit) {
+        while (true) {
+            int open = openConnections.get();
+            if (open >= limit) {
+                return false;
+            }
+            if (openConnections.compareAndSet(open, open + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Create a new database connection in a slot taken with reserveSlot();
+     * the slot is released again if the connection cannot be opened
      */
     private Connection createNewConnection() {
         try {
-            return DriverManager.getConnection(dbUrl, dbUsername, dbPassword);
+            Connection conn = DriverManager.getConnection(dbUrl, dbUsername, dbPassword);
+            connectionsCreated.incrementAndGet();
+            states.put(conn, new ConnectionState(maxLifetimeMillis, statementCacheSize));
+            return conn;
         } catch (SQLException e) {
+            openConnections.decrementAndGet();
             System.err.println("Failed to create new connection: " + e.getMessage());
             return null;
         }
@@ -85,40 +272,63 @@ public class ConnectionPool {
      * Get a connection from the pool
      */
     public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection conn = borrow();
+        borrowWait.recordSince(start);
+        borrows.incrementAndGet();
+        return conn;
+    }
+    
+    private Connection borrow() throws SQLException {
         try {
-            Connection conn = pool.poll(CONNECTION_TIMEOUT, TimeUnit.SECONDS);
+            Connection conn = pool.poll();
+            if (conn == null && reserveSlot(targetSize)) {
+                // Room to grow: open a connection instead of waiting for one
+                conn = createNewConnection();
+                if (conn != null) {
+                    return lease(conn, false);
+                }
+            }
+            if (conn == null) {
+                waitingThreads.incrementAndGet();
+                try {
+                    conn = pool.poll(CONNECTION_TIMEOUT, TimeUnit.SECONDS);
+                } finally {
+                    waitingThreads.decrementAndGet();
+                }
+            }
             
             if (conn == null) {
-                // Pool exhausted, try to create a new connection
-                System.err.println("Connection pool exhausted, creating new connection");
+                // Pool exhausted, open an overflow connection if the cap allows it
+                if (!reserveSlot(maxSize + maxOverflow)) {
+                    System.err.println("Connection pool exhausted with " + leases.size() +
+                                       " connections leased and overflow cap reached. " + getLeaseReport(5));
+                    borrowTimeouts.incrementAndGet();
+                    throw new SQLException("Connection pool timeout - no connections available");
+                }
+                System.err.println("Connection pool exhausted, creating overflow connection (" +
+                                   leases.size() + " leased). " + getLeaseReport(5));
                 conn = createNewConnection();
                 if (conn == null) {
+                    borrowTimeouts.incrementAndGet();
                     throw new SQLException("Connection pool timeout - no connections available");
                 }
-                return new PooledConnectionWrapper(conn, this);
+                overflowCreated.incrementAndGet();
+                return lease(conn, true);
             }
             
-            // Check if connection is still valid
-            try {
-                if (conn.isClosed() || !conn.isValid(VALIDATION_TIMEOUT)) {
-                    // Connection is invalid, close it properly and create a new one
-                    closeQuietly(conn);
-                    conn = createNewConnection();
-                    if (conn == null) {
-                        throw new SQLException("Failed to create new database connection");
-                    }
-                }
-            } catch (SQLException e) {
-                // Connection check failed, close and create new
-                closeQuietly(conn);
-                conn = createNewConnection();
+            // Check if connection is still valid, unless it was known good very recently
+            if (!isUsable(conn)) {
+                discard(conn);
+                conn = reserveSlot(maxSize + maxOverflow) ? createNewConnection() : null;
                 if (conn == null) {
                     throw new SQLException("Failed to create new database connection");
                 }
+                replacementsCreated.incrementAndGet();
             }
             
             // Return a wrapped connection that will return to pool on close
-            return new PooledConnectionWrapper(conn, this);
+            return lease(conn, false);
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -126,39 +336,263 @@ public class ConnectionPool {
         }
     }
     
+    /**
+     * Checks an idle connection before it is handed out. Only pings the
+     * server when the connection has not proven itself within the window.
+     */
+    private boolean isUsable(Connection conn) {
+        ConnectionState state = states.get(conn);
+        long now = System.currentTimeMillis();
+        try {
+            if (state != null && isExpired(state, now)) {
+                connectionsRetired.incrementAndGet();
+                return false;
+            }
+            if (conn.isClosed() || state == null) {
+                validationFailures.incrementAndGet();
+                return false;
+            }
+            if (now - state.lastAliveAt < validationWindowMillis) {
+                return true;
+            }
+            if (!conn.isValid(VALIDATION_TIMEOUT)) {
+                validationFailures.incrementAndGet();
+                return false;
+            }
+            state.lastAliveAt = now;
+            return true;
+        } catch (SQLException e) {
+            validationFailures.incrementAndGet();
+            return false;
+        }
+    }
+    
+    private boolean isExpired(ConnectionState state, long now) {
+        return now >= state.expiresAt;
+    }
+    
+    /**
+     * Wraps a connection and records the lease
+     */
+    private Connection lease(Connection conn, boolean overflow) {
+        ConnectionState state = states.get(conn);
+        PooledConnectionWrapper wrapper = new PooledConnectionWrapper(conn, this, state != null ? state.statements : null);
+        Throwable stack = captureStacks ? new Throwable("Connection borrowed here") : null;
+        leases.put(wrapper, new Lease(findCaller(), stack, overflow));
+        return wrapper;
+    }
+    
+    /**
+     * Finds the first application frame outside the pooling code
+     */
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> frames
+            .filter(f -> !f.getClassName().startsWith("com.coursemanagement.util.ConnectionPool")
+                      && !f.getClassName().equals(DatabaseConnection.class.getName()))
+            .findFirst()
+            .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+            .orElse("unknown"));
+    }
+    
+    /**
+     * Called by a wrapper when it is closed; ends the lease and returns the connection
+     */
+    void release(PooledConnectionWrapper wrapper, Connection conn) {
+        Lease lease = leases.remove(wrapper);
+        if (lease != null) {
+            leaseDuration.recordSince(lease.borrowedNanos);
+        }
+        if (lease != null && lease.reported) {
+            System.err.println("Connection previously reported as leaked was returned after " +
+                               lease.getHeldMillis() + " ms by " + lease.caller);
+        }
+        returnConnection(conn);
+    }
+    
     /**
      * Return a connection to the pool
      */
     public void returnConnection(Connection conn) {
         if (conn != null) {
             try {
-                // Validate connection before returning to pool
-                if (conn.isClosed()) {
-                    return; // Don't return closed connections
+                // Don't return closed or retired connections; no server round trip here
+                ConnectionState state = states.get(conn);
+                long now = System.currentTimeMillis();
+                if (conn.isClosed() || state == null || isExpired(state, now)) {
+                    discard(conn);
+                    return;
                 }
                 
-                // Quick validation check
-                if (!conn.isValid(1)) {
-                    closeQuietly(conn);
-                    return; // Don't return invalid connections
+                // Reset connection state (getAutoCommit is answered locally)
+                if (!conn.getAutoCommit()) {
+                    conn.setAutoCommit(true);
                 }
-                
-                // Reset connection state
-                conn.setAutoCommit(true);
                 conn.clearWarnings();
+                state.lastAliveAt = now;
+                state.lastUsedAt = now;
                 
                 // Return to pool if there's space
                 if (!pool.offer(conn)) {
-                    // Pool is full, close the connection
-                    closeQuietly(conn);
+                    // Pool is full, close the overflow connection
+                    discard(conn);
                 }
             } catch (SQLException e) {
                 System.err.println("Error returning connection to pool: " + e.getMessage());
-                closeQuietly(conn);
+                discard(conn);
+            }
+        }
+    }
+    
+    /**
+     * Logs leases held past the leak threshold and reclaims them if configured
+     */
+    private void reapLeases() {
+        try {
+            for (Map.Entry<PooledConnectionWrapper, Lease> entry : leases.entrySet()) {
+                Lease lease = entry.getValue();
+                if (lease.getHeldMillis() < leakThresholdMillis) {
+                    continue;
+                }
+                if (!lease.reported) {
+                    lease.reported = true;
+                    leaksDetected.incrementAndGet();
+                    System.err.println("Possible connection leak: connection " + lease);
+                    if (lease.stack != null) {
+                        lease.stack.printStackTrace();
+                    }
+                }
+                if (reclaim(entry.getKey(), lease)) {
+                    leaksReclaimed.incrementAndGet();
+                    leaseDuration.recordSince(lease.borrowedNanos);
+                    System.err.println("Reclaimed leaked connection held by " + lease.caller);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error checking connection leases: " + e.getMessage());
+        }
+    }
+    
+    private boolean reclaim(PooledConnectionWrapper wrapper, Lease lease) {
+        if (!reclaimLeaks || !leases.remove(wrapper, lease)) {
+            return false;
+        }
+        // The holder may still be mid-statement, so the physical connection is
+        // closed rather than handed to someone else
+        Connection conn = wrapper.reclaim();
+        discard(conn);
+        return conn != null;
+    }
+    
+    /**
+     * Validates idle connections, retires old ones and refills to the minimum idle count
+     */
+    private void maintainIdleConnections() {
+        try {
+            if (adaptive) {
+                adjustTargetSize();
+            }
+            
+            int retired = 0;
+            int invalid = 0;
+            int shrunk = 0;
+            for (Connection conn : pool.toArray(new Connection[0])) {
+                // Take the connection out so no borrower can get it while it is checked
+                if (!pool.remove(conn)) {
+                    continue;
+                }
+                ConnectionState state = states.get(conn);
+                long now = System.currentTimeMillis();
+                if (state == null || isExpired(state, now)) {
+                    discard(conn);
+                    connectionsRetired.incrementAndGet();
+                    retired++;
+                } else if (isSurplus(state, now)) {
+                    discard(conn);
+                    shrunk++;
+                } else if (now - state.lastAliveAt >= validationWindowMillis && !isUsable(conn)) {
+                    discard(conn);
+                    invalid++;
+                } else if (!pool.offer(conn)) {
+                    discard(conn);
+                }
+            }
+            
+            int created = 0;
+            while ((pool.size() < minIdle && reserveSlot(targetSize)) || reserveSlot(minSize)) {
+                Connection conn = createNewConnection();
+                if (conn == null) {
+                    break;
+                }
+                if (!pool.offer(conn)) {
+                    discard(conn);
+                    break;
+                }
+                created++;
+            }
+            // Refills stand in for the connections retired or dropped above; the rest is growth
+            replacementsCreated.addAndGet(Math.min(created, retired + invalid));
+            
+            if (retired > 0 || invalid > 0 || shrunk > 0 || created > 0) {
+                System.out.println("Connection pool housekeeping: retired " + retired + ", dropped " + invalid +
+                                   " invalid, closed " + shrunk + " idle, opened " + created + ". " + getPoolStats());
             }
+        } catch (RuntimeException e) {
+            System.err.println("Error maintaining idle connections: " + e.getMessage());
         }
     }
     
+    /**
+     * Whether an idle connection (already taken out of the pool) can be
+     * closed: above the minimum size and idle floor, and either idle too
+     * long or above the adaptive target
+     */
+    private boolean isSurplus(ConnectionState state, long now) {
+        int open = openConnections.get();
+        if (open <= minSize || pool.size() < minIdle) {
+            return false;
+        }
+        return open > targetSize || (idleTimeoutMillis > 0 && now - state.lastUsedAt >= idleTimeoutMillis);
+    }
+    
+    /**
+     * Moves the adaptive growth limit based on borrow waits since the last run
+     */
+    private void adjustTargetSize() {
+        long[] current = borrowWait.getBucketCounts();
+        long[] window = new long[current.length];
+        long borrowed = 0;
+        for (int i = 0; i < current.length; i++) {
+            window[i] = current[i] - lastWaitBuckets[i];
+            borrowed += window[i];
+        }
+        lastWaitBuckets = current;
+        
+        double p95 = LatencyHistogram.percentile(window, 95);
+        int target = targetSize;
+        if ((p95 > adaptiveWaitP95 || waitingThreads.get() > 0) && target < maxSize) {
+            targetSize = Math.min(maxSize, target + Math.max(1, target / 4));
+            System.out.println("Connection pool growing to " + targetSize + " (borrow wait p95 " + p95 + " ms over " +
+                               borrowed + " borrows)");
+        } else if (p95 < adaptiveWaitP95 / 4 && target > minSize && pool.size() > minIdle) {
+            targetSize = target - 1;
+        }
+    }
+    
+    /**
+     * Closes a physical connection and releases its slot
+     */
+    private void discard(Connection conn) {
+        ConnectionState state = conn != null ? states.remove(conn) : null;
+        if (state != null) {
+            openConnections.decrementAndGet();
+            connectionsClosed.incrementAndGet();
+            if (state.statements != null) {
+                state.statements.close();
+            }
+        }
+        closeQuietly(conn);
+    }
+    
     /**
      * Close a connection quietly without throwing exceptions
      */
@@ -176,8 +610,10 @@ public class ConnectionPool {
      * Close all connections and shutdown the pool
      */
     public void shutdown() {
+        housekeeper.shutdownNow();
         Connection conn;
         while ((conn = pool.poll()) != null) {
+            states.remove(conn);
             try {
                 conn.close();
             } catch (SQLException e) {
@@ -191,8 +627,72 @@ public class ConnectionPool {
      * Get current pool statistics
      */
     public String getPoolStats() {
-        return String.format("Connection Pool - Available: %d, Capacity: %d", 
-                           pool.size(), pool.remainingCapacity() + pool.size());
+        return String.format("Connection Pool - Available: %d, Capacity: %d, Leased: %d, Open: %d/%d, " +
+                           "Waiting: %d, Timeouts: %d, Wait: [%s]", 
+                           pool.size(), pool.remainingCapacity() + pool.size(), leases.size(),
+                           openConnections.get(), maxSize + maxOverflow, waitingThreads.get(),
+                           borrowTimeouts.get(), borrowWait.getSummary());
+    }
+    
+    /** Time from calling getConnection() until a connection is handed out */
+    public LatencyHistogram getBorrowWaitHistogram() { return borrowWait; }
+    
+    /** Time from borrowing a connection until it is closed or reclaimed */
+    public LatencyHistogram getLeaseDurationHistogram() { return leaseDuration; }
+    
+    public int getActiveCount() { return leases.size(); }
+    public int getIdleCount() { return pool.size(); }
+    public int getWaitingCount() { return waitingThreads.get(); }
+    public int getOpenCount() { return openConnections.get(); }
+    public int getMinSize() { return minSize; }
+    public int getMaxSize() { return maxSize; }
+    public int getTargetSize() { return targetSize; }
+    public boolean isAdaptive() { return adaptive; }
+    public int getMaxConnections() { return maxSize + maxOverflow; }
+    public long getBorrowCount() { return borrows.get(); }
+    public long getBorrowTimeoutCount() { return borrowTimeouts.get(); }
+    public long getCreatedCount() { return connectionsCreated.get(); }
+    public long getClosedCount() { return connectionsClosed.get(); }
+    public long getOverflowCreatedCount() { return overflowCreated.get(); }
+    public long getReplacementCount() { return replacementsCreated.get(); }
+    public long getValidationFailureCount() { return validationFailures.get(); }
+    public long getRetiredCount() { return connectionsRetired.get(); }
+    public long getLeakCount() { return leaksDetected.get(); }
+    public long getReclaimedCount() { return leaksReclaimed.get(); }
+    public long getStatementCacheHits() { return StatementCache.getHitCount(); }
+    public long getStatementCacheMisses() { return StatementCache.getMissCount(); }
+    public long getStatementCacheEvictions() { return StatementCache.getEvictionCount(); }
+    
+    /**
+     * Gets the outstanding leases, longest held first
+     */
+    public List<Lease> getLeases() {
+        List<Lease> result = new ArrayList<>(leases.values());
+        result.sort(Comparator.comparingLong(Lease::getBorrowedAt));
+        return result;
+    }
+    
+    /**
+     * Describes the longest held leases for log messages
+     *
+     * @param limit Maximum leases to list
+     */
+    public String getLeaseReport(int limit) {
+        List<Lease> current = getLeases();
+        StringBuilder report = new StringBuilder("Oldest leases:");
+        for (int i = 0; i < Math.min(limit, current.size()); i++) {
+            report.append(" [").append(current.get(i)).append(']');
+        }
+        return report.toString();
+    }
+    
+    /**
+     * Gets the pool if it has been created, without creating it
+     *
+     * @return The pool, or null before the first connection was requested
+     */
+    public static synchronized ConnectionPool getExistingInstance() {
+        return instance;
     }
     
     /**
@@ -0,0 +1,113 @@
+package com.coursemanagement.util;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Streams CSV import rows by header name. Commons CSV parses records
+ * lazily, so only the current record is held in memory.
+ */
+class CsvRowReader implements ImportRowReader {
+    
+    private final CSVParser parser;
+    private final Iterator<CSVRecord> records;
+    private final CountingInputStream counter;
+    private final long totalBytes;
+    
+    CsvRowReader(InputStream inputStream) throws IOException {
+        this(inputStream, null, -1);
+    }
+    
+    CsvRowReader(File file) throws IOException {
+        this(null, new CountingInputStream(new FileInputStream(file)), file.length());
+    }
+    
+    private CsvRowReader(InputStream inputStream, CountingInputStream counter, long totalBytes) throws IOException {
+        this.counter = counter;
+        this.totalBytes = totalBytes;
+        if (counter != null) {
+            inputStream = counter;
+        }
+        this.parser = new CSVParser(new InputStreamReader(inputStream, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.withFirstRecordAsHeader().withTrim());
+        this.records = parser.iterator();
+    }
+    
+    @Override
+    public ImportRow next() throws IOException {
+        try {
+            if (!records.hasNext()) {
+                return null;
+            }
+            CSVRecord record = records.next();
+            // Record numbers start at 1 after the header line
+            return new ImportRow((int) record.getRecordNumber() + 1, record.toMap());
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed CSV: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public double getProgress() {
+        if (counter == null || totalBytes <= 0) {
+            return -1;
+        }
+        // Bytes consumed include the reader's read-ahead buffer
+        return Math.min(1.0, (double) counter.getCount() / totalBytes);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+    
+    /**
+     * Counts bytes pulled from the underlying file
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        long getCount() {
+            return count;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
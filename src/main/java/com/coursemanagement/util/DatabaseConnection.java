@@ -23,12 +23,16 @@ public class DatabaseConnection {
     private static String dbUsername;
     private static String dbPassword;
     
+    // Servlet context kept for application settings lookups
+    private static ServletContext servletContext;
+    
     /**
      * Initialize database configuration from servlet context
      * 
      * @param context The servlet context containing database parameters
      */
     public static void initialize(ServletContext context) {
+        servletContext = context;
         loadConfiguration(context);
         
         // Load MySQL JDBC driver
@@ -193,6 +197,43 @@ public class DatabaseConnection {
         return null;
     }
     
+    /**
+     * Reads an application setting using the same precedence as the database
+     * configuration: environment variable, then servlet context parameter,
+     * then the supplied default.
+     * 
+     * @param key The setting name
+     * @param defaultValue Value used when the setting is absent
+     * @return The resolved setting value
+     */
+    public static String getSetting(String key, String defaultValue) {
+        String value = getFirstNonEmptyEnv(key);
+        if (value == null && servletContext != null) {
+            value = servletContext.getInitParameter(key);
+        }
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+    
+    /**
+     * Reads an integer application setting, falling back to the default when
+     * the value is missing or not a number
+     */
+    public static int getIntSetting(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getSetting(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Reads a boolean application setting
+     */
+    public static boolean getBooleanSetting(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getSetting(key, String.valueOf(defaultValue)));
+    }
+    
     /**
      * Gets a connection to the database using connection pooling
      * 
@@ -226,11 +267,15 @@ public class DatabaseConnection {
             createDatabaseIfNotExists(serverConn);
             serverConn.close();
             
-            // Now connect to the specific database and create tables
-            Connection dbConn = getConnection();
-            createTablesIfNotExist(dbConn);
-            insertDefaultData(dbConn);
-            dbConn.close();
+            // Now connect to the specific database and bring the schema up to date
+            String mode = getSetting("SCHEMA_MIGRATION_MODE", "migrate");
+            try (Connection dbConn = getConnection()) {
+                if ("validate".equalsIgnoreCase(mode)) {
+                    SchemaMigrations.validate(dbConn);
+                } else if (!"off".equalsIgnoreCase(mode)) {
+                    SchemaMigrations.migrate(dbConn);
+                }
+            }
             
             System.out.println("Database initialized successfully");
             
@@ -259,107 +304,6 @@ public class DatabaseConnection {
         System.out.println("Database '" + databaseName + "' created or already exists");
     }
     
-    /**
-     * Creates the necessary tables if they don't exist
-     * 
-     * @param connection Database connection
-     * @throws SQLException if table creation fails
-     */
-    private static void createTablesIfNotExist(Connection connection) throws SQLException {
-        Statement stmt = connection.createStatement();
-        
-        // Create users table
-        String createUsersTable = "CREATE TABLE IF NOT EXISTS users (" +
-            "user_id INT PRIMARY KEY AUTO_INCREMENT, " +
-            "username VARCHAR(50) UNIQUE NOT NULL, " +
-            "password VARCHAR(255) NOT NULL, " +
-            "full_name VARCHAR(100) NOT NULL, " +
-            "email VARCHAR(100) UNIQUE NOT NULL, " +
-            "user_type ENUM('STUDENT', 'TEACHER', 'ADMIN') NOT NULL, " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
-            ")";
-        
-        // Create courses table
-        String createCoursesTable = "CREATE TABLE IF NOT EXISTS courses (" +
-            "course_id INT PRIMARY KEY AUTO_INCREMENT, " +
-            "course_code VARCHAR(20) UNIQUE NOT NULL, " +
-            "course_name VARCHAR(100) NOT NULL, " +
-            "description TEXT, " +
-            "credits INT DEFAULT 3, " +
-            "teacher_id INT, " +
-            "max_students INT DEFAULT 50, " +
-            "enrolled_students INT DEFAULT 0, " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
-            "FOREIGN KEY (teacher_id) REFERENCES users(user_id) ON DELETE SET NULL" +
-            ")";
-        
-        // Create enrollments table
-        String createEnrollmentsTable = "CREATE TABLE IF NOT EXISTS enrollments (" +
-            "enrollment_id INT PRIMARY KEY AUTO_INCREMENT, " +
-            "student_id INT NOT NULL, " +
-            "course_id INT NOT NULL, " +
-            "status ENUM('ENROLLED', 'DROPPED', 'COMPLETED', 'PENDING') DEFAULT 'ENROLLED', " +
-            "enrollment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
-            "FOREIGN KEY (student_id) REFERENCES users(user_id) ON DELETE CASCADE, " +
-            "FOREIGN KEY (course_id) REFERENCES courses(course_id) ON DELETE CASCADE, " +
-            "UNIQUE KEY unique_enrollment (student_id, course_id)" +
-            ")";
-        
-        // Execute table creation
-        stmt.executeUpdate(createUsersTable);
-        System.out.println("Users table created or already exists");
-        
-        stmt.executeUpdate(createCoursesTable);
-        System.out.println("Courses table created or already exists");
-        
-        stmt.executeUpdate(createEnrollmentsTable);
-        System.out.println("Enrollments table created or already exists");
-        
-        stmt.close();
-    }
-    
-    /**
-     * Inserts default data for testing purposes
-     * 
-     * @param connection Database connection
-     * @throws SQLException if data insertion fails
-     */
-    private static void insertDefaultData(Connection connection) throws SQLException {
-        Statement stmt = connection.createStatement();
-        
-        // Insert default users (passwords are BCrypt hashed version of "password123")
-        String defaultPasswordHash = PasswordUtil.hashPassword("password123");
-        String insertDefaultUsers = "INSERT IGNORE INTO users (username, password, full_name, email, user_type) VALUES " +
-            "('admin', '" + defaultPasswordHash + "', 'System Administrator', 'admin@coursemanagement.com', 'ADMIN'), " +
-            "('teacher1', '" + defaultPasswordHash + "', 'Dr. John Smith', 'john.smith@university.edu', 'TEACHER'), " +
-            "('teacher2', '" + defaultPasswordHash + "', 'Prof. Sarah Johnson', 'sarah.johnson@university.edu', 'TEACHER'), " +
-            "('student1', '" + defaultPasswordHash + "', 'Alice Cooper', 'alice.cooper@student.edu', 'STUDENT'), " +
-            "('student2', '" + defaultPasswordHash + "', 'Bob Wilson', 'bob.wilson@student.edu', 'STUDENT'), " +
-            "('student3', '" + defaultPasswordHash + "', 'Carol Davis', 'carol.davis@student.edu', 'STUDENT')";
-        
-        // Insert sample courses
-        String insertSampleCourses = "INSERT IGNORE INTO courses (course_code, course_name, description, credits, teacher_id, max_students) VALUES " +
-            "('CSE-446', 'Web Engineering', 'Introduction to web development technologies including HTML, CSS, JavaScript, and server-side programming', 3, 2, 30), " +
-            "('CSE-101', 'Programming Fundamentals', 'Basic programming concepts using Java programming language', 4, 2, 40), " +
-            "('CSE-201', 'Data Structures', 'Implementation and analysis of fundamental data structures and algorithms', 3, 3, 35), " +
-            "('CSE-301', 'Database Systems', 'Design and implementation of database management systems', 3, 3, 25)";
-        
-        stmt.executeUpdate(insertDefaultUsers);
-        System.out.println("Default users inserted");
-
-        String ensureDefaultPasswords = "UPDATE users SET password = '" + defaultPasswordHash + "' " +
-            "WHERE username IN ('admin','teacher1','teacher2','student1','student2','student3')";
-        stmt.executeUpdate(ensureDefaultPasswords);
-        
-        stmt.executeUpdate(insertSampleCourses);
-        System.out.println("Sample courses inserted");
-        
-        stmt.close();
-    }
-    
     /**
      * Tests the database connection
      * 
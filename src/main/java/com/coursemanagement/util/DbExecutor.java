@@ -0,0 +1,196 @@
+package com.coursemanagement.util;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, prioritized executor for request work that talks to the database.
+ *
+ * Requests handled asynchronously by AsyncDbFilter run here instead of on
+ * container threads, so a slow database ties up at most DB_EXECUTOR_THREADS
+ * threads (by default the connection pool size, since more could only wait
+ * for a connection) while the container keeps serving everything else.
+ *
+ * Waiting tasks are ordered by priority, then by arrival. Admission is
+ * capped by DB_QUEUE_LIMIT: high priority work may fill the whole queue,
+ * normal priority three quarters of it and low priority half, so under
+ * load reports are shed first and registrations last. A rejected task
+ * throws RejectedExecutionException immediately.
+ */
+public class DbExecutor {
+
+    private static final int DEFAULT_QUEUE_LIMIT = 100;
+    private static final int DEFAULT_POOL_MAX_SIZE = 20;
+
+    /**
+     * Scheduling priority of a task, highest first
+     */
+    public enum Priority {
+        HIGH(4), NORMAL(3), LOW(2);
+
+        /** Share of the queue limit this priority may fill, in quarters */
+        private final int quarters;
+
+        Priority(int quarters) {
+            this.quarters = quarters;
+        }
+    }
+
+    private static DbExecutor instance;
+
+    /**
+     * A queued task, ordered by priority and then by sequence number
+     */
+    private final class QueuedTask implements Runnable, Comparable<QueuedTask> {
+        final Priority priority;
+        final long sequence;
+        final long queuedAt = System.nanoTime();
+        final Runnable task;
+        final Runnable onDropped;
+
+        QueuedTask(Priority priority, long sequence, Runnable task, Runnable onDropped) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+            this.onDropped = onDropped;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            long startedAt = System.nanoTime();
+            totalQueueNanos.addAndGet(startedAt - queuedAt);
+            try {
+                task.run();
+            } finally {
+                completed.incrementAndGet();
+            }
+        }
+
+        @Override
+        public int compareTo(QueuedTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int queueLimit;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+
+    /**
+     * Private constructor for singleton pattern
+     */
+    private DbExecutor(int threads, int queueLimit) {
+        this.queueLimit = queueLimit;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new PriorityBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "db-worker-" + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        // Idle threads take queued tasks in priority order from the start
+        executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Get singleton instance of the database executor
+     */
+    public static synchronized DbExecutor getInstance() {
+        if (instance == null) {
+            int poolSize = DatabaseConnection.getIntSetting("POOL_MAX_SIZE", DEFAULT_POOL_MAX_SIZE);
+            int threads = DatabaseConnection.getIntSetting("DB_EXECUTOR_THREADS", poolSize);
+            int limit = DatabaseConnection.getIntSetting("DB_QUEUE_LIMIT", DEFAULT_QUEUE_LIMIT);
+            instance = new DbExecutor(Math.max(1, threads), Math.max(1, limit));
+        }
+        return instance;
+    }
+
+    /**
+     * Shuts the executor down as shutdown() does, if it was created, and drops the instance
+     */
+    public static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Queues a task unless its priority's share of the queue is used up
+     *
+     * @param priority The task's priority
+     * @param task The task to run on a database worker thread
+     * @param onDropped Runs instead of the task if the executor is shut down
+     *                  while the task is still queued
+     * @throws RejectedExecutionException if the task is shed
+     */
+    public void execute(Priority priority, Runnable task, Runnable onDropped) {
+        int admitted = Math.max(1, queueLimit * priority.quarters / 4);
+        while (true) {
+            int current = queued.get();
+            if (current >= admitted) {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException("Database queue is full for " + priority + " priority work");
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+
+        try {
+            executor.execute(new QueuedTask(priority, sequence.incrementAndGet(), task, onDropped));
+            submitted.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            // Only after shutdown
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of tasks waiting for a worker thread
+     */
+    public int getQueueSize() {
+        return queued.get();
+    }
+
+    /**
+     * Get current executor statistics
+     */
+    public String getExecutorStats() {
+        long done = completed.get();
+        return String.format("DB Executor - Threads: %d, Active: %d, Queued: %d/%d, Submitted: %d, " +
+                           "Completed: %d, Rejected: %d, Avg wait: %.1f ms",
+                           executor.getCorePoolSize(), executor.getActiveCount(), getQueueSize(), queueLimit,
+                           submitted.get(), done, rejected.get(),
+                           done == 0 ? 0.0 : totalQueueNanos.get() / 1e6 / done);
+    }
+
+    /**
+     * Stops the worker threads; tasks still queued get their onDropped
+     * callback so that nobody waits for them forever
+     */
+    public void shutdown() {
+        for (Runnable dropped : executor.shutdownNow()) {
+            queued.decrementAndGet();
+            try {
+                ((QueuedTask) dropped).onDropped.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error dropping queued task: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.coursemanagement.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and per-row outcome of a bulk import.
+ * Counters are thread-safe so the report can be read while an import runs.
+ */
+public class ImportReport {
+
+    /** Keep at most this many row errors; the failure count stays exact */
+    private static final int MAX_ROW_ERRORS = 1000;
+
+    /**
+     * A row that could not be imported
+     */
+    public static class RowError {
+        private final int rowNumber;
+        private final String message;
+
+        public RowError(int rowNumber, String message) {
+            this.rowNumber = rowNumber;
+            this.message = message;
+        }
+
+        public int getRowNumber() { return rowNumber; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "Row " + rowNumber + ": " + message;
+        }
+    }
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<RowError> errors = Collections.synchronizedList(new ArrayList<>());
+    private final long startedAt = System.currentTimeMillis();
+    private volatile long finishedAt;
+
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    public void rowsInserted(int count) {
+        rowsInserted.addAndGet(count);
+    }
+
+    public void rowFailed(int rowNumber, String message) {
+        rowsFailed.incrementAndGet();
+        if (errors.size() < MAX_ROW_ERRORS) {
+            errors.add(new RowError(rowNumber, message));
+        }
+    }
+
+    public void finish() {
+        finishedAt = System.currentTimeMillis();
+    }
+
+    public long getRowsParsed() { return rowsParsed.get(); }
+    public long getRowsInserted() { return rowsInserted.get(); }
+    public long getRowsFailed() { return rowsFailed.get(); }
+    public long getStartedAt() { return startedAt; }
+    public long getFinishedAt() { return finishedAt; }
+    public boolean isFinished() { return finishedAt > 0; }
+
+    /** Snapshot of the recorded row errors, in row order of discovery */
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    /** Elapsed time in milliseconds, up to now if still running */
+    public long getElapsedMillis() {
+        return (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    /**
+     * Builds a short error message listing the first failed rows
+     *
+     * @param limit Maximum rows to list
+     * @return The message, or null if no row failed
+     */
+    public String getErrorSummary(int limit) {
+        long failed = rowsFailed.get();
+        if (failed == 0) {
+            return null;
+        }
+        List<RowError> recorded = getErrors();
+        StringBuilder summary = new StringBuilder().append(failed).append(failed == 1 ? " row" : " rows")
+                .append(" could not be imported. ");
+        for (int i = 0; i < Math.min(limit, recorded.size()); i++) {
+            summary.append(recorded.get(i)).append("; ");
+        }
+        if (failed > limit) {
+            summary.append("and ").append(failed - limit).append(" more.");
+        }
+        return summary.toString().trim();
+    }
+}
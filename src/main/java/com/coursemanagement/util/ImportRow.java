@@ -0,0 +1,41 @@
+package com.coursemanagement.util;
+
+import java.util.Map;
+
+/**
+ * One data row read from a bulk import file, keyed by column name.
+ */
+public class ImportRow {
+    
+    private final int rowNumber;
+    private final Map<String, String> values;
+    
+    public ImportRow(int rowNumber, Map<String, String> values) {
+        this.rowNumber = rowNumber;
+        this.values = values;
+    }
+    
+    /** Row number as shown in the source file (the header is row 1) */
+    public int getRowNumber() { return rowNumber; }
+    
+    /**
+     * Gets a trimmed cell value
+     * 
+     * @param column The column name
+     * @return The value, or an empty string if the cell is missing
+     */
+    public String get(String column) {
+        String value = values.get(column);
+        return value == null ? "" : value.trim();
+    }
+    
+    /** true if every cell in the row is empty */
+    public boolean isBlank() {
+        for (String value : values.values()) {
+            if (value != null && !value.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
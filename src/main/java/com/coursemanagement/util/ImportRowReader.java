@@ -0,0 +1,75 @@
+package com.coursemanagement.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads bulk import rows one at a time so files never have to be held in
+ * memory as a whole.
+ */
+public interface ImportRowReader extends Closeable {
+    
+    /**
+     * Reads the next data row
+     * 
+     * @return The next row, or null at end of file
+     * @throws IOException if the file cannot be read
+     */
+    ImportRow next() throws IOException;
+    
+    /**
+     * Estimates how far through the file the reader is
+     * 
+     * @return A fraction between 0 and 1, or -1 if unknown
+     */
+    default double getProgress() {
+        return -1;
+    }
+    
+    /**
+     * Opens a reader for an uploaded file based on its extension.
+     * CSV files are read by header name; Excel sheets by position using the
+     * given column names, after skipping the header row.
+     * 
+     * @param inputStream The uploaded file content
+     * @param fileName The submitted file name
+     * @param columns Column names in spreadsheet order
+     * @return A reader positioned before the first data row
+     * @throws IOException if the file type is unsupported or cannot be opened
+     */
+    static ImportRowReader open(InputStream inputStream, String fileName, String... columns) throws IOException {
+        String name = fileName == null ? "" : fileName.toLowerCase();
+        if (name.endsWith(".xlsx")) {
+            return new XlsxRowReader(inputStream, columns);
+        } else if (name.endsWith(".csv")) {
+            return new CsvRowReader(inputStream);
+        }
+        throw unsupported(fileName);
+    }
+    
+    /**
+     * Opens a reader over a file already on disk, which lets the reader
+     * report progress and avoids spooling Excel files a second time.
+     * 
+     * @param file The file to read
+     * @param fileName The submitted file name, used to pick the format
+     * @param columns Column names in spreadsheet order
+     * @return A reader positioned before the first data row
+     * @throws IOException if the file type is unsupported or cannot be opened
+     */
+    static ImportRowReader open(File file, String fileName, String... columns) throws IOException {
+        String name = fileName == null ? "" : fileName.toLowerCase();
+        if (name.endsWith(".xlsx")) {
+            return new XlsxRowReader(file, false, columns);
+        } else if (name.endsWith(".csv")) {
+            return new CsvRowReader(file);
+        }
+        throw unsupported(fileName);
+    }
+    
+    private static IOException unsupported(String fileName) {
+        return new IOException("Unsupported file type '" + fileName + "'. Please upload a .csv or .xlsx file.");
+    }
+}
@@ -0,0 +1,97 @@
+package com.coursemanagement.util;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Named JSON fields of one model type, written straight to a Gson
+ * JsonWriter. Clients may ask for a subset of the fields; objects are
+ * serialized one at a time without building DTOs or a JSON tree.
+ *
+ * @param <T> The model type
+ */
+public class JsonProjection<T> {
+
+    /**
+     * Writes the value of one field
+     */
+    public interface FieldWriter<T> {
+        void write(JsonWriter out, T item) throws IOException;
+    }
+
+    private final Map<String, FieldWriter<T>> fields = new LinkedHashMap<>();
+
+    public JsonProjection<T> field(String name, FieldWriter<T> writer) {
+        fields.put(name, writer);
+        return this;
+    }
+
+    public JsonProjection<T> string(String name, Function<T, String> getter) {
+        return field(name, (out, item) -> out.value(getter.apply(item)));
+    }
+
+    public JsonProjection<T> number(String name, Function<T, Number> getter) {
+        return field(name, (out, item) -> out.value(getter.apply(item)));
+    }
+
+    /**
+     * A timestamp written as an ISO-8601 instant, or null
+     */
+    public JsonProjection<T> timestamp(String name, Function<T, Timestamp> getter) {
+        return field(name, (out, item) -> {
+            Timestamp value = getter.apply(item);
+            out.value(value != null ? value.toInstant().toString() : null);
+        });
+    }
+
+    /**
+     * Parses a comma-separated field list
+     *
+     * @param spec The requested fields, or null or empty for all of them
+     * @return The selected field names in declaration order
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    public Set<String> select(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            return Collections.unmodifiableSet(fields.keySet());
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String name : spec.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!fields.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            requested.add(field);
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.keySet()) {
+            if (requested.contains(field)) {
+                selected.add(field);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Writes one object with the selected fields
+     */
+    public void write(JsonWriter out, T item, Set<String> selected) throws IOException {
+        out.beginObject();
+        for (String name : selected) {
+            out.name(name);
+            fields.get(name).write(out, item);
+        }
+        out.endObject();
+    }
+}
@@ -0,0 +1,127 @@
+package com.coursemanagement.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket latency histogram in milliseconds.
+ * Recording is lock-free so it can sit on hot paths; percentiles are
+ * estimated as the upper bound of the bucket that contains them.
+ */
+public class LatencyHistogram {
+
+    /** Bucket upper bounds in milliseconds; a final overflow bucket catches the rest */
+    private static final double[] BOUNDS = {
+        0.5, 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000
+    };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one observation
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        double millis = nanos / 1e6;
+        int bucket = 0;
+        while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        count.incrementAndGet();
+        sumNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Records the time elapsed since a System.nanoTime() reading
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() { return count.get(); }
+
+    public double getSumMillis() {
+        return sumNanos.get() / 1e6;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    public double getMeanMillis() {
+        long n = count.get();
+        return n == 0 ? 0.0 : sumNanos.get() / 1e6 / n;
+    }
+
+    /**
+     * Estimates a percentile
+     *
+     * @param percentile Value between 0 and 100
+     * @return Upper bound of the bucket holding the percentile in milliseconds,
+     *         the observed maximum for the overflow bucket, or 0 when empty
+     */
+    public double getPercentile(double percentile) {
+        double estimate = percentile(getBucketCounts(), percentile);
+        return Double.isInfinite(estimate) ? getMaxMillis() : Math.min(estimate, getMaxMillis());
+    }
+
+    /**
+     * Estimates a percentile from bucket counts, for example the difference
+     * between two getBucketCounts() snapshots to look at a recent window only
+     *
+     * @param bucketCounts Per-bucket counts as returned by getBucketCounts()
+     * @param percentile Value between 0 and 100
+     * @return Upper bound of the bucket holding the percentile in milliseconds,
+     *         infinity for the overflow bucket, or 0 when there are no counts
+     */
+    public static double percentile(long[] bucketCounts, double percentile) {
+        long total = 0;
+        for (long c : bucketCounts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return i < BOUNDS.length ? BOUNDS[i] : Double.POSITIVE_INFINITY;
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /** Bucket upper bounds in milliseconds, excluding the overflow bucket */
+    public static double[] getBucketBounds() {
+        return BOUNDS.clone();
+    }
+
+    /** Per-bucket (not cumulative) counts; the last entry is the overflow bucket */
+    public long[] getBucketCounts() {
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Short summary for log lines and stats strings
+     */
+    public String getSummary() {
+        return String.format("n=%d mean=%.1fms p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms",
+                             getCount(), getMeanMillis(), getPercentile(50), getPercentile(95),
+                             getPercentile(99), getMaxMillis());
+    }
+}
@@ -0,0 +1,212 @@
+package com.coursemanagement.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dedicated, bounded executor for BCrypt work.
+ *
+ * BCrypt is pure CPU, so hashing runs on its own small thread pool sized to
+ * the machine instead of on request threads holding database connections.
+ * The queue depth is capped (HASHING_QUEUE_DEPTH); when it is full new work
+ * is rejected immediately rather than piling up behind a login surge.
+ *
+ * Bulk imports hash on a second, separate instance (getImportInstance(),
+ * sized by IMPORT_HASHING_THREADS and IMPORT_HASHING_QUEUE_DEPTH) whose
+ * threads run below normal priority, so an intake file shares the CPU with
+ * logins instead of crowding their queue.
+ */
+public class PasswordHasher {
+
+    private static final int DEFAULT_QUEUE_DEPTH = 64;
+    private static final int WAIT_TIMEOUT = 10; // seconds
+
+    private static PasswordHasher instance;
+    private static PasswordHasher importInstance;
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final int queueDepth;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+
+    /**
+     * Private constructor for singleton pattern
+     */
+    private PasswordHasher(String name, String threadPrefix, int threadPriority, int threads, int queueDepth) {
+        this.name = name;
+        this.queueDepth = queueDepth;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueDepth), r -> {
+                Thread t = new Thread(r, threadPrefix + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(threadPriority);
+                return t;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Get singleton instance of the password hasher
+     */
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) {
+            int threads = DatabaseConnection.getIntSetting("HASHING_THREADS",
+                Runtime.getRuntime().availableProcessors());
+            int depth = DatabaseConnection.getIntSetting("HASHING_QUEUE_DEPTH", DEFAULT_QUEUE_DEPTH);
+            instance = new PasswordHasher("Password Hasher", "password-hasher-", Thread.NORM_PRIORITY,
+                Math.max(1, threads), Math.max(1, depth));
+        }
+        return instance;
+    }
+
+    /**
+     * Get the hasher reserved for bulk imports, by default on half the cores
+     */
+    public static synchronized PasswordHasher getImportInstance() {
+        if (importInstance == null) {
+            int threads = DatabaseConnection.getIntSetting("IMPORT_HASHING_THREADS",
+                Runtime.getRuntime().availableProcessors() / 2);
+            int depth = DatabaseConnection.getIntSetting("IMPORT_HASHING_QUEUE_DEPTH", DEFAULT_QUEUE_DEPTH);
+            importInstance = new PasswordHasher("Import Hasher", "import-hasher-", Thread.NORM_PRIORITY - 1,
+                Math.max(1, threads), Math.max(1, depth));
+        }
+        return importInstance;
+    }
+
+    /**
+     * Stops the hashing threads of both hashers, if they were created, and drops the instances
+     */
+    public static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+        if (importInstance != null) {
+            importInstance.shutdown();
+            importInstance = null;
+        }
+    }
+
+    /**
+     * Verifies a password on the hashing executor and waits for the result
+     *
+     * @param plainTextPassword The plain text password to verify
+     * @param hashedPassword The hashed password to verify against
+     * @return true if the passwords match, false otherwise
+     * @throws RejectedExecutionException if the hashing queue is full
+     */
+    public boolean verify(String plainTextPassword, String hashedPassword) {
+        Boolean result = await(submit(() -> PasswordUtil.verifyPassword(plainTextPassword, hashedPassword)));
+        return result != null && result;
+    }
+
+    /**
+     * Hashes a password on the hashing executor and waits for the result
+     *
+     * @param plainTextPassword The plain text password to hash
+     * @return The hashed password
+     * @throws RejectedExecutionException if the hashing queue is full
+     */
+    public String hash(String plainTextPassword) {
+        return await(hashAsync(plainTextPassword));
+    }
+
+    /**
+     * Queues a password hash without waiting for it
+     *
+     * @param plainTextPassword The plain text password to hash
+     * @return Future holding the hashed password
+     * @throws RejectedExecutionException if the hashing queue is full
+     */
+    public Future<String> hashAsync(String plainTextPassword) {
+        return submit(() -> PasswordUtil.hashPassword(plainTextPassword));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            Future<T> future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalQueueNanos.addAndGet(startedAt - queuedAt);
+                try {
+                    return task.call();
+                } finally {
+                    totalHashNanos.addAndGet(System.nanoTime() - startedAt);
+                    completed.incrementAndGet();
+                }
+            });
+            submitted.incrementAndGet();
+            return future;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(WAIT_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            System.err.println("Password hashing timed out");
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /**
+     * Gets the number of tasks waiting for a hashing thread
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Gets the maximum number of tasks that may wait for a hashing thread
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Get current hashing statistics
+     */
+    public String getHasherStats() {
+        long done = completed.get();
+        return String.format("%s - Threads: %d, Active: %d, Queued: %d/%d, Submitted: %d, " +
+                           "Completed: %d, Rejected: %d, Avg wait: %.1f ms, Avg hash: %.1f ms",
+                           name, executor.getCorePoolSize(), executor.getActiveCount(), getQueueSize(), queueDepth,
+                           submitted.get(), done, rejected.get(),
+                           done == 0 ? 0.0 : totalQueueNanos.get() / 1e6 / done,
+                           done == 0 ? 0.0 : totalHashNanos.get() / 1e6 / done);
+    }
+
+    /**
+     * Stops the hashing threads
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
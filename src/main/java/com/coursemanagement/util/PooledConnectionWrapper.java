@@ -7,28 +7,50 @@ import java.util.concurrent.Executor;
 
 /**
  * Wrapper for pooled JDBC connections.
- * Calling close() returns the connection to the pool.
+ * Calling close() returns the connection to the pool. Prepared statements
+ * come from the physical connection's statement cache when it has one, so
+ * the same SQL is not prepared again on every lease.
  */
 public class PooledConnectionWrapper implements Connection {
     
     private final Connection actualConnection;
     private final ConnectionPool pool;
-    private boolean closed = false;
+    private final StatementCache statementCache;
+    private volatile boolean closed = false;
     
     public PooledConnectionWrapper(Connection actualConnection, ConnectionPool pool) {
+        this(actualConnection, pool, null);
+    }
+    
+    PooledConnectionWrapper(Connection actualConnection, ConnectionPool pool, StatementCache statementCache) {
         this.actualConnection = actualConnection;
         this.pool = pool;
+        this.statementCache = statementCache;
     }
     
     /**
      * Override close() to return connection to pool instead of closing it
      */
     @Override
-    public void close() throws SQLException {
+    public synchronized void close() throws SQLException {
         if (!closed) {
             closed = true;
-            pool.returnConnection(actualConnection);
+            pool.release(this, actualConnection);
+        }
+    }
+    
+    /**
+     * Marks the wrapper closed without returning the connection, so the pool
+     * can take back a leaked lease. Later calls by the holder fail.
+     *
+     * @return The underlying connection, or null if the holder already closed it
+     */
+    synchronized Connection reclaim() {
+        if (closed) {
+            return null;
         }
+        closed = true;
+        return actualConnection;
     }
     
     @Override
@@ -46,7 +68,7 @@ public class PooledConnectionWrapper implements Connection {
     @Override
     public PreparedStatement prepareStatement(String sql) throws SQLException {
         checkClosed();
-        return actualConnection.prepareStatement(sql);
+        return prepare(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, -1, Statement.NO_GENERATED_KEYS);
     }
     
     @Override
@@ -149,7 +171,7 @@ public class PooledConnectionWrapper implements Connection {
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
         checkClosed();
-        return actualConnection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+        return prepare(sql, resultSetType, resultSetConcurrency, -1, Statement.NO_GENERATED_KEYS);
     }
     
     @Override
@@ -215,7 +237,7 @@ public class PooledConnectionWrapper implements Connection {
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
         checkClosed();
-        return actualConnection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        return prepare(sql, resultSetType, resultSetConcurrency, resultSetHoldability, Statement.NO_GENERATED_KEYS);
     }
     
     @Override
@@ -227,19 +249,44 @@ public class PooledConnectionWrapper implements Connection {
     @Override
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
         checkClosed();
-        return actualConnection.prepareStatement(sql, autoGeneratedKeys);
+        return prepare(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, -1, autoGeneratedKeys);
     }
     
     @Override
     public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
         checkClosed();
-        return actualConnection.prepareStatement(sql, columnIndexes);
+        return new PooledPreparedStatement(actualConnection.prepareStatement(sql, columnIndexes), this, sql, null, null);
     }
     
     @Override
     public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
         checkClosed();
-        return actualConnection.prepareStatement(sql, columnNames);
+        return new PooledPreparedStatement(actualConnection.prepareStatement(sql, columnNames), this, sql, null, null);
+    }
+    
+    /**
+     * Takes a prepared statement from the cache or prepares a new one
+     * 
+     * @param holdability Result set holdability, or -1 for the driver default
+     */
+    private PreparedStatement prepare(String sql, int resultSetType, int resultSetConcurrency,
+                                      int holdability, int autoGeneratedKeys) throws SQLException {
+        String key = null;
+        PreparedStatement statement = null;
+        if (statementCache != null) {
+            key = StatementCache.key(sql, resultSetType, resultSetConcurrency, holdability, autoGeneratedKeys);
+            statement = statementCache.take(key);
+        }
+        if (statement == null) {
+            if (autoGeneratedKeys != Statement.NO_GENERATED_KEYS) {
+                statement = actualConnection.prepareStatement(sql, autoGeneratedKeys);
+            } else if (holdability >= 0) {
+                statement = actualConnection.prepareStatement(sql, resultSetType, resultSetConcurrency, holdability);
+            } else {
+                statement = actualConnection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            }
+        }
+        return new PooledPreparedStatement(statement, this, sql, statementCache, key);
     }
     
     @Override
@@ -0,0 +1,820 @@
+package com.coursemanagement.util;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.Calendar;
+
+/**
+ * Prepared statement handed out by PooledConnectionWrapper.
+ * Calling close() returns the driver statement to the connection's
+ * statement cache instead of closing it, when it came from the cache.
+ * Executions are timed and reported to the QueryProfiler.
+ */
+class PooledPreparedStatement implements PreparedStatement {
+    
+    private final PreparedStatement delegate;
+    private final Connection connection;
+    private final StatementCache cache;
+    private final String cacheKey;
+    private final QueryProfiler profiler = QueryProfiler.getInstance();
+    private final QueryProfiler.StatementStats stats;
+    private ProfiledResultSet currentResultSet;
+    private boolean closed = false;
+    private boolean closeOnCompletion = false;
+    
+    PooledPreparedStatement(PreparedStatement delegate, Connection connection, String sql,
+                            StatementCache cache, String cacheKey) {
+        this.delegate = delegate;
+        this.connection = connection;
+        this.cache = cache;
+        this.cacheKey = cacheKey;
+        this.stats = profiler.statsFor(sql);
+    }
+    
+    /**
+     * Override close() to return the statement to the cache instead of closing it
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (cache != null && !closeOnCompletion && reset() && cache.put(cacheKey, delegate)) {
+            return;
+        }
+        delegate.close();
+    }
+    
+    /**
+     * Clears per-use state so the next caller gets a statement as if freshly
+     * prepared. These calls are answered by the driver without a round trip.
+     *
+     * @return false if the statement cannot be reused
+     */
+    private boolean reset() {
+        try {
+            if (currentResultSet != null) {
+                currentResultSet.close();
+                currentResultSet = null;
+            }
+            ResultSet open = delegate.getResultSet();
+            if (open != null) {
+                open.close();
+            }
+            delegate.clearParameters();
+            delegate.clearBatch();
+            delegate.clearWarnings();
+            if (delegate.getMaxRows() != 0) {
+                delegate.setMaxRows(0);
+            }
+            if (delegate.getQueryTimeout() != 0) {
+                delegate.setQueryTimeout(0);
+            }
+            return !delegate.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || delegate.isClosed();
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkClosed();
+        return connection;
+    }
+    
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        checkClosed();
+        // The driver would close the statement under the cache, so it is not reused
+        closeOnCompletion = true;
+        delegate.closeOnCompletion();
+    }
+    
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        checkClosed();
+        return delegate.isCloseOnCompletion();
+    }
+    
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        checkClosed();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ResultSet resultSet = delegate.executeQuery();
+            failed = false;
+            if (stats == null) {
+                return resultSet;
+            }
+            currentResultSet = new ProfiledResultSet(resultSet, this, stats);
+            return currentResultSet;
+        } finally {
+            profiler.record(stats, System.nanoTime() - start, 0, failed);
+        }
+    }
+    
+    @Override
+    public int executeUpdate() throws SQLException {
+        checkClosed();
+        long start = System.nanoTime();
+        int rows = 0;
+        boolean failed = true;
+        try {
+            rows = delegate.executeUpdate();
+            failed = false;
+            return rows;
+        } finally {
+            profiler.record(stats, System.nanoTime() - start, rows, failed);
+        }
+    }
+    
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        checkClosed();
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+        try {
+            rows = delegate.executeLargeUpdate();
+            failed = false;
+            return rows;
+        } finally {
+            profiler.record(stats, System.nanoTime() - start, rows, failed);
+        }
+    }
+    
+    @Override
+    public boolean execute() throws SQLException {
+        checkClosed();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean hasResultSet = delegate.execute();
+            failed = false;
+            return hasResultSet;
+        } finally {
+            profiler.record(stats, System.nanoTime() - start, 0, failed);
+        }
+    }
+    
+    @Override
+    public int[] executeBatch() throws SQLException {
+        checkClosed();
+        long start = System.nanoTime();
+        int[] counts = null;
+        boolean failed = true;
+        try {
+            counts = delegate.executeBatch();
+            failed = false;
+            return counts;
+        } catch (BatchUpdateException e) {
+            counts = e.getUpdateCounts();
+            throw e;
+        } finally {
+            profiler.record(stats, System.nanoTime() - start, sum(counts), failed);
+        }
+    }
+    
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        checkClosed();
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+        try {
+            long[] counts = delegate.executeLargeBatch();
+            for (long count : counts) {
+                rows += Math.max(0, count);
+            }
+            failed = false;
+            return counts;
+        } finally {
+            profiler.record(stats, System.nanoTime() - start, rows, failed);
+        }
+    }
+    
+    private static long sum(int[] counts) {
+        long total = 0;
+        if (counts != null) {
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+        }
+        return total;
+    }
+    
+    // Delegate all other methods to the driver statement
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        checkClosed();
+        delegate.setBoolean(parameterIndex, x);
+    }
+    
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        checkClosed();
+        delegate.setByte(parameterIndex, x);
+    }
+    
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        checkClosed();
+        delegate.setShort(parameterIndex, x);
+    }
+    
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        checkClosed();
+        delegate.setInt(parameterIndex, x);
+    }
+    
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        checkClosed();
+        delegate.setLong(parameterIndex, x);
+    }
+    
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        checkClosed();
+        delegate.setFloat(parameterIndex, x);
+    }
+    
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        checkClosed();
+        delegate.setDouble(parameterIndex, x);
+    }
+    
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        checkClosed();
+        delegate.setURL(parameterIndex, x);
+    }
+    
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        checkClosed();
+        delegate.setArray(parameterIndex, x);
+    }
+    
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        checkClosed();
+        delegate.setTime(parameterIndex, x);
+    }
+    
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        checkClosed();
+        delegate.setTime(parameterIndex, x, cal);
+    }
+    
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        checkClosed();
+        delegate.setDate(parameterIndex, x, cal);
+    }
+    
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        checkClosed();
+        delegate.setDate(parameterIndex, x);
+    }
+    
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        checkClosed();
+        delegate.setNull(parameterIndex, sqlType);
+    }
+    
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        checkClosed();
+        delegate.setNull(parameterIndex, sqlType, typeName);
+    }
+    
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        checkClosed();
+        delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+    
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        checkClosed();
+        delegate.setObject(parameterIndex, x);
+    }
+    
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        checkClosed();
+        delegate.setObject(parameterIndex, x, targetSqlType);
+    }
+    
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        checkClosed();
+        delegate.setObject(parameterIndex, x, targetSqlType);
+    }
+    
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        checkClosed();
+        delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+    
+    @Override
+    public void addBatch() throws SQLException {
+        checkClosed();
+        delegate.addBatch();
+    }
+    
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        checkClosed();
+        delegate.setBigDecimal(parameterIndex, x);
+    }
+    
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        checkClosed();
+        delegate.setString(parameterIndex, x);
+    }
+    
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        checkClosed();
+        delegate.setBytes(parameterIndex, x);
+    }
+    
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        checkClosed();
+        delegate.setTimestamp(parameterIndex, x);
+    }
+    
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        checkClosed();
+        delegate.setTimestamp(parameterIndex, x, cal);
+    }
+    
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        checkClosed();
+        delegate.setAsciiStream(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        checkClosed();
+        delegate.setAsciiStream(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        checkClosed();
+        delegate.setAsciiStream(parameterIndex, x);
+    }
+    
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        checkClosed();
+        delegate.setUnicodeStream(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        checkClosed();
+        delegate.setBinaryStream(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        checkClosed();
+        delegate.setBinaryStream(parameterIndex, x);
+    }
+    
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        checkClosed();
+        delegate.setBinaryStream(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void clearParameters() throws SQLException {
+        checkClosed();
+        delegate.clearParameters();
+    }
+    
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x, int length) throws SQLException {
+        checkClosed();
+        delegate.setCharacterStream(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x) throws SQLException {
+        checkClosed();
+        delegate.setCharacterStream(parameterIndex, x);
+    }
+    
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
+        checkClosed();
+        delegate.setCharacterStream(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        checkClosed();
+        delegate.setRef(parameterIndex, x);
+    }
+    
+    @Override
+    public void setBlob(int parameterIndex, InputStream x, long length) throws SQLException {
+        checkClosed();
+        delegate.setBlob(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setBlob(int parameterIndex, InputStream x) throws SQLException {
+        checkClosed();
+        delegate.setBlob(parameterIndex, x);
+    }
+    
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        checkClosed();
+        delegate.setBlob(parameterIndex, x);
+    }
+    
+    @Override
+    public void setClob(int parameterIndex, Reader x) throws SQLException {
+        checkClosed();
+        delegate.setClob(parameterIndex, x);
+    }
+    
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        checkClosed();
+        delegate.setClob(parameterIndex, x);
+    }
+    
+    @Override
+    public void setClob(int parameterIndex, Reader x, long length) throws SQLException {
+        checkClosed();
+        delegate.setClob(parameterIndex, x, length);
+    }
+    
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        checkClosed();
+        return delegate.getMetaData();
+    }
+    
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        checkClosed();
+        return delegate.getParameterMetaData();
+    }
+    
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        checkClosed();
+        delegate.setRowId(parameterIndex, x);
+    }
+    
+    @Override
+    public void setNString(int parameterIndex, String x) throws SQLException {
+        checkClosed();
+        delegate.setNString(parameterIndex, x);
+    }
+    
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader x) throws SQLException {
+        checkClosed();
+        delegate.setNCharacterStream(parameterIndex, x);
+    }
+    
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
+        checkClosed();
+        delegate.setNCharacterStream(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setNClob(int parameterIndex, Reader x, long length) throws SQLException {
+        checkClosed();
+        delegate.setNClob(parameterIndex, x, length);
+    }
+    
+    @Override
+    public void setNClob(int parameterIndex, Reader x) throws SQLException {
+        checkClosed();
+        delegate.setNClob(parameterIndex, x);
+    }
+    
+    @Override
+    public void setNClob(int parameterIndex, NClob x) throws SQLException {
+        checkClosed();
+        delegate.setNClob(parameterIndex, x);
+    }
+    
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+        checkClosed();
+        delegate.setSQLXML(parameterIndex, x);
+    }
+    
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        checkClosed();
+        return delegate.execute(sql);
+    }
+    
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        checkClosed();
+        return delegate.execute(sql, columnIndexes);
+    }
+    
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        checkClosed();
+        return delegate.execute(sql, columnNames);
+    }
+    
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        checkClosed();
+        return delegate.execute(sql, autoGeneratedKeys);
+    }
+    
+    @Override
+    public void cancel() throws SQLException {
+        checkClosed();
+        delegate.cancel();
+    }
+    
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        checkClosed();
+        delegate.setLargeMaxRows(max);
+    }
+    
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        checkClosed();
+        delegate.addBatch(sql);
+    }
+    
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        checkClosed();
+        delegate.setMaxRows(max);
+    }
+    
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        checkClosed();
+        delegate.setMaxFieldSize(max);
+    }
+    
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        checkClosed();
+        delegate.setEscapeProcessing(enable);
+    }
+    
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        checkClosed();
+        delegate.setQueryTimeout(seconds);
+    }
+    
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        checkClosed();
+        delegate.setCursorName(name);
+    }
+    
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        checkClosed();
+        delegate.setFetchDirection(direction);
+    }
+    
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        checkClosed();
+        delegate.setFetchSize(rows);
+    }
+    
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        checkClosed();
+        return delegate.getMoreResults(current);
+    }
+    
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        checkClosed();
+        return delegate.getMoreResults();
+    }
+    
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        checkClosed();
+        delegate.setPoolable(poolable);
+    }
+    
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        checkClosed();
+        return delegate.executeQuery(sql);
+    }
+    
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        checkClosed();
+        return delegate.executeUpdate(sql, columnIndexes);
+    }
+    
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        checkClosed();
+        return delegate.executeUpdate(sql, columnNames);
+    }
+    
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        checkClosed();
+        return delegate.executeUpdate(sql);
+    }
+    
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        checkClosed();
+        return delegate.executeUpdate(sql, autoGeneratedKeys);
+    }
+    
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        checkClosed();
+        return delegate.executeLargeUpdate(sql);
+    }
+    
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        checkClosed();
+        return delegate.executeLargeUpdate(sql, autoGeneratedKeys);
+    }
+    
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        checkClosed();
+        return delegate.executeLargeUpdate(sql, columnNames);
+    }
+    
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        checkClosed();
+        return delegate.executeLargeUpdate(sql, columnIndexes);
+    }
+    
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        checkClosed();
+        return delegate.getMaxFieldSize();
+    }
+    
+    @Override
+    public int getMaxRows() throws SQLException {
+        checkClosed();
+        return delegate.getMaxRows();
+    }
+    
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        checkClosed();
+        return delegate.getQueryTimeout();
+    }
+    
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        checkClosed();
+        return delegate.getWarnings();
+    }
+    
+    @Override
+    public void clearWarnings() throws SQLException {
+        checkClosed();
+        delegate.clearWarnings();
+    }
+    
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        checkClosed();
+        return delegate.getResultSet();
+    }
+    
+    @Override
+    public int getUpdateCount() throws SQLException {
+        checkClosed();
+        return delegate.getUpdateCount();
+    }
+    
+    @Override
+    public int getFetchDirection() throws SQLException {
+        checkClosed();
+        return delegate.getFetchDirection();
+    }
+    
+    @Override
+    public int getFetchSize() throws SQLException {
+        checkClosed();
+        return delegate.getFetchSize();
+    }
+    
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        checkClosed();
+        return delegate.getResultSetConcurrency();
+    }
+    
+    @Override
+    public int getResultSetType() throws SQLException {
+        checkClosed();
+        return delegate.getResultSetType();
+    }
+    
+    @Override
+    public void clearBatch() throws SQLException {
+        checkClosed();
+        delegate.clearBatch();
+    }
+    
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        checkClosed();
+        return delegate.getGeneratedKeys();
+    }
+    
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        checkClosed();
+        return delegate.getResultSetHoldability();
+    }
+    
+    @Override
+    public boolean isPoolable() throws SQLException {
+        checkClosed();
+        return delegate.isPoolable();
+    }
+    
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        checkClosed();
+        return delegate.getLargeUpdateCount();
+    }
+    
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        checkClosed();
+        return delegate.getLargeMaxRows();
+    }
+    
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        checkClosed();
+        return delegate.unwrap(iface);
+    }
+    
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        checkClosed();
+        return delegate.isWrapperFor(iface);
+    }
+    
+    /**
+     * Check if the statement is closed and throw exception if it is
+     */
+    private void checkClosed() throws SQLException {
+        if (closed) {
+            throw new SQLException("Statement has been closed");
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.coursemanagement.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement latency profile and slow-query log.
+ *
+ * Prepared statements handed out by PooledConnectionWrapper report every
+ * execution here. Timings are aggregated per normalized SQL text (literals
+ * replaced by ?, whitespace collapsed) into a LatencyHistogram with row and
+ * error counts. Executions slower than SLOW_QUERY_MILLIS are logged with the
+ * DAO method that issued them. QUERY_PROFILING_ENABLED=false turns it off.
+ */
+public class QueryProfiler {
+
+    private static final int DEFAULT_SLOW_QUERY_MILLIS = 200;
+
+    /** Distinct statements tracked; further SQL texts are counted under one overflow entry */
+    private static final int MAX_STATEMENTS = 500;
+    private static final String OVERFLOW_SQL = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static QueryProfiler instance;
+
+    /**
+     * Aggregated executions of one normalized statement
+     */
+    public static class StatementStats {
+        private final String sql;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong slow = new AtomicLong();
+
+        StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() { return sql; }
+        public LatencyHistogram getLatency() { return latency; }
+        public long getExecutions() { return latency.getCount(); }
+        public long getRows() { return rows.get(); }
+        public long getErrors() { return errors.get(); }
+        public long getSlowCount() { return slow.get(); }
+
+        void addRows(long count) {
+            if (count > 0) {
+                rows.addAndGet(count);
+            }
+        }
+    }
+
+    private final boolean enabled;
+    private final long slowQueryNanos;
+    private final Map<String, StatementStats> byNormalizedSql = new ConcurrentHashMap<>();
+    private final Map<String, StatementStats> byRawSql = new ConcurrentHashMap<>();
+    private final AtomicLong slowQueries = new AtomicLong();
+
+    /**
+     * Private constructor for singleton pattern
+     */
+    private QueryProfiler(boolean enabled, int slowQueryMillis) {
+        this.enabled = enabled;
+        this.slowQueryNanos = slowQueryMillis > 0 ? slowQueryMillis * 1_000_000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * Get singleton instance of the query profiler
+     */
+    public static synchronized QueryProfiler getInstance() {
+        if (instance == null) {
+            instance = new QueryProfiler(
+                DatabaseConnection.getBooleanSetting("QUERY_PROFILING_ENABLED", true),
+                DatabaseConnection.getIntSetting("SLOW_QUERY_MILLIS", DEFAULT_SLOW_QUERY_MILLIS));
+        }
+        return instance;
+    }
+
+    /**
+     * Looks up the stats entry for a SQL string, normalizing it only the
+     * first time the exact text is seen
+     *
+     * @return The entry, or null when profiling is disabled
+     */
+    StatementStats statsFor(String sql) {
+        if (!enabled || sql == null) {
+            return null;
+        }
+        StatementStats stats = byRawSql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String normalized = normalize(sql);
+        if (byNormalizedSql.size() >= MAX_STATEMENTS && !byNormalizedSql.containsKey(normalized)) {
+            normalized = OVERFLOW_SQL;
+        }
+        stats = byNormalizedSql.computeIfAbsent(normalized, StatementStats::new);
+        if (byRawSql.size() < MAX_STATEMENTS * 4) {
+            byRawSql.put(sql, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Records one execution
+     *
+     * @param stats Entry from statsFor, may be null
+     * @param nanos Execution time
+     * @param rows Rows affected, or 0 when not known yet
+     * @param failed Whether the execution threw
+     */
+    void record(StatementStats stats, long nanos, long rows, boolean failed) {
+        if (stats == null) {
+            return;
+        }
+        stats.latency.record(nanos);
+        stats.addRows(rows);
+        if (failed) {
+            stats.errors.incrementAndGet();
+        }
+        if (nanos >= slowQueryNanos) {
+            stats.slow.incrementAndGet();
+            slowQueries.incrementAndGet();
+            System.err.println(String.format("Slow query (%.1f ms%s) at %s: %s", nanos / 1e6,
+                               failed ? ", failed" : "", findCaller(), stats.sql));
+        }
+    }
+
+    /**
+     * Finds the first application frame outside the util package, normally the DAO method
+     */
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> frames
+            .filter(f -> f.getClassName().startsWith("com.coursemanagement.")
+                      && !f.getClassName().startsWith("com.coursemanagement.util."))
+            .findFirst()
+            .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+            .orElse("unknown"));
+    }
+
+    /**
+     * Replaces literals with ? and collapses whitespace so statements that
+     * differ only in inlined values share one entry
+     */
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("IN (?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getSlowQueryCount() {
+        return slowQueries.get();
+    }
+
+    /**
+     * Gets the statements with the highest total execution time
+     *
+     * @param limit Maximum statements to return
+     * @param order One of "total", "mean", "p95", "count" or "errors"
+     */
+    public List<StatementStats> getTopStatements(int limit, String order) {
+        Comparator<StatementStats> comparator;
+        if ("mean".equals(order)) {
+            comparator = Comparator.comparingDouble(s -> s.latency.getMeanMillis());
+        } else if ("p95".equals(order)) {
+            comparator = Comparator.comparingDouble(s -> s.latency.getPercentile(95));
+        } else if ("count".equals(order)) {
+            comparator = Comparator.comparingLong(StatementStats::getExecutions);
+        } else if ("errors".equals(order)) {
+            comparator = Comparator.comparingLong(StatementStats::getErrors);
+        } else {
+            comparator = Comparator.comparingDouble(s -> s.latency.getSumMillis());
+        }
+
+        List<StatementStats> statements = new ArrayList<>(byNormalizedSql.values());
+        statements.sort(comparator.reversed());
+        return statements.size() > limit ? new ArrayList<>(statements.subList(0, limit)) : statements;
+    }
+
+    /**
+     * Discards all collected statistics
+     */
+    public void reset() {
+        byRawSql.clear();
+        byNormalizedSql.clear();
+        slowQueries.set(0);
+    }
+}
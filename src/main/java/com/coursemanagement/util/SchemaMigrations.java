@@ -0,0 +1,359 @@
+package com.coursemanagement.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned schema migrations loaded from classpath scripts.
+ *
+ * Scripts live under db/migration and are named V&lt;version&gt;__&lt;description&gt;.sql.
+ * They run in version order, once per database; each applied version is
+ * recorded in the schema_version table with a SHA-256 checksum of the
+ * script. A script that changes after it was applied stops the run, so
+ * shipped migrations must never be edited: add a new version instead.
+ *
+ * Statements are separated by a semicolon at the end of a line and lines
+ * starting with -- are comments. "Duplicate key name" and "Duplicate column
+ * name" errors are ignored so a script that failed halfway through can be
+ * rerun. A MySQL named lock serializes instances starting at the same time.
+ */
+public class SchemaMigrations {
+
+    private static final String LOCATION = "db/migration";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final String LOCK_NAME = "course_management_schema_migrations";
+    private static final int LOCK_TIMEOUT = 60; // seconds
+
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+
+    /**
+     * One migration script
+     */
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+        private final String checksum;
+
+        Migration(int version, String description, String script) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.checksum = checksum(script);
+        }
+    }
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Applies every pending migration
+     *
+     * @param connection Connection to the application database
+     * @throws SQLException if a script fails or an applied script has changed
+     */
+    public static void migrate(Connection connection) throws SQLException {
+        migrate(connection, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Applies pending migrations up to and including a target version
+     *
+     * @param connection Connection to the application database
+     * @param targetVersion Highest version to apply
+     * @throws SQLException if a script fails or an applied script has changed
+     */
+    public static void migrate(Connection connection, int targetVersion) throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        createVersionTable(connection);
+
+        if (!acquireLock(connection)) {
+            throw new SQLException("Timed out waiting for the schema migration lock");
+        }
+        try {
+            Map<Integer, String> applied = getAppliedChecksums(connection);
+            verifyChecksums(migrations, applied);
+
+            int count = 0;
+            for (Migration migration : migrations) {
+                if (migration.version <= targetVersion && !applied.containsKey(migration.version)) {
+                    apply(connection, migration);
+                    count++;
+                }
+            }
+            System.out.println(count == 0 ? "Schema is up to date at version " + getCurrentVersion(connection)
+                                          : "Applied " + count + " schema migration(s), now at version " +
+                                            getCurrentVersion(connection));
+        } finally {
+            releaseLock(connection);
+        }
+    }
+
+    /**
+     * Checks that every migration has been applied unchanged. Only reads the
+     * schema_version table, so it needs neither the migration lock nor DDL rights.
+     *
+     * @param connection Connection to the application database
+     * @throws SQLException if a migration is pending or an applied script has changed
+     */
+    public static void validate(Connection connection) throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        Map<Integer, String> applied = hasVersionTable(connection)
+            ? getAppliedChecksums(connection) : Collections.<Integer, String>emptyMap();
+        verifyChecksums(migrations, applied);
+
+        List<Integer> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            if (!applied.containsKey(migration.version)) {
+                pending.add(migration.version);
+            }
+        }
+        if (!pending.isEmpty()) {
+            throw new SQLException("Schema migrations pending: " + pending);
+        }
+        System.out.println("Schema validated at version " + getCurrentVersion(connection));
+    }
+
+    /**
+     * Gets the highest applied schema version
+     *
+     * @return The version, or 0 if none has been applied
+     */
+    public static int getCurrentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        for (String sql : splitStatements(migration.script)) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(sql);
+            } catch (SQLException e) {
+                if (e.getErrorCode() != ER_DUP_KEYNAME && e.getErrorCode() != ER_DUP_FIELDNAME) {
+                    throw new SQLException("Schema migration V" + migration.version + " failed: " +
+                                           e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                }
+                System.out.println("Skipping already applied step in V" + migration.version + ": " + e.getMessage());
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        String sql = "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.setString(3, migration.checksum);
+            stmt.setInt(4, (int) elapsed);
+            stmt.executeUpdate();
+        }
+        System.out.println("Applied schema version " + migration.version + " (" + migration.description +
+                           ") in " + elapsed + " ms");
+    }
+
+    private static void createVersionTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT PRIMARY KEY, " +
+                "description VARCHAR(200) NOT NULL, " +
+                "checksum CHAR(64) NOT NULL, " +
+                "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                "execution_ms INT NOT NULL" +
+                ")");
+        }
+    }
+
+    /**
+     * Reads applied versions and their checksums
+     */
+    private static Map<Integer, String> getAppliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new TreeMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static boolean hasVersionTable(Connection connection) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.tables " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'schema_version'";
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next();
+        }
+    }
+
+    private static void verifyChecksums(List<Migration> migrations, Map<Integer, String> applied) throws SQLException {
+        for (Migration migration : migrations) {
+            String recorded = applied.get(migration.version);
+            if (recorded != null && !recorded.equals(migration.checksum)) {
+                throw new SQLException("Schema migration V" + migration.version + " (" + migration.description +
+                                       ") has changed since it was applied");
+            }
+        }
+    }
+
+    /**
+     * Loads the migration scripts from the classpath in version order
+     */
+    private static List<Migration> loadMigrations() throws SQLException {
+        Map<Integer, Migration> migrations = new TreeMap<>();
+        try {
+            for (Map.Entry<String, String> entry : findScripts().entrySet()) {
+                Matcher matcher = SCRIPT_NAME.matcher(entry.getKey());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int version = Integer.parseInt(matcher.group(1));
+                String description = matcher.group(2).replace('_', ' ');
+                if (migrations.containsKey(version)) {
+                    throw new SQLException("Duplicate schema migration version " + version + ": " + entry.getKey());
+                }
+                migrations.put(version, new Migration(version, description, readScript(entry.getValue())));
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new SQLException("Failed to load schema migrations: " + e.getMessage(), e);
+        }
+        if (migrations.isEmpty()) {
+            throw new SQLException("No schema migrations found under " + LOCATION);
+        }
+        return new ArrayList<>(migrations.values());
+    }
+
+    /**
+     * Lists the script file names and resource paths under LOCATION, from
+     * both exploded class directories and jars
+     */
+    private static Map<String, String> findScripts() throws IOException, URISyntaxException {
+        Map<String, String> scripts = new LinkedHashMap<>();
+        Enumeration<URL> locations = SchemaMigrations.class.getClassLoader().getResources(LOCATION);
+        while (locations.hasMoreElements()) {
+            URL location = locations.nextElement();
+            if ("file".equals(location.getProtocol())) {
+                String[] names = new File(location.toURI()).list();
+                if (names != null) {
+                    for (String name : names) {
+                        scripts.put(name, LOCATION + "/" + name);
+                    }
+                }
+            } else if ("jar".equals(location.getProtocol())) {
+                JarURLConnection jarConnection = (JarURLConnection) location.openConnection();
+                jarConnection.setUseCaches(false);
+                try (JarFile jar = jarConnection.getJarFile()) {
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while (entries.hasMoreElements()) {
+                        String path = entries.nextElement().getName();
+                        if (path.startsWith(LOCATION + "/") && path.indexOf('/', LOCATION.length() + 1) < 0) {
+                            scripts.put(path.substring(LOCATION.length() + 1), path);
+                        }
+                    }
+                }
+            }
+        }
+        return scripts;
+    }
+
+    private static String readScript(String path) throws IOException {
+        InputStream in = SchemaMigrations.class.getClassLoader().getResourceAsStream(path);
+        if (in == null) {
+            throw new IOException("Missing migration script " + path);
+        }
+        StringBuilder script = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                script.append(line).append('\n');
+            }
+        }
+        return script.toString();
+    }
+
+    /**
+     * Splits a script into statements at semicolons ending a line, dropping comment lines
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            if (trimmed.endsWith(";")) {
+                current.append(trimmed, 0, trimmed.length() - 1);
+                statements.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(trimmed).append('\n');
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static String checksum(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(script.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection connection) {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Error releasing schema migration lock: " + e.getMessage());
+        }
+    }
+}
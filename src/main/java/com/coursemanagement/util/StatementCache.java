@@ -0,0 +1,110 @@
+package com.coursemanagement.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU of prepared statements belonging to one physical connection.
+ *
+ * A statement is taken out while a caller uses it and put back when the
+ * caller closes it, so two open statements never share a driver object.
+ * Evicted statements, and all statements when the connection is retired,
+ * are closed for real.
+ */
+class StatementCache {
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private final Map<String, PreparedStatement> statements;
+    private boolean closed = false;
+
+    StatementCache(int capacity) {
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    evictions.incrementAndGet();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Builds the cache key from the SQL text and the options it was prepared with
+     */
+    static String key(String sql, int resultSetType, int resultSetConcurrency, int holdability, int autoGeneratedKeys) {
+        return resultSetType + ":" + resultSetConcurrency + ":" + holdability + ":" + autoGeneratedKeys + ":" + sql;
+    }
+
+    /**
+     * Takes a cached statement out of the cache
+     *
+     * @return The statement, or null on a miss
+     */
+    synchronized PreparedStatement take(String key) {
+        PreparedStatement statement = statements.remove(key);
+        try {
+            if (statement != null && statement.isClosed()) {
+                statement = null;
+            }
+        } catch (SQLException e) {
+            statement = null;
+        }
+        if (statement != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return statement;
+    }
+
+    /**
+     * Offers a statement back after its caller closed it
+     *
+     * @return false if the statement was not kept and must be closed by the caller
+     */
+    synchronized boolean put(String key, PreparedStatement statement) {
+        if (closed || statements.containsKey(key)) {
+            return false;
+        }
+        statements.put(key, statement);
+        return true;
+    }
+
+    /**
+     * Closes every cached statement; later offers are refused
+     */
+    void close() {
+        List<PreparedStatement> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        for (PreparedStatement statement : toClose) {
+            closeQuietly(statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    static long getHitCount() { return hits.get(); }
+    static long getMissCount() { return misses.get(); }
+    static long getEvictionCount() { return evictions.get(); }
+}
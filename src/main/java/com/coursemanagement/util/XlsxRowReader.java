@@ -0,0 +1,265 @@
+package com.coursemanagement.util;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Streams Excel import rows from the first sheet by column position.
+ *
+ * Uses POI's event model instead of building an XSSFWorkbook: the upload is
+ * read from (or spooled to) a file, shared strings are loaded through
+ * ReadOnlySharedStringsTable, and the sheet XML from XSSFReader is pulled
+ * one row at a time with StAX. Only one row is held at a time, but the
+ * whole shared strings table stays in heap, so memory is proportional to
+ * the number of unique strings: for an intake file, where every row has
+ * its own username, email and name, that still grows with the rows.
+ */
+class XlsxRowReader implements ImportRowReader {
+
+    private static final XMLInputFactory XML_FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        XML_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final String[] columns;
+    private final File file;
+    private final boolean deleteOnClose;
+    private final OPCPackage pkg;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final InputStream sheet;
+    private final XMLStreamReader xml;
+    private boolean headerSkipped = false;
+    private volatile int lastRowNumber = 0;
+    private volatile int dimensionRows = -1;
+
+    XlsxRowReader(InputStream inputStream, String[] columns) throws IOException {
+        // OPCPackage.open(InputStream) would inflate every part into memory
+        this(spool(inputStream), true, columns);
+    }
+
+    XlsxRowReader(File file, boolean deleteOnClose, String[] columns) throws IOException {
+        this.columns = columns;
+        this.file = file;
+        this.deleteOnClose = deleteOnClose;
+        OPCPackage opened = null;
+        InputStream sheetData = null;
+        try {
+            opened = OPCPackage.open(file, PackageAccess.READ);
+            this.sharedStrings = new ReadOnlySharedStringsTable(opened, false);
+
+            Iterator<InputStream> sheets = new XSSFReader(opened).getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("The workbook has no sheets");
+            }
+            sheetData = sheets.next();
+            this.xml = XML_FACTORY.createXMLStreamReader(sheetData);
+            this.pkg = opened;
+            this.sheet = sheetData;
+        } catch (OpenXML4JException | SAXException | XMLStreamException | RuntimeException e) {
+            closeQuietly(sheetData, opened);
+            throw new IOException("Unable to read Excel file: " + e.getMessage(), e);
+        } catch (IOException e) {
+            closeQuietly(sheetData, opened);
+            throw e;
+        }
+    }
+
+    private static File spool(InputStream inputStream) throws IOException {
+        File tempFile = File.createTempFile("import-", ".xlsx");
+        try {
+            Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            tempFile.delete();
+            throw e;
+        }
+        return tempFile;
+    }
+
+    @Override
+    public double getProgress() {
+        int total = dimensionRows;
+        return total > 0 ? Math.min(1.0, (double) lastRowNumber / total) : -1;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        try {
+            ImportRow row = readRow();
+            // Skip header row
+            if (!headerSkipped && row != null) {
+                headerSkipped = true;
+                row = readRow();
+            }
+            return row;
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed Excel sheet: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Advances to the next row element and reads its cells
+     */
+    private ImportRow readRow() throws XMLStreamException {
+        while (xml.hasNext()) {
+            if (xml.next() == XMLStreamConstants.START_ELEMENT) {
+                if ("row".equals(xml.getLocalName())) {
+                    break;
+                }
+                if ("dimension".equals(xml.getLocalName())) {
+                    // e.g. <dimension ref="A1:E50001"/> gives the row count for progress
+                    dimensionRows = lastRowOf(xml.getAttributeValue(null, "ref"));
+                }
+            }
+        }
+        if (!xml.isStartElement() || !"row".equals(xml.getLocalName())) {
+            return null;
+        }
+
+        String rowRef = xml.getAttributeValue(null, "r");
+        Map<String, String> values = new HashMap<>();
+        int nextColumn = 0;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                String cellRef = xml.getAttributeValue(null, "r");
+                int column = cellRef != null ? columnIndex(cellRef) : nextColumn;
+                nextColumn = column + 1;
+                String value = readCell(xml.getAttributeValue(null, "t"));
+                if (column < columns.length) {
+                    values.put(columns[column], value);
+                }
+            }
+        }
+
+        int rowNumber = rowRef != null ? Integer.parseInt(rowRef) : lastRowNumber + 1;
+        lastRowNumber = rowNumber;
+        return new ImportRow(rowNumber, values);
+    }
+
+    /**
+     * Reads the value of the current cell element according to its type
+     */
+    private String readCell(String type) throws XMLStreamException {
+        String raw = null;
+        StringBuilder inline = null;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xml.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("v".equals(name)) {
+                    raw = xml.getElementText();
+                } else if ("t".equals(name)) {
+                    // Inline string text, possibly split into rich text runs
+                    if (inline == null) {
+                        inline = new StringBuilder();
+                    }
+                    inline.append(xml.getElementText());
+                }
+            }
+        }
+
+        if ("inlineStr".equals(type)) {
+            return inline != null ? inline.toString() : "";
+        }
+        if (raw == null) {
+            return "";
+        }
+        if ("s".equals(type)) {
+            return sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString();
+        }
+        if ("b".equals(type)) {
+            return String.valueOf("1".equals(raw.trim()));
+        }
+        if ("e".equals(type)) {
+            return "";
+        }
+        return raw;
+    }
+
+    /**
+     * Converts the letters of a cell reference such as "AB12" to a zero-based column index
+     */
+    private static int columnIndex(String cellRef) {
+        int index = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char c = cellRef.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    /**
+     * Extracts the last row number from a range such as "A1:E50001"
+     */
+    private static int lastRowOf(String range) {
+        if (range == null) {
+            return -1;
+        }
+        String end = range.substring(range.indexOf(':') + 1);
+        int digits = 0;
+        while (digits < end.length() && !Character.isDigit(end.charAt(digits))) {
+            digits++;
+        }
+        try {
+            return Integer.parseInt(end.substring(digits));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            System.err.println("Error closing sheet reader: " + e.getMessage());
+        }
+        closeQuietly(sheet, pkg);
+    }
+
+    private void closeQuietly(InputStream sheetData, OPCPackage opened) {
+        try {
+            if (sheetData != null) {
+                sheetData.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing sheet data: " + e.getMessage());
+        }
+        if (opened != null) {
+            opened.revert(); // read-only: release without saving
+        }
+        if (deleteOnClose && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+-- Demo accounts and courses. Every account's password is "password123";
+-- the BCrypt hash is precomputed so startup does no hashing.
+
+INSERT IGNORE INTO users (username, password, full_name, email, user_type) VALUES
+    ('admin', '$2a$10$apFNbwU3sgh.OzRBioDEEuBurwWArmaA3S6gk26GPCFt6Lh08feui', 'System Administrator', 'admin@coursemanagement.com', 'ADMIN'),
+    ('teacher1', '$2a$10$apFNbwU3sgh.OzRBioDEEuBurwWArmaA3S6gk26GPCFt6Lh08feui', 'Dr. John Smith', 'john.smith@university.edu', 'TEACHER'),
+    ('teacher2', '$2a$10$apFNbwU3sgh.OzRBioDEEuBurwWArmaA3S6gk26GPCFt6Lh08feui', 'Prof. Sarah Johnson', 'sarah.johnson@university.edu', 'TEACHER'),
+    ('student1', '$2a$10$apFNbwU3sgh.OzRBioDEEuBurwWArmaA3S6gk26GPCFt6Lh08feui', 'Alice Cooper', 'alice.cooper@student.edu', 'STUDENT'),
+    ('student2', '$2a$10$apFNbwU3sgh.OzRBioDEEuBurwWArmaA3S6gk26GPCFt6Lh08feui', 'Bob Wilson', 'bob.wilson@student.edu', 'STUDENT'),
+    ('student3', '$2a$10$apFNbwU3sgh.OzRBioDEEuBurwWArmaA3S6gk26GPCFt6Lh08feui', 'Carol Davis', 'carol.davis@student.edu', 'STUDENT');
+
+INSERT IGNORE INTO courses (course_code, course_name, description, credits, teacher_id, max_students) VALUES
+    ('CSE-446', 'Web Engineering', 'Introduction to web development technologies including HTML, CSS, JavaScript, and server-side programming', 3, 2, 30),
+    ('CSE-101', 'Programming Fundamentals', 'Basic programming concepts using Java programming language', 4, 2, 40),
+    ('CSE-201', 'Data Structures', 'Implementation and analysis of fundamental data structures and algorithms', 3, 3, 35),
+    ('CSE-301', 'Database Systems', 'Design and implementation of database management systems', 3, 3, 25);
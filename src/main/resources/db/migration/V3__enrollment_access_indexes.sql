@@ -0,0 +1,14 @@
+-- Indexes for the enrollment and course access paths. Online DDL keeps
+-- the tables readable and writable while each index builds.
+
+-- getEnrollmentsByCourse, getEnrollmentCount: WHERE course_id = ? AND status = ?
+ALTER TABLE enrollments ADD INDEX idx_enrollments_course_status (course_id, status), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Enrollment listings filtered by status, newest first
+ALTER TABLE enrollments ADD INDEX idx_enrollments_status_date (status, enrollment_date), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- getAllEnrollments: ORDER BY enrollment_date DESC without a filter
+ALTER TABLE enrollments ADD INDEX idx_enrollments_date (enrollment_date), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- getCoursesByTeacher: WHERE teacher_id = ? ORDER BY course_code
+ALTER TABLE courses ADD INDEX idx_courses_teacher_code (teacher_id, course_code), ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,11 @@
+-- Indexes for the paged user listing. username and email already have
+-- unique indexes, which also serve their sort orders and prefix search.
+
+-- Role filter sorted by name: WHERE user_type = ? ORDER BY full_name, user_id
+ALTER TABLE users ADD INDEX idx_users_type_name (user_type, full_name), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Name sort and full_name prefix search without a role filter
+ALTER TABLE users ADD INDEX idx_users_name (full_name), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Newest accounts first
+ALTER TABLE users ADD INDEX idx_users_created (created_at), ALGORITHM=INPLACE, LOCK=NONE;
@@ -26,11 +26,11 @@
     <!-- Bootstrap Icons -->
     <link href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.11.0/font/bootstrap-icons.css" rel="stylesheet">
     <!-- Custom CSS -->
-    <link href="${pageContext.request.contextPath}/css/style.css?v=<%="2024"%>" rel="stylesheet">
-    <link href="${pageContext.request.contextPath}/css/premium-nav.css?v=<%="2024"%>" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/style.css']}" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/premium-nav.css']}" rel="stylesheet">
     
     <!-- Theme System Script -->
-    <script src="${pageContext.request.contextPath}/js/theme-system.js"></script>
+    <script src="${pageContext.request.contextPath}${applicationScope.assets['js/theme-system.js']}"></script>
 </head>
 <body>
     <!-- Navigation -->
@@ -91,6 +91,8 @@
             </div>
         <% } %>
 
+        <%@ include file="/WEB-INF/jspf/import-progress.jspf" %>
+
         <!-- Add Course Form -->
         <div class="row mb-4">
             <div class="col">
@@ -441,7 +443,7 @@
     <!-- Bootstrap JS -->
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.0/dist/js/bootstrap.bundle.min.js"></script>
     <!-- Dark Mode Script -->
-    <script src="${pageContext.request.contextPath}/js/theme-system.js"></script>
+    <script src="${pageContext.request.contextPath}${applicationScope.assets['js/theme-system.js']}"></script>
     
     <!-- Enhanced Course Table Management Script -->
     <script>
@@ -17,11 +17,11 @@
     <!-- Bootstrap Icons -->
     <link href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.11.0/font/bootstrap-icons.css" rel="stylesheet">
     <!-- Custom CSS -->
-    <link href="${pageContext.request.contextPath}/css/style.css?v=<%="2024"%>" rel="stylesheet">
-    <link href="${pageContext.request.contextPath}/css/premium-nav.css?v=<%="2024"%>" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/style.css']}" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/premium-nav.css']}" rel="stylesheet">
     
     <!-- Theme System Script -->
-    <script src="${pageContext.request.contextPath}/js/theme-system.js"></script>
+    <script src="${pageContext.request.contextPath}${applicationScope.assets['js/theme-system.js']}"></script>
 </head>
 <body>
     <!-- Navigation Bar -->
@@ -119,6 +119,9 @@
                                         <span class="mini-stat-label">Teachers</span>
                                     </div>
                                 </div>
+                                <p class="text-muted small mt-3 mb-0">
+                                    <i class="bi bi-clock-history me-1"></i>Statistics updated ${statsAgeSeconds}s ago
+                                </p>
                             </div>
                         </div>
                         <div class="col-lg-4">
@@ -345,11 +348,11 @@
                                                 </div>
                                             <% } %>
                                             
-                                            <% if (unassignedCourses.size() > 3) { %>
+                                            <% if ((Integer) request.getAttribute("coursesWithoutTeachers") > 3) { %>
                                                 <div class="text-center mt-3">
                                                     <a href="${pageContext.request.contextPath}/admin/courses?filter=unassigned" 
                                                        class="btn btn-outline-primary btn-sm">
-                                                        <i class="bi bi-plus-circle me-1"></i>View All <%= unassignedCourses.size() %> Unassigned Courses
+                                                        <i class="bi bi-plus-circle me-1"></i>View All ${coursesWithoutTeachers} Unassigned Courses
                                                     </a>
                                                 </div>
                                             <% } %>
@@ -415,8 +418,8 @@
                                         <div class="capacity-bar">
                                             <div class="bar-label">Near Full (80%+)</div>
                                             <div class="bar-container">
-                                                <div class="bar-fill warning" style="--width: ${(fn:length(lowCapacityCourses) * 100) / totalCourses}%"></div>
-                                                <span class="bar-value">${fn:length(lowCapacityCourses)}</span>
+                                                <div class="bar-fill warning" style="--width: ${(nearCapacityCount * 100) / totalCourses}%"></div>
+                                                <span class="bar-value">${nearCapacityCount}</span>
                                             </div>
                                         </div>
                                     </div>
@@ -457,7 +460,7 @@
                                             <i class="bi bi-exclamation-triangle-fill me-2"></i>
                                             <div>
                                                 <strong>Capacity issues detected!</strong><br>
-                                                <small>${fullCourses} courses are full, ${fn:length(lowCapacityCourses)} are near capacity.</small>
+                                                <small>${fullCourses} courses are full, ${nearCapacityCount} are near capacity.</small>
                                             </div>
                                         </div>
                                         
@@ -558,8 +561,8 @@
             <div class="glass-card data-table-card">
                 <div class="table-header">
                     <div class="table-title">
-                        <h3><i class="bi bi-book me-2"></i>All Courses</h3>
-                        <p class="table-subtitle">Complete course catalog and status overview</p>
+                        <h3><i class="bi bi-book me-2"></i>Courses</h3>
+                        <p class="table-subtitle">First courses by code and their status</p>
                     </div>
                     <div class="table-actions">
                         <div class="search-container">
@@ -645,6 +648,13 @@
                                         </tbody>
                                     </table>
                                 </div>
+                                <c:if test="${moreCourses}">
+                                    <div class="text-center mt-3">
+                                        <a href="${pageContext.request.contextPath}/admin/courses" class="btn btn-outline-primary btn-sm">
+                                            <i class="bi bi-list-ul me-1"></i>View All ${totalCourses} Courses
+                                        </a>
+                                    </div>
+                                </c:if>
                             </c:otherwise>
                         </c:choose>
                     </div>
@@ -1,10 +1,18 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ page import="com.coursemanagement.model.*" %>
+<%@ page import="com.coursemanagement.dao.EnrollmentFilter" %>
+<%@ page import="com.coursemanagement.dao.KeysetPage" %>
 <%@ page import="java.util.List" %>
 
 <%
     User currentUser = (User) session.getAttribute("currentUser");
     List<Enrollment> allEnrollments = (List<Enrollment>) request.getAttribute("allEnrollments");
+    KeysetPage<Enrollment> enrollmentPage = (KeysetPage<Enrollment>) request.getAttribute("enrollmentPage");
+    List<Course> allCourses = (List<Course>) request.getAttribute("allCourses");
+    EnrollmentFilter filter = (EnrollmentFilter) request.getAttribute("filter");
+    User filterStudent = (User) request.getAttribute("filterStudent");
+    String filterQuery = (String) request.getAttribute("filterQuery");
+    Integer pageSize = (Integer) request.getAttribute("pageSize");
     String successMessage = (String) request.getAttribute("successMessage");
     String errorMessage = (String) request.getAttribute("errorMessage");
 %>
@@ -24,8 +32,8 @@
     <!-- Bootstrap Icons -->
     <link href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.11.0/font/bootstrap-icons.css" rel="stylesheet">
     <!-- Custom CSS -->
-    <link href="${pageContext.request.contextPath}/css/style.css" rel="stylesheet">
-    <link href="${pageContext.request.contextPath}/css/premium-nav.css" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/style.css']}" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/premium-nav.css']}" rel="stylesheet">
 </head>
 <body>
     <!-- Navigation -->
@@ -129,42 +137,70 @@
         <!-- Search and Filter Controls -->
         <div class="card mb-4 filter-controls-card">
             <div class="card-body">
-                <div class="row g-3 align-items-center">
-                    <div class="col-md-4">
-                        <input type="text" class="form-control" id="searchInput" placeholder="Search student, course, or email..." onkeyup="filterTable()">
+                <form method="get" action="${pageContext.request.contextPath}/admin/enrollments" class="row g-3 align-items-end">
+                    <div class="col-md-5">
+                        <label for="searchInput" class="form-label small text-muted">Search</label>
+                        <div class="input-group">
+                            <span class="input-group-text"><i class="bi bi-search"></i></span>
+                            <input type="text" class="form-control" id="searchInput" name="q" value="<%= filter != null && filter.getSearch() != null ? filter.getSearch().replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;") : "" %>" placeholder="Student name, email or course code starts with...">
+                        </div>
                     </div>
                     <div class="col-md-3">
-                        <select id="statusFilter" class="form-select" onchange="filterTable()">
+                        <label for="statusFilter" class="form-label small text-muted">Status</label>
+                        <select id="statusFilter" name="status" class="form-select">
                             <option value="">All Statuses</option>
-                            <option value="ENROLLED">Enrolled</option>
-                            <option value="COMPLETED">Completed</option>
-                            <option value="DROPPED">Dropped</option>
+                            <% for (Enrollment.EnrollmentStatus status : Enrollment.EnrollmentStatus.values()) { %>
+                                <option value="<%= status.name() %>" <%= filter != null && filter.getStatus() == status ? "selected" : "" %>><%= status.name().charAt(0) + status.name().substring(1).toLowerCase() %></option>
+                            <% } %>
+                        </select>
+                    </div>
+                    <div class="col-md-4">
+                        <label for="courseFilter" class="form-label small text-muted">Course</label>
+                        <select id="courseFilter" name="courseId" class="form-select">
+                            <option value="">All Courses</option>
+                            <% if (allCourses != null) { for (Course course : allCourses) { %>
+                                <option value="<%= course.getCourseId() %>" <%= filter != null && filter.getCourseId() == course.getCourseId() ? "selected" : "" %>><%= course.getCourseCode() %> - <%= course.getCourseName() %></option>
+                            <% } } %>
                         </select>
                     </div>
                     <div class="col-md-3">
+                        <label for="fromFilter" class="form-label small text-muted">Enrolled from</label>
+                        <input type="date" id="fromFilter" name="from" class="form-control" value="<%= filter != null && filter.getFrom() != null ? filter.getFrom() : "" %>">
+                    </div>
+                    <div class="col-md-3">
+                        <label for="toFilter" class="form-label small text-muted">Enrolled to</label>
+                        <input type="date" id="toFilter" name="to" class="form-control" value="<%= filter != null && filter.getTo() != null ? filter.getTo() : "" %>">
+                    </div>
+                    <div class="col-md-2">
+                        <label for="sizeFilter" class="form-label small text-muted">Rows</label>
+                        <select id="sizeFilter" name="size" class="form-select">
+                            <% for (int size : new int[] {10, 25, 50, 100}) { %>
+                                <option value="<%= size %>" <%= pageSize != null && pageSize == size ? "selected" : "" %>><%= size %></option>
+                            <% } %>
+                        </select>
+                    </div>
+                    <div class="col-md-4">
+                        <% if (filter != null && filter.getStudentId() > 0) { %>
+                            <input type="hidden" name="studentId" value="<%= filter.getStudentId() %>">
+                        <% } %>
                         <div class="d-flex gap-2">
-                            <button class="btn btn-outline-secondary btn-sm" onclick="clearFilters()">
-                                <i class="bi bi-x-circle"></i> Clear
+                            <button type="submit" class="btn btn-primary btn-sm">
+                                <i class="bi bi-funnel"></i> Apply
                             </button>
-                            <div class="dropdown">
-                                <button class="btn btn-outline-primary btn-sm dropdown-toggle" type="button" data-bs-toggle="dropdown">
-                                    <i class="bi bi-funnel"></i> Rows
-                                </button>
-                                <ul class="dropdown-menu">
-                                    <li><a class="dropdown-item" href="#" onclick="changePageSize(5)">5 per page</a></li>
-                                    <li><a class="dropdown-item" href="#" onclick="changePageSize(10)">10 per page</a></li>
-                                    <li><a class="dropdown-item" href="#" onclick="changePageSize(25)">25 per page</a></li>
-                                    <li><a class="dropdown-item" href="#" onclick="changePageSize(-1)">Show all</a></li>
-                                </ul>
-                            </div>
+                            <a class="btn btn-outline-secondary btn-sm" href="${pageContext.request.contextPath}/admin/enrollments">
+                                <i class="bi bi-x-circle"></i> Clear
+                            </a>
                         </div>
                     </div>
-                    <div class="col-md-2">
-                        <small class="text-muted">
-                            <span id="resultCount">0</span> results
-                        </small>
+                </form>
+                <% if (filter != null && filter.getStudentId() > 0) { %>
+                    <div class="mt-3">
+                        <span class="badge bg-secondary">
+                            Student: <%= filterStudent != null ? filterStudent.getFullName() : "#" + filter.getStudentId() %>
+                        </span>
+                        <a class="small ms-2" href="${pageContext.request.contextPath}/admin/enrollments?<%= filterQuery.replaceAll("&studentId=\\d+", "") %>">Show all students</a>
                     </div>
-                </div>
+                <% } %>
             </div>
         </div>
 
@@ -182,12 +218,12 @@
                                     <table class="table premium-table" id="enrollmentTable">
                                         <thead>
                                             <tr>
-                                                <th onclick="sortTable(0)">ID <i class="bi bi-arrow-down-up"></i></th>
-                                                <th onclick="sortTable(1)">Student <i class="bi bi-arrow-down-up"></i></th>
-                                                <th onclick="sortTable(2)">Course <i class="bi bi-arrow-down-up"></i></th>
-                                                <th onclick="sortTable(3)">Status <i class="bi bi-arrow-down-up"></i></th>
-                                                <th onclick="sortTable(4)">Enrolled Date <i class="bi bi-arrow-down-up"></i></th>
-                                                <th onclick="sortTable(5)">Last Updated <i class="bi bi-arrow-down-up"></i></th>
+                                                <th>ID</th>
+                                                <th>Student</th>
+                                                <th>Course</th>
+                                                <th>Status</th>
+                                                <th>Enrolled Date</th>
+                                                <th>Last Updated</th>
                                                 <th>Actions</th>
                                             </tr>
                                         </thead>
@@ -198,7 +234,7 @@
                                                 <td><%= enrollment.getEnrollmentId() %></td>
                                                 <td>
                                                     <div>
-                                                        <strong><%= enrollment.getStudentName() %></strong><br>
+                                                        <a href="${pageContext.request.contextPath}/admin/enrollments?size=<%= pageSize %>&studentId=<%= enrollment.getStudentId() %>"><strong><%= enrollment.getStudentName() %></strong></a><br>
                                                         <small class="text-muted"><%= enrollment.getStudentEmail() %></small>
                                                     </div>
                                                 </td>
@@ -279,11 +315,19 @@
                                 <div class="d-flex justify-content-between align-items-center">
                                     <div>
                                         <small class="text-muted">
-                                            Showing <span id="showingStart">1</span>-<span id="showingEnd">10</span> of <span id="showingTotal">0</span> entries
+                                            Showing <%= allEnrollments != null ? allEnrollments.size() : 0 %> of ${matchingEnrollments} matching entries
                                         </small>
                                     </div>
-                                    <ul class="pagination pagination-sm mb-0" id="pagination">
-                                        <!-- Pagination buttons will be generated by JavaScript -->
+                                    <ul class="pagination pagination-sm mb-0">
+                                        <li class="page-item">
+                                            <a class="page-link" href="${pageContext.request.contextPath}/admin/enrollments?<%= filterQuery %>">Newest</a>
+                                        </li>
+                                        <li class="page-item <%= enrollmentPage != null && enrollmentPage.hasPrevious() ? "" : "disabled" %>">
+                                            <a class="page-link" href="${pageContext.request.contextPath}/admin/enrollments?<%= filterQuery %>&before=<%= enrollmentPage != null && enrollmentPage.hasPrevious() ? enrollmentPage.getPreviousCursor() : "" %>">Previous</a>
+                                        </li>
+                                        <li class="page-item <%= enrollmentPage != null && enrollmentPage.hasNext() ? "" : "disabled" %>">
+                                            <a class="page-link" href="${pageContext.request.contextPath}/admin/enrollments?<%= filterQuery %>&after=<%= enrollmentPage != null && enrollmentPage.hasNext() ? enrollmentPage.getNextCursor() : "" %>">Next</a>
+                                        </li>
                                     </ul>
                                 </div>
                             </nav>
@@ -296,171 +340,7 @@
 
     <!-- Bootstrap JS -->
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.0/dist/js/bootstrap.bundle.min.js"></script>
-    
-    <script>
-        // Table management variables
-        let currentPage = 1;
-        let rowsPerPage = 10;
-        let sortColumn = -1;
-        let sortDirection = 'asc';
-        let allRows = [];
-        let filteredRows = [];
-
-        // Initialize table on page load
-        document.addEventListener('DOMContentLoaded', function() {
-            initializeTable();
-        });
-
-        function initializeTable() {
-            const tableBody = document.getElementById('enrollmentTableBody');
-            allRows = Array.from(tableBody.querySelectorAll('tr'));
-            filteredRows = [...allRows];
-            updateDisplay();
-        }
-
-        function filterTable() {
-            const searchTerm = document.getElementById('searchInput').value.toLowerCase();
-            const statusFilter = document.getElementById('statusFilter').value;
-
-            filteredRows = allRows.filter(row => {
-                const cells = row.querySelectorAll('td');
-                if (cells.length === 0) return false;
-
-                // Search in student name, course, and email
-                const studentName = cells[1].textContent.toLowerCase();
-                const courseName = cells[2].textContent.toLowerCase();
-                const status = cells[3].textContent.trim();
-
-                const matchesSearch = searchTerm === '' || 
-                    studentName.includes(searchTerm) || 
-                    courseName.includes(searchTerm);
-
-                const matchesStatus = statusFilter === '' || status.includes(statusFilter);
-
-                return matchesSearch && matchesStatus;
-            });
-
-            currentPage = 1;
-            updateDisplay();
-        }
-
-        function sortTable(column) {
-            if (sortColumn === column) {
-                sortDirection = sortDirection === 'asc' ? 'desc' : 'asc';
-            } else {
-                sortColumn = column;
-                sortDirection = 'asc';
-            }
-
-            filteredRows.sort((a, b) => {
-                const aValue = a.querySelectorAll('td')[column]?.textContent.trim() || '';
-                const bValue = b.querySelectorAll('td')[column]?.textContent.trim() || '';
-
-                let comparison = 0;
-                if (column === 0) { // ID column - numeric sort
-                    comparison = parseInt(aValue) - parseInt(bValue);
-                } else if (column === 4 || column === 5) { // Date columns
-                    comparison = new Date(aValue) - new Date(bValue);
-                } else { // Text columns
-                    comparison = aValue.localeCompare(bValue);
-                }
-
-                return sortDirection === 'asc' ? comparison : -comparison;
-            });
-
-            updateDisplay();
-        }
-
-        function changePageSize(size) {
-            rowsPerPage = size === -1 ? filteredRows.length : size;
-            currentPage = 1;
-            updateDisplay();
-        }
-
-        function goToPage(page) {
-            currentPage = page;
-            updateDisplay();
-        }
-
-        function updateDisplay() {
-            const tableBody = document.getElementById('enrollmentTableBody');
-            const totalRows = filteredRows.length;
-            
-            // Update result count
-            document.getElementById('resultCount').textContent = totalRows;
-
-            // Clear current table
-            tableBody.innerHTML = '';
-
-            if (totalRows === 0) {
-                tableBody.innerHTML = '<tr><td colspan="7" class="text-center text-muted">No enrollments found</td></tr>';
-                updatePaginationInfo(0, 0, 0);
-                document.getElementById('pagination').innerHTML = '';
-                return;
-            }
-
-            // Calculate pagination
-            const totalPages = Math.ceil(totalRows / rowsPerPage);
-            const startIndex = (currentPage - 1) * rowsPerPage;
-            const endIndex = Math.min(startIndex + rowsPerPage, totalRows);
-
-            // Show rows for current page
-            for (let i = startIndex; i < endIndex; i++) {
-                tableBody.appendChild(filteredRows[i].cloneNode(true));
-            }
-
-            // Update pagination info and controls
-            updatePaginationInfo(startIndex + 1, endIndex, totalRows);
-            updatePaginationControls(currentPage, totalPages);
-        }
-
-        function updatePaginationInfo(start, end, total) {
-            document.getElementById('showingStart').textContent = start;
-            document.getElementById('showingEnd').textContent = end;
-            document.getElementById('showingTotal').textContent = total;
-        }
-
-        function updatePaginationControls(current, total) {
-            const pagination = document.getElementById('pagination');
-            pagination.innerHTML = '';
-
-            if (total <= 1) return;
-
-            // Previous button
-            const prevLi = document.createElement('li');
-            prevLi.className = 'page-item' + (current === 1 ? ' disabled' : '');
-            prevLi.innerHTML = '<a class="page-link" href="#" onclick="goToPage(' + (current - 1) + ')">Previous</a>';
-            pagination.appendChild(prevLi);
-
-            // Page numbers
-            for (let i = 1; i <= total; i++) {
-                if (i === 1 || i === total || (i >= current - 2 && i <= current + 2)) {
-                    const li = document.createElement('li');
-                    li.className = 'page-item' + (i === current ? ' active' : '');
-                    li.innerHTML = '<a class="page-link" href="#" onclick="goToPage(' + i + ')">' + i + '</a>';
-                    pagination.appendChild(li);
-                } else if (i === current - 3 || i === current + 3) {
-                    const li = document.createElement('li');
-                    li.className = 'page-item disabled';
-                    li.innerHTML = '<span class="page-link">...</span>';
-                    pagination.appendChild(li);
-                }
-            }
-
-            // Next button
-            const nextLi = document.createElement('li');
-            nextLi.className = 'page-item' + (current === total ? ' disabled' : '');
-            nextLi.innerHTML = '<a class="page-link" href="#" onclick="goToPage(' + (current + 1) + ')">Next</a>';
-            pagination.appendChild(nextLi);
-        }
-
-        function clearFilters() {
-            document.getElementById('searchInput').value = '';
-            document.getElementById('statusFilter').value = '';
-            filterTable();
-        }
-    </script>
     <!-- Dark Mode Script -->
-    <script src="${pageContext.request.contextPath}/js/theme-system.js"></script>
+    <script src="${pageContext.request.contextPath}${applicationScope.assets['js/theme-system.js']}"></script>
 </body>
 </html>
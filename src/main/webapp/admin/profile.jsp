@@ -22,10 +22,10 @@
     <!-- Bootstrap Icons -->
     <link href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.11.0/font/bootstrap-icons.css" rel="stylesheet">
     <!-- Custom CSS -->
-    <link href="${pageContext.request.contextPath}/css/style.css?v=<%="2024"%>" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/style.css']}" rel="stylesheet">
     
     <!-- Theme System Script -->
-    <script src="${pageContext.request.contextPath}/js/theme-system.js"></script>
+    <script src="${pageContext.request.contextPath}${applicationScope.assets['js/theme-system.js']}"></script>
 </head>
 <body>
     <!-- Navigation -->
@@ -1,13 +1,30 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ page import="com.coursemanagement.model.*" %>
+<%@ page import="com.coursemanagement.dao.KeysetPage" %>
+<%@ page import="com.coursemanagement.dao.UserDAO" %>
 <%@ page import="java.util.List" %>
 
+<%!
+    private String sortQuery(UserDAO.SortField current, boolean descending, UserDAO.SortField column) {
+        return "&sort=" + column.name().toLowerCase() + "&dir=" + (current == column && !descending ? "desc" : "asc");
+    }
+
+    private String sortIcon(UserDAO.SortField current, boolean descending, UserDAO.SortField column) {
+        return current != column ? "↓↑" : descending ? "↓" : "↑";
+    }
+%>
+
 <%
     User currentUser = (User) session.getAttribute("currentUser");
     List<User> allUsers = (List<User>) request.getAttribute("allUsers");
-    List<User> students = (List<User>) request.getAttribute("students");
-    List<User> teachers = (List<User>) request.getAttribute("teachers");
-    List<User> admins = (List<User>) request.getAttribute("admins");
+    KeysetPage<User> userPage = (KeysetPage<User>) request.getAttribute("userPage");
+    User.UserType role = (User.UserType) request.getAttribute("role");
+    String search = (String) request.getAttribute("search");
+    UserDAO.SortField sort = (UserDAO.SortField) request.getAttribute("sort");
+    boolean descending = Boolean.TRUE.equals(request.getAttribute("descending"));
+    Integer pageSize = (Integer) request.getAttribute("pageSize");
+    String filterQuery = (String) request.getAttribute("filterQuery");
+    String pageQuery = filterQuery + "&sort=" + sort.name().toLowerCase() + (descending ? "&dir=desc" : "");
     String successMessage = (String) request.getAttribute("successMessage");
     String errorMessage = (String) request.getAttribute("errorMessage");
 %>
@@ -27,11 +44,11 @@
     <!-- Bootstrap Icons -->
     <link href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.11.0/font/bootstrap-icons.css" rel="stylesheet">
     <!-- Custom CSS -->
-    <link href="${pageContext.request.contextPath}/css/style.css?v=<%="2024"%>" rel="stylesheet">
-    <link href="${pageContext.request.contextPath}/css/premium-nav.css?v=<%="2024"%>" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/style.css']}" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/premium-nav.css']}" rel="stylesheet">
     
     <!-- Theme System Script -->
-    <script src="${pageContext.request.contextPath}/js/theme-system.js"></script>
+    <script src="${pageContext.request.contextPath}${applicationScope.assets['js/theme-system.js']}"></script>
 </head>
 <body>
     <!-- Navigation -->
@@ -110,6 +127,8 @@
             </div>
         <% } %>
 
+        <%@ include file="/WEB-INF/jspf/import-progress.jspf" %>
+
         <!-- Statistics Cards -->
         <div class="row mb-4 admin-stats">
             <div class="col-md-3 col-sm-6 mb-3">
@@ -270,7 +289,7 @@
                 <div class="card admin-table-section premium-data-table">
                     <div class="card-header bg-primary text-white d-flex justify-content-between align-items-center">
                         <h5 class="card-title mb-0">
-                            <i class="bi bi-table me-2"></i>All Users (<span id="userCount"><%= allUsers != null ? allUsers.size() : 0 %></span>)
+                            <i class="bi bi-table me-2"></i><%= role != null || !search.isEmpty() ? "Matching" : "All" %> Users (<span id="userCount">${matchingUsers}</span>)
                         </h5>
                         <div class="d-flex align-items-center gap-2">
                             <span id="selectedCount" class="badge bg-light text-dark" style="display: none;">0 selected</span>
@@ -284,19 +303,23 @@
                     <div class="card-body border-bottom">
                         <div class="row g-3 align-items-center">
                             <!-- Search and Filter -->
-                            <div class="col-md-4">
-                                <div class="input-group">
-                                    <span class="input-group-text"><i class="bi bi-search"></i></span>
-                                    <input type="text" class="form-control" id="searchUsers" placeholder="Search users...">
-                                </div>
-                            </div>
-                            <div class="col-md-2">
-                                <select class="form-select" id="filterUserType">
-                                    <option value="">All Types</option>
-                                    <option value="ADMIN">Admin</option>
-                                    <option value="TEACHER">Teacher</option>
-                                    <option value="STUDENT">Student</option>
-                                </select>
+                            <div class="col-md-6">
+                                <form method="get" action="${pageContext.request.contextPath}/admin/users" id="userFilterForm" class="d-flex gap-2">
+                                    <div class="input-group">
+                                        <span class="input-group-text"><i class="bi bi-search"></i></span>
+                                        <input type="text" class="form-control" id="searchUsers" name="q" value="<%= search.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;") %>" placeholder="Username, name or email starts with...">
+                                    </div>
+                                    <select class="form-select" id="filterUserType" name="role" style="max-width: 150px;" onchange="this.form.submit()">
+                                        <option value="">All Types</option>
+                                        <% for (User.UserType type : User.UserType.values()) { %>
+                                            <option value="<%= type.name() %>" <%= type == role ? "selected" : "" %>><%= type.name().charAt(0) + type.name().substring(1).toLowerCase() %></option>
+                                        <% } %>
+                                    </select>
+                                    <input type="hidden" name="sort" value="<%= sort.name().toLowerCase() %>">
+                                    <% if (descending) { %><input type="hidden" name="dir" value="desc"><% } %>
+                                    <input type="hidden" name="size" value="<%= pageSize %>">
+                                    <button type="submit" class="btn btn-primary">Search</button>
+                                </form>
                             </div>
                             
                             <!-- Bulk Actions -->
@@ -324,12 +347,11 @@
                             <div class="col-md-3">
                                 <div class="d-flex align-items-center gap-2">
                                     <label class="form-label mb-0 text-nowrap">Show:</label>
-                                    <select class="form-select form-select-sm" id="itemsPerPage" style="width: auto;">
-                                        <option value="10">10</option>
-                                        <option value="25" selected>25</option>
-                                        <option value="50">50</option>
-                                        <option value="100">100</option>
-                                        <option value="all">All</option>
+                                    <select class="form-select form-select-sm" id="itemsPerPage" style="width: auto;"
+                                            onchange="window.location.href = '${pageContext.request.contextPath}/admin/users?<%= pageQuery.replaceFirst("^size=\\d+&", "") %>&size=' + this.value">
+                                        <% for (int size : new int[] {10, 25, 50, 100}) { %>
+                                            <option value="<%= size %>" <%= pageSize != null && pageSize == size ? "selected" : "" %>><%= size %></option>
+                                        <% } %>
                                     </select>
                                 </div>
                             </div>
@@ -349,33 +371,31 @@
                                                 </div>
                                             </th>
                                             <th style="width: 80px;">
-                                                <a href="#" class="sortable" data-column="userId">
-                                                    ID <span class="sort-icon">↓↑</span>
+                                                <a href="${pageContext.request.contextPath}/admin/users?<%= filterQuery + sortQuery(sort, descending, UserDAO.SortField.ID) %>" class="sortable" data-column="userId">
+                                                    ID <span class="sort-icon"><%= sortIcon(sort, descending, UserDAO.SortField.ID) %></span>
                                                 </a>
                                             </th>
                                             <th>
-                                                <a href="#" class="sortable" data-column="username">
-                                                    Username <span class="sort-icon">↓↑</span>
+                                                <a href="${pageContext.request.contextPath}/admin/users?<%= filterQuery + sortQuery(sort, descending, UserDAO.SortField.USERNAME) %>" class="sortable" data-column="username">
+                                                    Username <span class="sort-icon"><%= sortIcon(sort, descending, UserDAO.SortField.USERNAME) %></span>
                                                 </a>
                                             </th>
                                             <th>
-                                                <a href="#" class="sortable" data-column="fullName">
-                                                    Full Name <span class="sort-icon">↓↑</span>
+                                                <a href="${pageContext.request.contextPath}/admin/users?<%= filterQuery + sortQuery(sort, descending, UserDAO.SortField.NAME) %>" class="sortable" data-column="fullName">
+                                                    Full Name <span class="sort-icon"><%= sortIcon(sort, descending, UserDAO.SortField.NAME) %></span>
                                                 </a>
                                             </th>
                                             <th>
-                                                <a href="#" class="sortable" data-column="email">
-                                                    Email <span class="sort-icon">↓↑</span>
+                                                <a href="${pageContext.request.contextPath}/admin/users?<%= filterQuery + sortQuery(sort, descending, UserDAO.SortField.EMAIL) %>" class="sortable" data-column="email">
+                                                    Email <span class="sort-icon"><%= sortIcon(sort, descending, UserDAO.SortField.EMAIL) %></span>
                                                 </a>
                                             </th>
                                             <th>
-                                                <a href="#" class="sortable" data-column="userType">
-                                                    Type <span class="sort-icon">↓↑</span>
-                                                </a>
+                                                Type
                                             </th>
                                             <th>
-                                                <a href="#" class="sortable" data-column="createdAt">
-                                                    Created <span class="sort-icon">↓↑</span>
+                                                <a href="${pageContext.request.contextPath}/admin/users?<%= filterQuery + sortQuery(sort, descending, UserDAO.SortField.CREATED) %>" class="sortable" data-column="createdAt">
+                                                    Created <span class="sort-icon"><%= sortIcon(sort, descending, UserDAO.SortField.CREATED) %></span>
                                                 </a>
                                             </th>
                                             <th style="width: 120px;">Actions</th>
@@ -465,12 +485,26 @@
                         <!-- Pagination -->
                         <div class="d-flex justify-content-between align-items-center p-3 border-top">
                             <div class="text-muted small">
-                                Showing <span id="showingStart">1</span>-<span id="showingEnd">25</span> 
-                                of <span id="totalUsers"><%= allUsers != null ? allUsers.size() : 0 %></span> users
+                                Showing <%= allUsers != null ? allUsers.size() : 0 %>
+                                of <span id="totalUsers">${matchingUsers}</span> users
                             </div>
                             <nav aria-label="Users pagination">
                                 <ul class="pagination pagination-sm mb-0" id="usersPagination">
-                                    <!-- Pagination will be populated by JavaScript -->
+                                    <li class="page-item">
+                                        <a class="page-link" href="${pageContext.request.contextPath}/admin/users?<%= pageQuery %>" title="First page">
+                                            <i class="bi bi-chevron-double-left"></i>
+                                        </a>
+                                    </li>
+                                    <li class="page-item <%= userPage != null && userPage.hasPrevious() ? "" : "disabled" %>">
+                                        <a class="page-link" href="${pageContext.request.contextPath}/admin/users?<%= pageQuery %>&before=<%= userPage != null && userPage.hasPrevious() ? userPage.getPreviousCursor() : "" %>" title="Previous page">
+                                            <i class="bi bi-chevron-left"></i>
+                                        </a>
+                                    </li>
+                                    <li class="page-item <%= userPage != null && userPage.hasNext() ? "" : "disabled" %>">
+                                        <a class="page-link" href="${pageContext.request.contextPath}/admin/users?<%= pageQuery %>&after=<%= userPage != null && userPage.hasNext() ? userPage.getNextCursor() : "" %>" title="Next page">
+                                            <i class="bi bi-chevron-right"></i>
+                                        </a>
+                                    </li>
                                 </ul>
                             </nav>
                         </div>
@@ -483,24 +517,18 @@
     <!-- Bootstrap JS -->
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.0/dist/js/bootstrap.bundle.min.js"></script>
     <!-- Dark Mode Script -->
-    <script src="${pageContext.request.contextPath}/js/theme-system.js"></script>
+    <script src="${pageContext.request.contextPath}${applicationScope.assets['js/theme-system.js']}"></script>
     
     <!-- Enhanced Table Management Script -->
     <script>
-        // Global variables for table management
+        // The server renders one page of users; the grid view is built from those rows
         let allUsers = [];
-        let filteredUsers = [];
-        let currentPage = 1;
-        let itemsPerPage = 25;
-        let sortColumn = '';
-        let sortDirection = 'asc';
         let isGridView = false;
         
         // Initialize table management
         document.addEventListener('DOMContentLoaded', function() {
             initializeTableData();
             setupEventListeners();
-            updateTable();
         });
         
         // Extract user data from the table
@@ -512,33 +540,12 @@
                 fullName: row.dataset.fullname,
                 email: row.dataset.email,
                 userType: row.dataset.usertype,
-                created: row.dataset.created,
-                element: row.cloneNode(true)
+                created: row.dataset.created
             }));
-            filteredUsers = [...allUsers];
         }
         
         // Setup all event listeners
         function setupEventListeners() {
-            // Search functionality
-            document.getElementById('searchUsers').addEventListener('input', function() {
-                currentPage = 1;
-                filterAndUpdateTable();
-            });
-            
-            // User type filter
-            document.getElementById('filterUserType').addEventListener('change', function() {
-                currentPage = 1;
-                filterAndUpdateTable();
-            });
-            
-            // Items per page
-            document.getElementById('itemsPerPage').addEventListener('change', function() {
-                itemsPerPage = this.value === 'all' ? filteredUsers.length : parseInt(this.value);
-                currentPage = 1;
-                updateTable();
-            });
-            
             // Select all checkbox
             document.getElementById('selectAllUsers').addEventListener('change', function() {
                 const checkboxes = document.querySelectorAll('.user-checkbox:not(:disabled)');
@@ -554,145 +561,12 @@
                     updateSelectionUI();
                 }
             });
-
-            // Sortable headers
-            document.querySelectorAll('.sortable').forEach(header => {
-                header.addEventListener('click', function(e) {
-                    e.preventDefault();
-                    const column = this.dataset.column;
-                    sortTable(column);
-                });
-            });
-        }
-        
-        // Filter and search functionality
-        function filterAndUpdateTable() {
-            const searchTerm = document.getElementById('searchUsers').value.toLowerCase();
-            const typeFilter = document.getElementById('filterUserType').value;
-            
-            filteredUsers = allUsers.filter(user => {
-                const matchesSearch = !searchTerm || 
-                    user.username.toLowerCase().includes(searchTerm) ||
-                    user.fullName.toLowerCase().includes(searchTerm) ||
-                    user.email.toLowerCase().includes(searchTerm);
-                
-                const matchesType = !typeFilter || user.userType === typeFilter;
-                
-                return matchesSearch && matchesType;
-            });
-            
-            // Update items per page if it's set to 'all'
-            if (document.getElementById('itemsPerPage').value === 'all') {
-                itemsPerPage = filteredUsers.length;
-            }
-            
-            updateTable();
-        }
-        
-        // Sort table by column
-        function sortTable(column) {
-            if (sortColumn === column) {
-                sortDirection = sortDirection === 'asc' ? 'desc' : 'asc';
-            } else {
-                sortColumn = column;
-                sortDirection = 'asc';
-            }
-            
-            filteredUsers.sort((a, b) => {
-                let valueA = a[column];
-                let valueB = b[column];
-                
-                // Handle numeric sorting for ID
-                if (column === 'id') {
-                    valueA = parseInt(valueA);
-                    valueB = parseInt(valueB);
-                } else {
-                    valueA = valueA.toLowerCase();
-                    valueB = valueB.toLowerCase();
-                }
-                
-                if (valueA < valueB) return sortDirection === 'asc' ? -1 : 1;
-                if (valueA > valueB) return sortDirection === 'asc' ? 1 : -1;
-                return 0;
-            });
-            
-            updateTable();
-            updateSortIcons(column);
-        }
-        
-        // Update sort icons in table headers
-        function updateSortIcons(column) {
-            const header = document.querySelector('th a[data-column="' + column + '"]');
-            if (!header) return;
-
-            const sortIcon = header.querySelector('.sort-icon');
-            if (!sortIcon) return;
-
-            // Reset all icons
-            document.querySelectorAll('th a span.sort-icon').forEach(icon => {
-                if (icon !== sortIcon) {
-                    icon.innerHTML = '↓↑';
-                    icon.classList.remove('asc', 'desc');
-                }
-            });
-
-            if (sortDirection === 'asc') {
-                sortIcon.innerHTML = '↑';
-            } else {
-                sortIcon.innerHTML = '↓';
-            }
-            sortIcon.classList.add(sortDirection);
-            sortIcon.classList.remove(sortDirection === 'asc' ? 'desc' : 'asc');
-        }
-        
-        // Update table with current page and filters
-        function updateTable() {
-            if (isGridView) {
-                updateGridView();
-            } else {
-                updateTableView();
-            }
-            updatePagination();
-            updateStats();
-        }
-        
-        // Update table view
-        function updateTableView() {
-            const tbody = document.getElementById('usersTableBody');
-            const startIndex = (currentPage - 1) * itemsPerPage;
-            const endIndex = startIndex + itemsPerPage;
-            const pageUsers = filteredUsers.slice(startIndex, endIndex);
-            
-            tbody.innerHTML = '';
-            
-            if (pageUsers.length === 0) {
-                tbody.innerHTML = `
-                    <tr>
-                        <td colspan="8" class="text-center text-muted py-4">
-                            <i class="bi bi-search fs-1 d-block mb-2 opacity-50"></i>
-                            No users found matching your criteria
-                        </td>
-                    </tr>
-                `;
-                return;
-            }
-            
-            pageUsers.forEach(user => {
-                tbody.appendChild(user.element.cloneNode(true));
-            });
-            
-            // Re-attach event listeners to new checkboxes
-            document.querySelectorAll('.user-checkbox').forEach(cb => {
-                cb.addEventListener('change', updateSelectionUI);
-            });
         }
         
         // Update grid view
         function updateGridView() {
             const grid = document.getElementById('usersGrid');
-            const startIndex = (currentPage - 1) * itemsPerPage;
-            const endIndex = startIndex + itemsPerPage;
-            const pageUsers = filteredUsers.slice(startIndex, endIndex);
+            const pageUsers = allUsers;
             
             grid.innerHTML = '';
             
@@ -758,74 +632,9 @@
                 toggleBtn.innerHTML = '<i class="bi bi-grid-3x3-gap"></i> Grid View';
             }
             
-            updateTable();
-        }
-        
-        // Update pagination
-        function updatePagination() {
-            const totalPages = Math.ceil(filteredUsers.length / itemsPerPage);
-            const pagination = document.getElementById('usersPagination');
-            
-            if (totalPages <= 1) {
-                pagination.innerHTML = '';
-                return;
-            }
-            
-            let paginationHTML = '';
-            
-            // Previous button
-            paginationHTML += 
-                '<li class="page-item ' + (currentPage === 1 ? 'disabled' : '') + '">' +
-                    '<a class="page-link" href="#" onclick="changePage(' + (currentPage - 1) + ')">' +
-                        '<i class="bi bi-chevron-left"></i>' +
-                    '</a>' +
-                '</li>';
-            
-            // Page numbers
-            const maxVisiblePages = 5;
-            let startPage = Math.max(1, currentPage - Math.floor(maxVisiblePages / 2));
-            let endPage = Math.min(totalPages, startPage + maxVisiblePages - 1);
-            
-            if (endPage - startPage < maxVisiblePages - 1) {
-                startPage = Math.max(1, endPage - maxVisiblePages + 1);
-            }
-            
-            for (let i = startPage; i <= endPage; i++) {
-                paginationHTML += 
-                    '<li class="page-item ' + (i === currentPage ? 'active' : '') + '">' +
-                        '<a class="page-link" href="#" onclick="changePage(' + i + ')">' + i + '</a>' +
-                    '</li>';
+            if (isGridView) {
+                updateGridView();
             }
-            
-            // Next button
-            paginationHTML += 
-                '<li class="page-item ' + (currentPage === totalPages ? 'disabled' : '') + '">' +
-                    '<a class="page-link" href="#" onclick="changePage(' + (currentPage + 1) + ')">' +
-                        '<i class="bi bi-chevron-right"></i>' +
-                    '</a>' +
-                '</li>';
-            
-            pagination.innerHTML = paginationHTML;
-        }
-        
-        // Change page
-        function changePage(page) {
-            const totalPages = Math.ceil(filteredUsers.length / itemsPerPage);
-            if (page < 1 || page > totalPages) return;
-            
-            currentPage = page;
-            updateTable();
-        }
-        
-        // Update statistics and counts
-        function updateStats() {
-            const startIndex = (currentPage - 1) * itemsPerPage;
-            const endIndex = Math.min(startIndex + itemsPerPage, filteredUsers.length);
-            
-            document.getElementById('showingStart').textContent = filteredUsers.length === 0 ? 0 : startIndex + 1;
-            document.getElementById('showingEnd').textContent = endIndex;
-            document.getElementById('totalUsers').textContent = filteredUsers.length;
-            document.getElementById('userCount').textContent = filteredUsers.length;
         }
         
         // Update selection UI
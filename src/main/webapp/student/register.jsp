@@ -25,8 +25,8 @@
     <!-- Bootstrap Icons -->
     <link href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.11.0/font/bootstrap-icons.css" rel="stylesheet">
     <!-- Custom CSS -->
-    <link href="${pageContext.request.contextPath}/css/style.css" rel="stylesheet">
-    <link href="${pageContext.request.contextPath}/css/premium-nav.css" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/style.css']}" rel="stylesheet">
+    <link href="${pageContext.request.contextPath}${applicationScope.assets['css/premium-nav.css']}" rel="stylesheet">
 </head>
 <body>
     <!-- Navigation -->
@@ -90,7 +90,7 @@
                             <div class="row">
                                 <% for (Course course : availableCourses) { %>
                                     <div class="col-md-6 mb-3">
-                                        <div class="course-card h-100">
+                                        <div class="course-card h-100" data-course-id="<%= course.getCourseId() %>">
                                             <div class="card">
                                                 <div class="card-body">
                                                     <h6 class="card-title text-primary">
@@ -121,14 +121,14 @@
                                                             <div class="col-6">
                                                                 <small class="text-muted">
                                                                     <i class="bi bi-people me-1"></i>
-                                                                    <%= course.getEnrolledStudents() %>/<%= course.getMaxStudents() %> Students
+                                                                    <span class="seat-count"><%= course.getEnrolledStudents() %>/<%= course.getMaxStudents() %></span> Students
                                                                 </small>
                                                             </div>
                                                             <div class="col-6">
                                                                 <% if (course.getEnrolledStudents() < course.getMaxStudents()) { %>
-                                                                    <span class="badge bg-success">Available</span>
+                                                                    <span class="badge bg-success seat-badge">Available</span>
                                                                 <% } else { %>
-                                                                    <span class="badge bg-danger">Full</span>
+                                                                    <span class="badge bg-danger seat-badge">Full</span>
                                                                 <% } %>
                                                             </div>
                                                         </div>
@@ -151,16 +151,17 @@
                                                         <button class="btn btn-success w-100" disabled>
                                                             <i class="bi bi-check-circle me-1"></i>Already Enrolled
                                                         </button>
-                                                    <% } else if (course.getEnrolledStudents() < course.getMaxStudents()) { %>
-                                                        <form method="post" action="${pageContext.request.contextPath}/student/register" style="display: inline;">
+                                                    <% } else { %>
+                                                        <!-- Shown or hidden by live seat updates -->
+                                                        <% boolean hasSeats = course.getEnrolledStudents() < course.getMaxStudents(); %>
+                                                        <form method="post" action="${pageContext.request.contextPath}/student/register" class="seat-register" style="display: <%= hasSeats ? "inline" : "none" %>;">
                                                             <input type="hidden" name="action" value="enroll">
                                                             <input type="hidden" name="courseId" value="<%= course.getCourseId() %>">
                                                             <button type="submit" class="btn btn-primary w-100">
                                                                 <i class="bi bi-plus-circle me-1"></i>Register
                                                             </button>
                                                         </form>
-                                                    <% } else { %>
-                                                        <button class="btn btn-secondary w-100" disabled>
+                                                        <button class="btn btn-secondary w-100 seat-full" style="display: <%= hasSeats ? "none" : "block" %>;" disabled>
                                                             <i class="bi bi-x-circle me-1"></i>Course Full
                                                         </button>
                                                     <% } %>
@@ -265,7 +266,7 @@
     <!-- Bootstrap JS -->
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.0/dist/js/bootstrap.bundle.min.js"></script>
     <!-- Dark Mode Script -->
-    <script src="${pageContext.request.contextPath}/js/theme-system.js"></script>
+    <script src="${pageContext.request.contextPath}${applicationScope.assets['js/theme-system.js']}"></script>
     
     <!-- Custom JavaScript -->
     <script>
@@ -284,6 +285,36 @@
                 }, index * 100);
             });
         });
+        
+        // Live seat counts; the browser reconnects on its own if the stream drops
+        if (window.EventSource) {
+            const seatEvents = new EventSource('${pageContext.request.contextPath}/student/seat-events');
+            seatEvents.addEventListener('seats', function(event) {
+                JSON.parse(event.data).forEach(function(seats) {
+                    const card = document.querySelector('.course-card[data-course-id="' + seats.courseId + '"]');
+                    if (!card) {
+                        return;
+                    }
+                    const open = seats.availableSeats > 0;
+                    card.querySelector('.seat-count').textContent = seats.enrolledStudents + '/' + seats.maxStudents;
+                    
+                    const badge = card.querySelector('.seat-badge');
+                    badge.textContent = open ? 'Available' : 'Full';
+                    badge.classList.toggle('bg-success', open);
+                    badge.classList.toggle('bg-danger', !open);
+                    
+                    const form = card.querySelector('.seat-register');
+                    const full = card.querySelector('.seat-full');
+                    if (form && full) {
+                        form.style.display = open ? 'inline' : 'none';
+                        full.style.display = open ? 'none' : 'block';
+                    }
+                });
+            });
+            window.addEventListener('beforeunload', function() {
+                seatEvents.close();
+            });
+        }
     </script>
 </body>
 </html>
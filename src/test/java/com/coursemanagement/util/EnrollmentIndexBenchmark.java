@@ -0,0 +1,235 @@
+package com.coursemanagement.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Random;
+
+/**
+ * Shows the query plans and timings of the enrollment access paths before
+ * and after the SchemaMigrations index pack, on a seeded dataset.
+ *
+ * The benchmark drops and recreates the given database, so it refuses to
+ * run unless the database name ends in "_bench".
+ *
+ * Run with: java -cp target/classes:target/test-classes:&lt;deps&gt;
+ *           com.coursemanagement.util.EnrollmentIndexBenchmark
+ *           [jdbcUrl] [user] [password] [enrollments]
+ *
+ * Best of 20 on MariaDB 10.11.5 with 1M enrollments (one core, 1 GB buffer pool):
+ *
+ *   query                            before                       after
+ *   Enrollments by course            ref course_id, 15.4 ms       ref idx_enrollments_course_status, 9.3 ms
+ *   Enrollment count by course       ref course_id, 7.4 ms        covering idx_enrollments_course_status, 0.7 ms
+ *   Most recent enrollments          full scan + filesort, 351 ms index idx_enrollments_date, 0.4 ms
+ *   Most recent pending enrollments  full scan + filesort, 346 ms range idx_enrollments_status_date, 0.6 ms
+ *   Courses by teacher               ref teacher_id + filesort    ref idx_courses_teacher_code, no filesort
+ */
+public class EnrollmentIndexBenchmark {
+
+    private static final int STUDENTS = 20000;
+    private static final int TEACHERS = 200;
+    private static final int COURSES = 500;
+    private static final int BATCH_SIZE = 5000;
+    private static final int RUNS = 20;
+
+    private static final String[] STATUSES = {"ENROLLED", "ENROLLED", "ENROLLED", "COMPLETED", "DROPPED", "PENDING"};
+
+    private static final String BY_COURSE =
+        "SELECT e.enrollment_id, e.student_id, e.course_id, e.status, e.enrollment_date, e.last_updated, " +
+        "c.course_code, c.course_name, u.full_name AS student_name, t.full_name AS teacher_name " +
+        "FROM enrollments e " +
+        "JOIN courses c ON e.course_id = c.course_id " +
+        "LEFT JOIN users u ON e.student_id = u.user_id " +
+        "LEFT JOIN users t ON c.teacher_id = t.user_id " +
+        "WHERE e.course_id = 42 AND e.status = 'ENROLLED' " +
+        "ORDER BY u.full_name";
+
+    private static final String COUNT_BY_COURSE =
+        "SELECT COUNT(*) FROM enrollments WHERE course_id = 42 AND status = 'ENROLLED'";
+
+    private static final String RECENT =
+        "SELECT e.enrollment_id, e.student_id, e.course_id, e.status, e.enrollment_date " +
+        "FROM enrollments e ORDER BY e.enrollment_date DESC LIMIT 50";
+
+    private static final String RECENT_BY_STATUS =
+        "SELECT e.enrollment_id, e.student_id, e.course_id, e.status, e.enrollment_date " +
+        "FROM enrollments e WHERE e.status = 'PENDING' ORDER BY e.enrollment_date DESC LIMIT 50";
+
+    private static final String BY_TEACHER =
+        "SELECT c.course_id, c.course_code, c.course_name FROM courses c " +
+        "WHERE c.teacher_id = 7 ORDER BY c.course_code";
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "jdbc:mysql://localhost:3306/course_management_bench";
+        String user = args.length > 1 ? args[1] : "root";
+        String password = args.length > 2 ? args[2] : "";
+        int enrollments = args.length > 3 ? Integer.parseInt(args[3]) : 1000000;
+
+        String database = url.substring(url.lastIndexOf('/') + 1).split("\\?")[0];
+        if (!database.endsWith("_bench")) {
+            throw new IllegalArgumentException("Refusing to recreate '" + database + "'; use a *_bench database");
+        }
+
+        Class.forName("com.mysql.cj.jdbc.Driver");
+        try (Connection server = DriverManager.getConnection(url.substring(0, url.lastIndexOf('/')), user, password);
+             Statement stmt = server.createStatement()) {
+            stmt.executeUpdate("DROP DATABASE IF EXISTS " + database);
+            stmt.executeUpdate("CREATE DATABASE " + database);
+        }
+
+        String seedUrl = url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        try (Connection conn = DriverManager.getConnection(seedUrl, user, password)) {
+            // Baseline schema and default data, without the index pack
+            SchemaMigrations.migrate(conn, 2);
+            long start = System.currentTimeMillis();
+            seed(conn, enrollments);
+            analyze(conn);
+            System.out.printf("Seeded %d enrollments in %d ms%n", enrollments, System.currentTimeMillis() - start);
+
+            report(conn, "BEFORE index pack");
+
+            start = System.currentTimeMillis();
+            SchemaMigrations.migrate(conn);
+            analyze(conn);
+            System.out.printf("Migrated to version %d in %d ms%n",
+                              SchemaMigrations.getCurrentVersion(conn), System.currentTimeMillis() - start);
+
+            report(conn, "AFTER index pack");
+        }
+    }
+
+    private static void seed(Connection conn, int enrollments) throws SQLException {
+        int userBase = maxId(conn, "SELECT MAX(user_id) FROM users");
+        int courseBase = maxId(conn, "SELECT MAX(course_id) FROM courses");
+        conn.setAutoCommit(false);
+        String userSql = "INSERT INTO users (username, password, full_name, email, user_type) VALUES (?, 'x', ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(userSql)) {
+            for (int i = 1; i <= TEACHERS + STUDENTS; i++) {
+                boolean teacher = i <= TEACHERS;
+                stmt.setString(1, "user" + i);
+                stmt.setString(2, (teacher ? "Teacher " : "Student ") + Integer.toString(i * 7919 % 100003, 36));
+                stmt.setString(3, "user" + i + "@bench.local");
+                stmt.setString(4, teacher ? "TEACHER" : "STUDENT");
+                stmt.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+
+        String courseSql = "INSERT INTO courses (course_code, course_name, teacher_id, max_students) VALUES (?, ?, ?, 100000)";
+        try (PreparedStatement stmt = conn.prepareStatement(courseSql)) {
+            for (int i = 1; i <= COURSES; i++) {
+                stmt.setString(1, String.format("BENCH%04d", i));
+                stmt.setString(2, "Course " + i);
+                stmt.setInt(3, userBase + 1 + i % TEACHERS);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        conn.commit();
+
+        // Each student takes a run of distinct courses; 13 is coprime to COURSES
+        int perStudent = Math.min(COURSES, (enrollments + STUDENTS - 1) / STUDENTS);
+        long now = System.currentTimeMillis();
+        long twoYears = 2L * 365 * 24 * 3600 * 1000;
+        Random random = new Random(42);
+        String enrollmentSql = "INSERT INTO enrollments (student_id, course_id, status, enrollment_date) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(enrollmentSql)) {
+            int inserted = 0;
+            for (int s = 0; s < STUDENTS && inserted < enrollments; s++) {
+                for (int k = 0; k < perStudent && inserted < enrollments; k++) {
+                    stmt.setInt(1, userBase + TEACHERS + 1 + s);
+                    stmt.setInt(2, courseBase + 1 + (s * 7 + k * 13) % COURSES);
+                    stmt.setString(3, STATUSES[random.nextInt(STATUSES.length)]);
+                    stmt.setTimestamp(4, new Timestamp(now - (long) (random.nextDouble() * twoYears)));
+                    stmt.addBatch();
+                    if (++inserted % BATCH_SIZE == 0) {
+                        stmt.executeBatch();
+                        conn.commit();
+                    }
+                }
+            }
+            stmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    private static int maxId(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void analyze(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE TABLE users, courses, enrollments");
+        }
+    }
+
+    private static void report(Connection conn, String title) throws SQLException {
+        System.out.println();
+        System.out.println("=== " + title + " ===");
+        measure(conn, "Enrollments by course", BY_COURSE);
+        measure(conn, "Enrollment count by course", COUNT_BY_COURSE);
+        measure(conn, "Most recent enrollments", RECENT);
+        measure(conn, "Most recent pending enrollments", RECENT_BY_STATUS);
+        measure(conn, "Courses by teacher", BY_TEACHER);
+    }
+
+    private static void measure(Connection conn, String name, String sql) throws SQLException {
+        System.out.println();
+        System.out.println("-- " + name);
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN " + sql)) {
+            printPlan(rs);
+        }
+
+        long best = Long.MAX_VALUE;
+        int rows = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            rows = 0;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("   %d rows, best of %d: %.2f ms%n", rows, RUNS, best / 1e6);
+    }
+
+    private static void printPlan(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        String[] columns = {"table", "type", "key", "rows", "filtered", "Extra"};
+        StringBuilder header = new StringBuilder("  ");
+        for (String column : columns) {
+            header.append(String.format(" %-32s", column));
+        }
+        System.out.println(header.toString().replaceAll("\\s+$", ""));
+        while (rs.next()) {
+            StringBuilder line = new StringBuilder("  ");
+            for (String column : columns) {
+                String value = null;
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    if (meta.getColumnLabel(i).equalsIgnoreCase(column)) {
+                        value = rs.getString(i);
+                    }
+                }
+                line.append(String.format(" %-32s", value));
+            }
+            System.out.println(line.toString().replaceAll("\\s+$", ""));
+        }
+    }
+}
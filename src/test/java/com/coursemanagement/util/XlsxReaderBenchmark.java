@@ -0,0 +1,143 @@
+package com.coursemanagement.util;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Compares the DOM (XSSFWorkbook) and streaming (XlsxRowReader) paths for
+ * reading a bulk user import file, once with the strings in a shared
+ * strings table as Excel writes them and once with inline strings.
+ *
+ * Each case runs at half and at the full row count. Memory is the heap
+ * still reachable after a full GC once every row has been read, with the
+ * workbook or reader still open, so it shows what a reader retains and how
+ * that grows with the file rather than how much garbage it produced.
+ *
+ * Run with: java -cp target/classes:target/test-classes:&lt;deps&gt;
+ *           com.coursemanagement.util.XlsxReaderBenchmark [rows]
+ */
+public class XlsxReaderBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        for (boolean sharedStrings : new boolean[] {true, false}) {
+            run(rows / 2, sharedStrings);
+            run(rows, sharedStrings);
+        }
+    }
+
+    private static void run(int rows, boolean sharedStrings) throws Exception {
+        File file = File.createTempFile("bench-users-", ".xlsx");
+        file.deleteOnExit();
+        generate(file, rows, sharedStrings);
+        System.out.println();
+        System.out.printf("Generated %d rows with %s strings (%d KB)%n",
+                rows, sharedStrings ? "shared" : "inline", file.length() / 1024);
+
+        // Warm up both paths once
+        readDom(file, () -> { });
+        readStreaming(file, () -> { });
+
+        measure("DOM (XSSFWorkbook)", atEnd -> readDom(file, atEnd));
+        measure("Streaming (XlsxRowReader)", atEnd -> readStreaming(file, atEnd));
+    }
+
+    private interface Reader {
+        /** Reads every row and calls atEnd before closing the file */
+        int read(Runnable atEnd) throws Exception;
+    }
+
+    private static void measure(String name, Reader reader) throws Exception {
+        long baseline = retainedHeap();
+        long start = System.nanoTime();
+        long[] result = new long[2];
+        int count = reader.read(() -> {
+            result[0] = System.nanoTime() - start;
+            result[1] = retainedHeap() - baseline;
+        });
+        System.out.printf("%-28s rows=%d time=%d ms retained heap=%.1f MB%n",
+                name, count, result[0] / 1_000_000, Math.max(0, result[1]) / (1024.0 * 1024));
+    }
+
+    private static int readDom(File file, Runnable atEnd) throws Exception {
+        int count = 0;
+        try (InputStream in = new FileInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+            Iterator<Row> iterator = workbook.getSheetAt(0).iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+            }
+            while (iterator.hasNext()) {
+                Row row = iterator.next();
+                for (int i = 0; i < 5; i++) {
+                    if (row.getCell(i) != null) {
+                        row.getCell(i).toString();
+                    }
+                }
+                count++;
+            }
+            atEnd.run();
+        }
+        return count;
+    }
+
+    private static int readStreaming(File file, Runnable atEnd) throws Exception {
+        int count = 0;
+        try (InputStream in = new FileInputStream(file);
+             ImportRowReader reader = ImportRowReader.open(in, file.getName(), "username", "email", "password", "fullName", "userType")) {
+            while (reader.next() != null) {
+                count++;
+            }
+            atEnd.run();
+        }
+        return count;
+    }
+
+    private static void generate(File file, int rows, boolean sharedStrings) throws Exception {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, false, sharedStrings);
+             OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("users");
+            String[] header = {"username", "email", "password", "fullName", "userType"};
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < header.length; i++) {
+                headerRow.createCell(i).setCellValue(header[i]);
+            }
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("student" + r);
+                row.createCell(1).setCellValue("student" + r + "@student.edu");
+                row.createCell(2).setCellValue("password" + r);
+                row.createCell(3).setCellValue("Student Number " + r);
+                row.createCell(4).setCellValue("STUDENT");
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Used heap after collecting until it stops shrinking
+     */
+    private static long retainedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+}